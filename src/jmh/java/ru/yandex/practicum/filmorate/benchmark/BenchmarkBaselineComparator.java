@@ -0,0 +1,64 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Сравнение результатов JMH в формате JSON с базовой линией.
+// Бенчмарк сопоставляется по имени, числу потоков и значениям параметров.
+// Для режима thrpt больше — лучше, для режимов со временем на операцию (avgt, sample, ss) — меньше.
+final class BenchmarkBaselineComparator {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkBaselineComparator() {
+    }
+
+    // Возвращаем описания бенчмарков, ухудшившихся больше чем на maxRegression.
+    static List<String> compare(Path baseline, Path current, double maxRegression) throws IOException {
+        Map<String, JsonNode> baselineScores = readScores(baseline);
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : readScores(current).entrySet()) {
+            JsonNode before = baselineScores.get(entry.getKey());
+            if (before == null) {
+                System.out.println("Нет в базовой линии: " + entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double beforeScore = before.path("primaryMetric").path("score").asDouble();
+            double afterScore = after.path("primaryMetric").path("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double change = beforeScore == 0 ? 0 : (afterScore - beforeScore) / beforeScore;
+            double regression = higherIsBetter ? -change : change;
+            String line = String.format("%s: %.3f -> %.3f %s (%+.1f%%)", entry.getKey(), beforeScore, afterScore,
+                    after.path("primaryMetric").path("scoreUnit").asText(), change * 100);
+            System.out.println(line);
+            if (regression > maxRegression) {
+                regressions.add(line);
+            }
+        }
+        return regressions;
+    }
+
+    private static Map<String, JsonNode> readScores(Path path) throws IOException {
+        Map<String, JsonNode> scores = new HashMap<>();
+        for (JsonNode result : MAPPER.readTree(path.toFile())) {
+            scores.put(key(result), result);
+        }
+        return scores;
+    }
+
+    private static String key(JsonNode result) {
+        Map<String, String> params = new TreeMap<>();
+        result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+        return result.path("benchmark").asText() + " [" + result.path("mode").asText()
+                + ", threads=" + result.path("threads").asInt() + ", params=" + params + "]";
+    }
+
+}
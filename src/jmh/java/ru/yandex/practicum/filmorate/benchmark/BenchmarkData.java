@@ -0,0 +1,25 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+// Генерация тестовых данных для бенчмарков.
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Film film(long number) {
+        return new Film(null, "Name of the film" + number, "Description of the film" + number,
+                LocalDate.of(2000, Month.JANUARY, 1).plusDays(number % 5000), 90L + number % 60);
+    }
+
+    static User user(long number) {
+        return new User(null, "user" + number + "@testemail.com", "TestLogin" + number, "TestName" + number,
+                LocalDate.of(1990, Month.JANUARY, 1).plusDays(number % 5000));
+    }
+
+}
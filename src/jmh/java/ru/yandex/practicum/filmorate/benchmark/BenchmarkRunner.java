@@ -0,0 +1,73 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Точка входа бенчмарков: прогоняет их на заданном наборе числа потоков, сохраняет результат в JSON
+// и сравнивает его с базовой линией. Параметры передаются системными свойствами:
+// bench.include — регулярное выражение для отбора бенчмарков;
+// bench.threads — числа потоков через запятую;
+// bench.result — путь к файлу с результатом;
+// bench.baseline — путь к базовой линии, при ее отсутствии сравнение пропускается;
+// bench.max-regression — допустимое ухудшение в долях, например 0.10;
+// bench.save-baseline — true, чтобы записать результат как новую базовую линию.
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = System.getProperty("bench.include", ".*Benchmark.*");
+        Path result = Path.of(System.getProperty("bench.result", "target/jmh-result.json"));
+        Path baseline = Path.of(System.getProperty("bench.baseline", "src/jmh/baseline.json"));
+        double maxRegression = Double.parseDouble(System.getProperty("bench.max-regression", "0.10"));
+        boolean saveBaseline = Boolean.parseBoolean(System.getProperty("bench.save-baseline", "false"));
+
+        List<RunResult> results = new ArrayList<>();
+        for (String threads : System.getProperty("bench.threads", "1,4").split(",")) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(Integer.parseInt(threads.trim()))
+                    .build();
+            results.addAll(new Runner(options).run());
+        }
+        writeJson(results, result);
+        System.out.println("Результат бенчмарков записан в " + result.toAbsolutePath());
+
+        if (saveBaseline) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Базовая линия обновлена: " + baseline.toAbsolutePath());
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("Базовая линия " + baseline.toAbsolutePath() + " не найдена, сравнение пропущено");
+            return;
+        }
+        List<String> regressions = BenchmarkBaselineComparator.compare(baseline, result, maxRegression);
+        if (!regressions.isEmpty()) {
+            System.err.println("Обнаружено ухудшение производительности:");
+            regressions.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    private static void writeJson(List<RunResult> results, Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(path), true, StandardCharsets.UTF_8)) {
+            ResultFormatFactory.getInstance(ResultFormatType.JSON, out).writeOut(results);
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Сравнение пула потоков платформы и виртуальных потоков при высокой конкурентности, когда каждый вызов хранилища
+// ждет ввода-вывода ioLatencyMillis. Операция — пачка из concurrency одновременных запросов «фильм по ID, затем лайк»
+// через хранилище и FilmService. Пул платформы ограничен platformThreads, как пул Tomcat (по умолчанию 200 потоков).
+// Форк запускается с -Djdk.tracePinnedThreads=short: закрепление виртуального потока на мониторе попадет в вывод.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Djdk.tracePinnedThreads=short"})
+public class ExecutionModeBenchmark {
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"200"})
+    public int platformThreads;
+
+    @Param({"1000", "10000"})
+    public int concurrency;
+
+    @Param({"5"})
+    public long ioLatencyMillis;
+
+    @Param({"10000"})
+    public int filmsCount;
+
+    @Param({"10000"})
+    public int usersCount;
+
+    private ExecutorService executor;
+    private FilmStorage filmStorage;
+    private FilmService filmService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryFilmStorage inMemoryFilmStorage = new InMemoryFilmStorage();
+        InMemoryUserStorage inMemoryUserStorage = new InMemoryUserStorage();
+        for (long i = 0; i < usersCount; i++) {
+            inMemoryUserStorage.addUser(BenchmarkData.user(i));
+        }
+        for (long i = 0; i < filmsCount; i++) {
+            inMemoryFilmStorage.addFilm(BenchmarkData.film(i));
+        }
+        filmStorage = withLatency(FilmStorage.class, inMemoryFilmStorage);
+        UserService userService = new UserService(withLatency(UserStorage.class, inMemoryUserStorage));
+        filmService = new FilmService(filmStorage, userService);
+        executor = "virtual".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(platformThreads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int requests() throws Exception {
+        List<Future<Film>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            responses.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long filmId = random.nextLong(1, filmsCount + 1);
+                filmStorage.getFilmById(filmId);
+                return filmService.addLike(filmId, random.nextLong(1, usersCount + 1));
+            }));
+        }
+        for (Future<Film> response : responses) {
+            response.get();
+        }
+        return responses.size();
+    }
+
+    // Хранилище, каждый вызов которого перед выполнением ждет ioLatencyMillis, как запрос к БД по сети
+    private <T> T withLatency(Class<T> type, T delegate) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Thread.sleep(ioLatencyMillis);
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }));
+    }
+
+}
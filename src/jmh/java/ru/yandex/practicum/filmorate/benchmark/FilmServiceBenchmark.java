@@ -0,0 +1,68 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Бенчмарк лайков и выборки популярных фильмов.
+// Лайки распределены неравномерно: небольшая часть фильмов собирает большую часть лайков.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FilmServiceBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int filmsCount;
+
+    @Param({"10000"})
+    public int usersCount;
+
+    @Param({"10"})
+    public long popularCount;
+
+    private FilmService filmService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        filmService = new FilmService(filmStorage, new UserService(userStorage));
+        for (long i = 0; i < usersCount; i++) {
+            userStorage.addUser(BenchmarkData.user(i));
+        }
+        for (long i = 0; i < filmsCount; i++) {
+            filmStorage.addFilm(BenchmarkData.film(i));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long i = 0; i < filmsCount; i++) {
+            filmService.addLike(skewedFilmId(random), random.nextLong(1, usersCount + 1));
+        }
+    }
+
+    @Benchmark
+    public Film addLike() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return filmService.addLike(skewedFilmId(random), random.nextLong(1, usersCount + 1));
+    }
+
+    @Benchmark
+    public List<Film> getMostPopularFilms() {
+        return filmService.getMostPopularFilms(popularCount);
+    }
+
+    // Квадрат равномерной величины смещает выбор к фильмам с меньшими ID
+    private long skewedFilmId(ThreadLocalRandom random) {
+        double uniform = random.nextDouble();
+        return 1 + (long) (uniform * uniform * filmsCount);
+    }
+
+}
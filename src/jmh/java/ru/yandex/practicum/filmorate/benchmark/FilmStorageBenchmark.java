@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Бенчмарк основных операций хранилища фильмов на каталогах разного размера.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FilmStorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int filmsCount;
+
+    private FilmStorage filmStorage;
+
+    // Хранилище пересоздается на каждой итерации, чтобы addFilm не раздувал его от итерации к итерации
+    @Setup(Level.Iteration)
+    public void setUp() {
+        filmStorage = new InMemoryFilmStorage();
+        for (long i = 0; i < filmsCount; i++) {
+            filmStorage.addFilm(BenchmarkData.film(i));
+        }
+    }
+
+    @Benchmark
+    public Film addFilm() {
+        return filmStorage.addFilm(BenchmarkData.film(filmsCount));
+    }
+
+    @Benchmark
+    public Film getFilmById() {
+        return filmStorage.getFilmById(ThreadLocalRandom.current().nextLong(1, filmsCount + 1));
+    }
+
+}
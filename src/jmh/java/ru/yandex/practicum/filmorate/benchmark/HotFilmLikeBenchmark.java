@@ -0,0 +1,58 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Лайки одного фильма из нескольких потоков: пропускная способность должна расти с числом потоков,
+// пока их не больше ядер. Каждый поток ставит и снимает лайки своих пользователей, поэтому множество
+// лайков не растет от итерации к итерации, а потоки пишут разные элементы одного множества.
+// Запуск: -Dbench.include=HotFilmLikeBenchmark -Dbench.threads=1,2,4,8 (последнее — число ядер).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class HotFilmLikeBenchmark {
+    // Пользователей на поток: лайки одного потока перебирают их по кругу
+    private static final int USERS_PER_THREAD = 10_000;
+
+    private final AtomicLong nextThreadBase = new AtomicLong();
+    private InMemoryFilmStorage filmStorage;
+    private long filmId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filmStorage = new InMemoryFilmStorage();
+        filmId = filmStorage.addFilm(BenchmarkData.film(0)).getId();
+    }
+
+    // Добавление и удаление лайка одного пользователя — две записи в множество лайков фильма
+    @Benchmark
+    public Film likeAndUnlike(ThreadUsers users) {
+        long userId = users.next();
+        filmStorage.addLike(filmId, userId);
+        return filmStorage.removeLike(filmId, userId);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadUsers {
+        private long base;
+        private int position;
+
+        @Setup(Level.Trial)
+        public void setUp(HotFilmLikeBenchmark benchmark) {
+            base = benchmark.nextThreadBase.getAndAdd(USERS_PER_THREAD) + 1;
+        }
+
+        private long next() {
+            position = position + 1 == USERS_PER_THREAD ? 0 : position + 1;
+            return base + position;
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Пропускная способность API при разных режимах журнала. Операция — запрос GET /films/{id}, приложение запускается
+// в форке бенчмарка на случайном порту. Вывод журнала на время замера перенаправляется в файл
+// target/logging-benchmark.log, чтобы не засорять вывод JMH, но запись в него остается синхронной, как в консоль.
+//   * verbose — журнал до перевода логов хранилищ на DEBUG: логи приложения уровня DEBUG и все запросы Logbook;
+//   * default — настройки по умолчанию: логи хранилищ выключены, Logbook пишет все запросы;
+//   * prod — профиль prod: асинхронная запись, выборка запросов Logbook и обрезка тел.
+// Запуск: -Dbench.include=LoggingModeBenchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(8)
+public class LoggingModeBenchmark {
+    private static final int FILMS_COUNT = 10_000;
+
+    @Param({"verbose", "default", "prod"})
+    public String mode;
+
+    private PrintStream originalOut;
+    private PrintStream logOut;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        originalOut = System.out;
+        logOut = new PrintStream(new FileOutputStream("target/logging-benchmark.log", true), true);
+        System.setOut(logOut);
+        context = new SpringApplicationBuilder(FilmorateApplication.class)
+                .profiles("prod".equals(mode) ? new String[]{"prod"} : new String[0])
+                // В classpath бенчмарков есть logback-test.xml, который иначе заменил бы настройку приложения
+                .run("--server.port=0",
+                        "--logging.config=classpath:logback-spring.xml",
+                        "--filmorate.metrics.enabled=false",
+                        "--logging.level.ru.yandex.practicum.filmorate=" + ("verbose".equals(mode) ? "DEBUG" : "INFO"));
+        FilmStorage filmStorage = context.getBean(FilmStorage.class);
+        for (long i = 0; i < FILMS_COUNT; i++) {
+            filmStorage.addFilm(BenchmarkData.film(i));
+        }
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        baseUrl = "http://localhost:" + port + "/films/";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        System.setOut(originalOut);
+        logOut.close();
+    }
+
+    @Benchmark
+    public int getFilmById() throws IOException, InterruptedException {
+        long filmId = ThreadLocalRandom.current().nextLong(1, FILMS_COUNT + 1);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + filmId)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+}
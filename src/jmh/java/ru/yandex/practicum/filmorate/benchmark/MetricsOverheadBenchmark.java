@@ -0,0 +1,83 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.ProxyFactory;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.ServiceMetricsInterceptor;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.metrics.MeteredFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Бенчмарк накладных расходов метрик: горячие операции хранилища фильмов в памяти без декоратора
+// и с декоратором MeteredFilmStorage поверх реестра Prometheus, а также вызов FilmService без прокси
+// и через прокси с ServiceMetricsInterceptor, как в MetricsConfig. Замер в нескольких потоках показывает
+// и конкуренцию за общие таймеры.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(4)
+public class MetricsOverheadBenchmark {
+    private static final int FILMS_COUNT = 100_000;
+    private static final int USERS_COUNT = 10_000;
+
+    @Param({"plain", "metered"})
+    public String storage;
+
+    private FilmStorage filmStorage;
+    private FilmService filmService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryFilmStorage inMemoryFilmStorage = new InMemoryFilmStorage();
+        for (long i = 0; i < FILMS_COUNT; i++) {
+            inMemoryFilmStorage.addFilm(BenchmarkData.film(i));
+        }
+        if ("metered".equals(storage)) {
+            PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            filmStorage = new MeteredFilmStorage(inMemoryFilmStorage, registry);
+            ProxyFactory proxyFactory = new ProxyFactory(new FilmService(filmStorage,
+                    new UserService(new InMemoryUserStorage())));
+            proxyFactory.setProxyTargetClass(true);
+            proxyFactory.addAdvice(new ServiceMetricsInterceptor(FilmService.class, registry));
+            filmService = (FilmService) proxyFactory.getProxy();
+        } else {
+            filmStorage = inMemoryFilmStorage;
+            filmService = new FilmService(filmStorage, new UserService(new InMemoryUserStorage()));
+        }
+    }
+
+    @Benchmark
+    public Film getFilmById() {
+        return filmStorage.getFilmById(ThreadLocalRandom.current().nextLong(1, FILMS_COUNT + 1));
+    }
+
+    @Benchmark
+    public Film addLike() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return filmStorage.addLike(random.nextLong(1, FILMS_COUNT + 1), random.nextLong(1, USERS_COUNT + 1));
+    }
+
+    @Benchmark
+    public List<Film> getMostPopularFilms() {
+        return filmStorage.getMostPopularFilms(10);
+    }
+
+    // Через сервис: с метриками к декоратору хранилища добавляется прокси сервиса
+    @Benchmark
+    public List<Film> serviceGetMostPopularFilms() {
+        return filmService.getMostPopularFilms(10L);
+    }
+
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Запросы по несуществующим ID, как от сканеров и клиентов с устаревшими ссылками: поиск с исключением
+// (ответ 404), поиск через Optional и лайк от несуществующего пользователя через сервис.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class NotFoundBenchmark {
+    private static final int FILMS_COUNT = 10_000;
+
+    private FilmStorage filmStorage;
+    private FilmService filmService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filmStorage = new InMemoryFilmStorage();
+        for (long i = 0; i < FILMS_COUNT; i++) {
+            filmStorage.addFilm(BenchmarkData.film(i));
+        }
+        filmService = new FilmService(filmStorage, new UserService(new InMemoryUserStorage()));
+    }
+
+    @Benchmark
+    public Object getMissingFilm() {
+        try {
+            return filmStorage.getFilmById(missingId());
+        } catch (NotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Optional<Film> findMissingFilm() {
+        return filmStorage.findFilmById(missingId());
+    }
+
+    @Benchmark
+    public Object likeFromMissingUser() {
+        try {
+            return filmService.addLike(1L, missingId());
+        } catch (NotFoundException e) {
+            return e;
+        }
+    }
+
+    private static long missingId() {
+        return ThreadLocalRandom.current().nextLong(FILMS_COUNT + 1, Long.MAX_VALUE);
+    }
+
+}
@@ -0,0 +1,91 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Бенчмарк рекомендаций фильмов по совместным лайкам на каталоге с usersCount * likesPerUser лайками.
+// Популярность фильмов неравномерна: вероятность лайка убывает с ID, поэтому строки популярных фильмов плотные.
+// Модель строится в setUp, поэтому в измерения попадают только запросы и обновления модели.
+// Запуск: -Dbench.include=RecommendationsBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class RecommendationsBenchmark {
+    @Param({"100000"})
+    public int filmsCount;
+
+    @Param({"100000"})
+    public int usersCount;
+
+    @Param({"20"})
+    public int likesPerUser;
+
+    private FilmService filmService;
+    private long likerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        FilmStorage filmStorage = new InMemoryFilmStorage();
+        UserStorage userStorage = new InMemoryUserStorage();
+        filmService = new FilmService(filmStorage, new UserService(userStorage));
+        for (long i = 0; i < filmsCount; i++) {
+            filmStorage.addFilm(BenchmarkData.film(i));
+        }
+        for (long i = 0; i <= usersCount; i++) {
+            userStorage.addUser(BenchmarkData.user(i));
+        }
+        for (long userId = 1; userId <= usersCount; userId++) {
+            for (int i = 0; i < likesPerUser; i++) {
+                filmStorage.addLike(skewedFilmId(), userId);
+            }
+        }
+        // Последний пользователь лайкает самые непопулярные фильмы, а в likeAndUnlike ставит и снимает лайки
+        likerId = usersCount + 1L;
+        for (long filmId = filmsCount; filmId > filmsCount - likesPerUser; filmId--) {
+            filmStorage.addLike(filmId, likerId);
+        }
+        filmService.loadRecommendations();
+    }
+
+    @Benchmark
+    public List<Film> getSimilarFilms() {
+        return filmService.getSimilarFilms(skewedFilmId(), 10);
+    }
+
+    @Benchmark
+    public List<Film> getRecommendedFilms() {
+        return filmService.getRecommendedFilms(randomUserId(), 10);
+    }
+
+    // Лайк и его удаление пользователем с лайками других фильмов: два обновления модели по likesPerUser
+    // счетчиков, после которых ее состояние не меняется
+    @Benchmark
+    public Film likeAndUnlike() {
+        long filmId = skewedFilmId();
+        filmService.addLike(filmId, likerId);
+        return filmService.removeLike(filmId, likerId);
+    }
+
+    private long skewedFilmId() {
+        double random = ThreadLocalRandom.current().nextDouble();
+        return (long) (filmsCount * random * random * random) + 1;
+    }
+
+    private long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, usersCount + 1);
+    }
+
+}
@@ -0,0 +1,109 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.FilmDbStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserDbStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Сравнение задержек хранилища в памяти и хранилища в БД H2 на одинаковых данных.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class StorageEngineBenchmark {
+    @Param({"memory", "jdbc"})
+    public String engine;
+
+    @Param({"10000"})
+    public int filmsCount;
+
+    @Param({"10000"})
+    public int usersCount;
+
+    @Param({"20"})
+    public int friendsPerUser;
+
+    private EmbeddedDatabase database;
+    private FilmStorage filmStorage;
+    private UserStorage userStorage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("jdbc".equals(engine)) {
+            database = new EmbeddedDatabaseBuilder()
+                    .generateUniqueName(true)
+                    .setType(EmbeddedDatabaseType.H2)
+                    .addScript("schema.sql")
+                    .build();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+            filmStorage = new FilmDbStorage(jdbcTemplate);
+            userStorage = new UserDbStorage(jdbcTemplate);
+        } else {
+            filmStorage = new InMemoryFilmStorage();
+            userStorage = new InMemoryUserStorage();
+        }
+        for (long i = 0; i < usersCount; i++) {
+            userStorage.addUser(BenchmarkData.user(i));
+        }
+        for (long i = 0; i < filmsCount; i++) {
+            filmStorage.addFilm(BenchmarkData.film(i));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long i = 0; i < filmsCount; i++) {
+            filmStorage.addLike(random.nextLong(1, filmsCount + 1), random.nextLong(1, usersCount + 1));
+        }
+        for (long userId = 1; userId <= usersCount; userId++) {
+            for (int i = 0; i < friendsPerUser / 2; i++) {
+                long friendId = random.nextLong(1, usersCount + 1);
+                if (friendId != userId) {
+                    userStorage.addFriend(userId, friendId);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (database != null) {
+            database.shutdown();
+        }
+    }
+
+    @Benchmark
+    public Film getFilmById() {
+        return filmStorage.getFilmById(ThreadLocalRandom.current().nextLong(1, filmsCount + 1));
+    }
+
+    @Benchmark
+    public List<Film> getMostPopularFilms() {
+        return filmStorage.getMostPopularFilms(10);
+    }
+
+    @Benchmark
+    public Film addLike() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return filmStorage.addLike(random.nextLong(1, filmsCount + 1), random.nextLong(1, usersCount + 1));
+    }
+
+    @Benchmark
+    public List<User> getMutualFriends() {
+        long firstUserId = ThreadLocalRandom.current().nextLong(1, usersCount + 1);
+        return userStorage.getMutualFriends(firstUserId, firstUserId % usersCount + 1);
+    }
+
+}
@@ -0,0 +1,73 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Бенчмарк операций с пользователями и графом дружбы.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class UserServiceBenchmark {
+    @Param({"10000", "100000"})
+    public int usersCount;
+
+    @Param({"10", "100"})
+    public int friendsPerUser;
+
+    private UserStorage userStorage;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userStorage = new InMemoryUserStorage();
+        userService = new UserService(userStorage);
+        for (long i = 0; i < usersCount; i++) {
+            userStorage.addUser(BenchmarkData.user(i));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long userId = 1; userId <= usersCount; userId++) {
+            for (int i = 0; i < friendsPerUser / 2; i++) {
+                long friendId = random.nextLong(1, usersCount + 1);
+                if (friendId != userId) {
+                    userService.addFriend(userId, friendId);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public User updateUser() {
+        long userId = randomUserId();
+        return userStorage.updateUser(new User(userId, "user" + (userId - 1) + "@testemail.com",
+                "UpdatedLogin" + userId, "UpdatedName", LocalDate.of(1995, Month.MAY, 20)));
+    }
+
+    @Benchmark
+    public List<User> getFriendsListOfUser() {
+        return userService.getFriendsListOfUser(randomUserId());
+    }
+
+    @Benchmark
+    public List<User> getMutualFriendsList() {
+        long firstUserId = randomUserId();
+        long secondUserId = firstUserId % usersCount + 1;
+        return userService.getMutualFriendsList(firstUserId, secondUserId);
+    }
+
+    private long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, usersCount + 1);
+    }
+
+}
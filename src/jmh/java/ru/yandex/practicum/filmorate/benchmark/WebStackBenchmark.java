@@ -0,0 +1,154 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Сравнение API на Spring MVC (Tomcat на потоках платформы или на виртуальных потоках) и на WebFlux (Netty)
+// при connections одновременно открытых соединениях. Приложение запускается в форке бенчмарка на случайном порту.
+// Операция — по одному запросу GET /films/popular из каждого соединения одновременно; ее среднее время — основной
+// результат. В конце каждой итерации выводятся p50 и p99 задержки отдельных запросов, а после открытия соединений —
+// прирост занятой кучи на одно соединение. Клиент работает в той же JVM, поэтому абсолютное значение памяти включает
+// и его соединения, а разница между стеками относится к серверу.
+// Запуск: -Dbench.include=WebStackBenchmark -Dbench.threads=1. Для 10000 соединений клиенту и серверу вместе нужен
+// лимит открытых файлов не меньше 25000 (ulimit -n).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class WebStackBenchmark {
+    @Param({"servlet", "servlet-virtual", "reactive"})
+    public String stack;
+
+    @Param({"10000"})
+    public int connections;
+
+    @Param({"10000"})
+    public int filmsCount;
+
+    @Param({"1000"})
+    public int usersCount;
+
+    private final Queue<long[]> latencies = new ConcurrentLinkedQueue<>();
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FilmorateApplication.class)
+                .web("reactive".equals(stack) ? WebApplicationType.REACTIVE : WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + "servlet-virtual".equals(stack),
+                        // Иначе Tomcat примет только 8192 соединения, а остальные будут ждать в очереди ОС
+                        "--server.tomcat.max-connections=" + connections * 2,
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.zalando.logbook=WARN");
+        FilmStorage filmStorage = context.getBean(FilmStorage.class);
+        UserStorage userStorage = context.getBean(UserStorage.class);
+        for (long i = 0; i < usersCount; i++) {
+            userStorage.addUser(BenchmarkData.user(i));
+        }
+        for (long i = 0; i < filmsCount; i++) {
+            filmStorage.addFilm(BenchmarkData.film(i));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long i = 0; i < filmsCount; i++) {
+            filmStorage.addLike(random.nextLong(1, filmsCount + 1), random.nextLong(1, usersCount + 1));
+        }
+
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(clientExecutor)
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/films/popular?count=10"))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        // Первая волна открывает соединения: клиент HTTP/1.1 держит их открытыми между волнами
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        sendWave();
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        latencies.clear();
+        System.out.printf("%n%s: прирост кучи на соединение %.1f КиБ%n", stack,
+                (heapAfter - heapBefore) / 1024.0 / connections);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printLatencies() {
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        latencies.clear();
+        if (all.length > 0) {
+            System.out.printf("%n%s: запросов %d, p50 %.2f мс, p99 %.2f мс%n", stack, all.length,
+                    percentile(all, 0.50), percentile(all, 0.99));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientExecutor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public int requests() {
+        return sendWave();
+    }
+
+    private int sendWave() {
+        long[] wave = new long[connections];
+        List<CompletableFuture<Void>> responses = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            int index = i;
+            long start = System.nanoTime();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("Неожиданный статус ответа: " + response.statusCode());
+                        }
+                        wave[index] = System.nanoTime() - start;
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        latencies.add(wave);
+        return wave.length;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+}
@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ru.yandex.practicum.filmorate.storage.film.FilmDbStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserDbStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import javax.sql.DataSource;
+
+// Хранилища в реляционной БД включаются свойством filmorate.storage.engine=jdbc.
+// Схема создается при запуске только в этом режиме, поэтому в остальных режимах БД не затрагивается.
+@Configuration
+@ConditionalOnProperty(name = "filmorate.storage.engine", havingValue = "jdbc")
+public class JdbcStorageConfig {
+
+    @Bean
+    public DataSourceInitializer filmorateSchemaInitializer(DataSource dataSource) {
+        DataSourceInitializer initializer = new DataSourceInitializer();
+        initializer.setDataSource(dataSource);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")));
+        return initializer;
+    }
+
+    @Bean
+    public FilmStorage filmDbStorage(JdbcTemplate jdbcTemplate) {
+        return new FilmDbStorage(jdbcTemplate);
+    }
+
+    @Bean
+    public UserStorage userDbStorage(JdbcTemplate jdbcTemplate) {
+        return new UserDbStorage(jdbcTemplate);
+    }
+
+}
@@ -0,0 +1,35 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zalando.logbook.HttpRequest;
+import ru.yandex.practicum.filmorate.controller.NdjsonStreamer;
+import ru.yandex.practicum.filmorate.controller.RequestLogProperties;
+import ru.yandex.practicum.filmorate.controller.RequestLogSampler;
+
+import java.util.function.Predicate;
+
+@Configuration
+@EnableConfigurationProperties(RequestLogProperties.class)
+public class LogbookConfig {
+
+    // Потоковые выгрузки не логируем: Logbook буферизует тело ответа целиком, что сводит потоковую передачу на нет.
+    // Пакетные добавления не логируем: тело пакета из тысяч объектов пришлось бы буферизовать и писать в лог целиком.
+    // Остальные запросы пишутся выборочно с долей filmorate.request-log.*.
+    @Bean
+    public Predicate<HttpRequest> requestCondition(RequestLogProperties properties) {
+        RequestLogSampler sampler = new RequestLogSampler(properties);
+        return request -> {
+            if (request.getPath().endsWith("/batch")) {
+                return false;
+            }
+            String accept = request.getHeaders().getFirst("Accept");
+            if (accept != null && accept.contains(NdjsonStreamer.APPLICATION_NDJSON_VALUE)) {
+                return false;
+            }
+            return sampler.sample(request.getPath());
+        };
+    }
+
+}
@@ -0,0 +1,37 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.yandex.practicum.filmorate.storage.StorageDecorator;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.snapshot.InMemorySnapshotter;
+import ru.yandex.practicum.filmorate.storage.snapshot.SnapshotProperties;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.io.IOException;
+
+// Снимки хранилищ в памяти включаются свойством filmorate.storage.snapshot.enabled=true для движка memory.
+// Снимок загружается при создании бина, то есть до того, как приложение начнет принимать запросы,
+// а записывается при остановке приложения и по запросу POST /storage/snapshot.
+@Configuration
+@ConditionalOnProperty(name = "filmorate.storage.snapshot.enabled", havingValue = "true")
+@EnableConfigurationProperties(SnapshotProperties.class)
+public class MemorySnapshotConfig {
+
+    @Bean
+    public InMemorySnapshotter inMemorySnapshotter(FilmStorage filmStorage, UserStorage userStorage,
+                                                   SnapshotProperties properties) throws IOException {
+        // Снимок пишется и читается в обход кеша и метрик: ищем хранилища в памяти под декораторами
+        InMemoryFilmStorage films = StorageDecorator.find(filmStorage, InMemoryFilmStorage.class).orElse(null);
+        InMemoryUserStorage users = StorageDecorator.find(userStorage, InMemoryUserStorage.class).orElse(null);
+        if (films == null || users == null) {
+            throw new IllegalStateException("Снимки filmorate.storage.snapshot доступны только для движка memory");
+        }
+        return new InMemorySnapshotter(films, users, properties);
+    }
+
+}
@@ -0,0 +1,68 @@
+package ru.yandex.practicum.filmorate.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.ServiceMetricsInterceptor;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.StorageDecorator;
+import ru.yandex.practicum.filmorate.storage.cache.CachingFilmStorage;
+import ru.yandex.practicum.filmorate.storage.cache.CachingUserStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.metrics.CacheMetrics;
+import ru.yandex.practicum.filmorate.storage.metrics.MeteredFilmStorage;
+import ru.yandex.practicum.filmorate.storage.metrics.MeteredUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+// Метрики хранилищ и сервисов включаются свойством filmorate.metrics.enabled=true для любого движка хранилища
+// и отдаются в формате Prometheus по GET /actuator/prometheus. Хранилище оборачивается декоратором с метриками
+// последним, поверх кеша, поэтому время вызова включает и попадания в кеш. Сервисы фильмов и пользователей
+// получают прокси с замером каждой операции. Порядок обертки задает ORDER: кеш применяется раньше него.
+@Configuration
+@ConditionalOnProperty(name = "filmorate.metrics.enabled", havingValue = "true")
+public class MetricsConfig {
+    // Порядок обработчика метрик среди обработчиков бинов: декораторы с меньшим порядком оказываются внутри.
+    static final int ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    @Bean
+    public static MetricsPostProcessor metricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new MetricsPostProcessor(registry);
+    }
+
+    record MetricsPostProcessor(ObjectProvider<MeterRegistry> registry) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof FilmStorage filmStorage && !(bean instanceof MeteredFilmStorage)) {
+                StorageDecorator.find(filmStorage, CachingFilmStorage.class).ifPresent(cache ->
+                        CacheMetrics.bind(registry.getObject(), "films", cache::getStatistics));
+                return new MeteredFilmStorage(filmStorage, registry.getObject());
+            }
+            if (bean instanceof UserStorage userStorage && !(bean instanceof MeteredUserStorage)) {
+                StorageDecorator.find(userStorage, CachingUserStorage.class).ifPresent(cache ->
+                        CacheMetrics.bind(registry.getObject(), "users", cache::getStatistics));
+                return new MeteredUserStorage(userStorage, registry.getObject());
+            }
+            if (bean instanceof FilmService || bean instanceof UserService) {
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setProxyTargetClass(true);
+                proxyFactory.addAdvice(new ServiceMetricsInterceptor(bean.getClass(), registry.getObject()));
+                return proxyFactory.getProxy();
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+
+    }
+
+}
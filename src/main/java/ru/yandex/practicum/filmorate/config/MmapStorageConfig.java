@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.mmap.MappedFilmStorage;
+import ru.yandex.practicum.filmorate.storage.mmap.MmapProperties;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.io.IOException;
+
+// Каталог фильмов в отображаемых в память файлах включается свойством filmorate.storage.engine=mmap.
+// Пользователи в этом режиме хранятся в памяти.
+@Configuration
+@ConditionalOnProperty(name = "filmorate.storage.engine", havingValue = "mmap")
+@EnableConfigurationProperties(MmapProperties.class)
+public class MmapStorageConfig {
+
+    @Bean
+    public FilmStorage mappedFilmStorage(MmapProperties properties) throws IOException {
+        return new MappedFilmStorage(properties.getDirectory(), properties.getRegionSize());
+    }
+
+    @Bean
+    public UserStorage userStorage() {
+        return new InMemoryUserStorage();
+    }
+
+}
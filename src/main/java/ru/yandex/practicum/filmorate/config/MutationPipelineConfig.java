@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.MutationPipeline;
+import ru.yandex.practicum.filmorate.service.MutationPipelineProperties;
+import ru.yandex.practicum.filmorate.service.UserService;
+
+// Конвейер лайков и дружбы с единственным потоком записи включается свойством filmorate.pipeline.enabled=true.
+// Выключенный конвейер применяет изменения сразу в потоке запроса.
+@Configuration
+@EnableConfigurationProperties(MutationPipelineProperties.class)
+public class MutationPipelineConfig {
+
+    @Bean
+    public MutationPipeline mutationPipeline(FilmService filmService, UserService userService,
+                                             MutationPipelineProperties properties) {
+        return new MutationPipeline(filmService, userService, properties);
+    }
+
+}
@@ -0,0 +1,39 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.ReactiveFilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.ReactiveFilmStorageAdapter;
+import ru.yandex.practicum.filmorate.storage.user.ReactiveUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.ReactiveUserStorageAdapter;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+// Реактивные хранилища для API на WebFlux и Netty (spring.main.web-application-type=reactive)
+// работают поверх хранилищ выбранного движка.
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveStorageConfig {
+
+    // Хранилища движка memory не блокируются и вызываются прямо в потоке цикла событий. Остальные движки ждут
+    // fsync журнала, диска или БД, поэтому их вызовы уходят на пул boundedElastic.
+    @Bean
+    public Scheduler storageScheduler(@Value("${filmorate.storage.engine:memory}") String engine) {
+        return "memory".equals(engine) ? Schedulers.immediate() : Schedulers.boundedElastic();
+    }
+
+    @Bean
+    public ReactiveFilmStorage reactiveFilmStorage(FilmStorage filmStorage, Scheduler storageScheduler) {
+        return new ReactiveFilmStorageAdapter(filmStorage, storageScheduler);
+    }
+
+    @Bean
+    public ReactiveUserStorage reactiveUserStorage(UserStorage userStorage, Scheduler storageScheduler) {
+        return new ReactiveUserStorageAdapter(userStorage, storageScheduler);
+    }
+
+}
@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import ru.yandex.practicum.filmorate.service.FilmService;
+
+// Модель рекомендаций фильмов строится в фоне после запуска приложения: на 2 млн лайков это около 20 секунд,
+// и ни запрос рекомендаций, ни лайк не должны их ждать. Реактивный API рекомендаций не отдает,
+// поэтому там модель не строится.
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RecommendationsConfig {
+    private final FilmService filmService;
+
+    public RecommendationsConfig(FilmService filmService) {
+        this.filmService = filmService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRecommendations() {
+        Thread loader = new Thread(filmService::loadRecommendations, "recommendations-load");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+}
@@ -0,0 +1,52 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import ru.yandex.practicum.filmorate.storage.cache.CachingFilmStorage;
+import ru.yandex.practicum.filmorate.storage.cache.CachingUserStorage;
+import ru.yandex.practicum.filmorate.storage.cache.StorageCacheProperties;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+// Кеш перед хранилищами включается свойством filmorate.storage.cache.enabled=true для любого движка хранилища:
+// бин хранилища оборачивается кеширующим декоратором после создания. Обработчик применяется раньше обработчика
+// метрик (MetricsConfig.ORDER), поэтому кеш остается ближе всех к хранилищу, а метрики оборачивают его снаружи.
+// Тип обработчика объявлен в методе бина явно: Spring читает порядок по этому типу до создания обработчиков.
+@Configuration
+@ConditionalOnProperty(name = "filmorate.storage.cache.enabled", havingValue = "true")
+@EnableConfigurationProperties(StorageCacheProperties.class)
+public class StorageCacheConfig {
+
+    @Bean
+    public static CachingStoragePostProcessor storageCachePostProcessor(
+            ObjectProvider<StorageCacheProperties> properties) {
+        return new CachingStoragePostProcessor(properties);
+    }
+
+    record CachingStoragePostProcessor(ObjectProvider<StorageCacheProperties> properties)
+            implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof FilmStorage filmStorage && !(bean instanceof CachingFilmStorage)) {
+                return new CachingFilmStorage(filmStorage, properties.getObject());
+            }
+            if (bean instanceof UserStorage userStorage && !(bean instanceof CachingUserStorage)) {
+                return new CachingUserStorage(userStorage, properties.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return MetricsConfig.ORDER - 1;
+        }
+
+    }
+
+}
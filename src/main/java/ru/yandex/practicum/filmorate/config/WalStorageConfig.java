@@ -0,0 +1,37 @@
+package ru.yandex.practicum.filmorate.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.storage.wal.WalFilmStorage;
+import ru.yandex.practicum.filmorate.storage.wal.WalProperties;
+import ru.yandex.practicum.filmorate.storage.wal.WalStorageEngine;
+import ru.yandex.practicum.filmorate.storage.wal.WalUserStorage;
+
+import java.io.IOException;
+
+// Хранилища с журналом упреждающей записи включаются свойством filmorate.storage.engine=wal.
+@Configuration
+@ConditionalOnProperty(name = "filmorate.storage.engine", havingValue = "wal")
+@EnableConfigurationProperties(WalProperties.class)
+public class WalStorageConfig {
+
+    @Bean
+    public WalStorageEngine walStorageEngine(WalProperties properties) throws IOException {
+        return new WalStorageEngine(properties);
+    }
+
+    @Bean
+    public FilmStorage walFilmStorage(WalStorageEngine engine) {
+        return new WalFilmStorage(engine);
+    }
+
+    @Bean
+    public UserStorage walUserStorage(WalStorageEngine engine) {
+        return new WalUserStorage(engine);
+    }
+
+}
@@ -1,29 +1,55 @@
 package ru.yandex.practicum.filmorate.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.model.BatchResult;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.BatchService;
 import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.MutationPipeline;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/films")
 @Slf4j
 @Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class FilmController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 10_000;
+
     private final FilmService filmService;
+    private final BatchService batchService;
+    private final MutationPipeline mutationPipeline;
+    private final NdjsonStreamer ndjsonStreamer;
 
     @Autowired
-    public FilmController(FilmService filmService) {
+    public FilmController(FilmService filmService, BatchService batchService,
+                          MutationPipeline mutationPipeline, NdjsonStreamer ndjsonStreamer) {
         this.filmService = filmService;
+        this.batchService = batchService;
+        this.mutationPipeline = mutationPipeline;
+        this.ndjsonStreamer = ndjsonStreamer;
     }
 
     @PostMapping
@@ -32,6 +58,21 @@ public class FilmController {
         return filmService.getFilmStorage().addFilm(film);
     }
 
+    // Пакет в виде JSON-массива. Ошибки проверки отдельных фильмов возвращаются в ответе и не отклоняют пакет.
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BatchResult<Film> addFilms(@RequestBody
+                                      @Size(max = MAX_BATCH_SIZE,
+                                              message = "За один запрос можно добавить не более 10000 объектов")
+                                      List<Film> films) {
+        return batchService.addFilms(films);
+    }
+
+    // Пакет в формате NDJSON: по одному объекту на строку.
+    @PostMapping(value = "/batch", consumes = NdjsonStreamer.APPLICATION_NDJSON_VALUE)
+    public BatchResult<Film> addFilmsNdjson(InputStream body) throws IOException {
+        return batchService.addFilms(ndjsonStreamer.read(body, Film.class, MAX_BATCH_SIZE));
+    }
+
     @GetMapping("/{id}")
     public Film getFilm(@PathVariable("id")
                             @NotNull(message = "id не может быть null")
@@ -45,7 +86,7 @@ public class FilmController {
                                @NotNull(message = "id не может быть null")
                                @Min(value = 1, message = "id должен быть положительным целым числом")
                                @Valid Long deletedFilmId) {
-        return filmService.getFilmStorage().removeFilm(deletedFilmId);
+        return filmService.removeFilm(deletedFilmId);
     }
 
     @PutMapping
@@ -54,32 +95,62 @@ public class FilmController {
     }
 
     @GetMapping
-    public List<Film> getAllFilms() {
-        return filmService.getFilmStorage().getAllFilms();
+    public ResponseEntity<List<Film>> getAllFilms(
+            @RequestParam(name = "ids", required = false)
+                @Size(max = MAX_PAGE_SIZE, message = "За один запрос можно получить не более 1000 объектов")
+                List<@Positive(message = "id должен быть положительным целым числом") Long> ids,
+            @RequestParam(name = "after", required = false)
+                @PositiveOrZero(message = "after не может быть отрицательным") Long afterId,
+            @RequestParam(name = "limit", required = false)
+                @Positive(message = "limit должен быть больше 0")
+                @Max(value = MAX_PAGE_SIZE, message = "limit не может быть больше 1000") Integer limit) {
+        if (ids != null) {
+            return ResponseEntity.ok(filmService.getFilmStorage().getFilmsByIds(ids));
+        }
+        if (afterId == null && limit == null) {
+            return ResponseEntity.ok(filmService.getFilmStorage().getAllFilms());
+        }
+        // Постраничная выдача по ключу: курсор следующей страницы — ID последнего элемента текущей
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        List<Film> page = filmService.getFilmStorage().getFilmsPage(afterId == null ? 0 : afterId, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    @GetMapping(produces = NdjsonStreamer.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllFilms() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonStreamer.APPLICATION_NDJSON_VALUE))
+                .body(ndjsonStreamer.stream(filmService.getFilmStorage()::getFilmsPage, Film::getId));
     }
 
     @PutMapping("/{id}/like/{userId}")
-    public Film addLike(@PathVariable("id")
-                            @NotNull(message = "id не может быть null")
-                            @Min(value = 1, message = "id должен быть положительным целым числом")
-                            @Valid Long likedFilmId,
-                        @PathVariable("userId")
-                            @NotNull(message = "id не может быть null")
-                            @Min(value = 1, message = "id должен быть положительным целым числом")
-                            @Valid Long userId) {
-        return filmService.addLike(likedFilmId, userId);
+    public CompletableFuture<Film> addLike(
+            @PathVariable("id")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long likedFilmId,
+            @PathVariable("userId")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long userId) {
+        return mutationPipeline.addLike(likedFilmId, userId);
     }
 
     @DeleteMapping("/{id}/like/{userId}")
-    public Film removeLike(@PathVariable("id")
-                               @NotNull(message = "id не может быть null")
-                               @Min(value = 1, message = "id должен быть положительным целым числом")
-                               @Valid Long likedFilmId,
-                           @PathVariable("userId")
-                               @NotNull(message = "id не может быть null")
-                               @Min(value = 1, message = "id должен быть положительным целым числом")
-                               @Valid Long userId) {
-        return filmService.removeLike(likedFilmId, userId);
+    public CompletableFuture<Film> removeLike(
+            @PathVariable("id")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long likedFilmId,
+            @PathVariable("userId")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long userId) {
+        return mutationPipeline.removeLike(likedFilmId, userId);
     }
 
     @GetMapping("/popular")
@@ -89,4 +160,17 @@ public class FilmController {
         return filmService.getMostPopularFilms(mostPopularFilmCount);
     }
 
+    @GetMapping("/{id}/similar")
+    public List<Film> getSimilarFilms(@PathVariable("id")
+                                          @NotNull(message = "id не может быть null")
+                                          @Min(value = 1, message = "id должен быть положительным целым числом")
+                                          @Valid Long filmId,
+                                      @RequestParam(name = "limit", defaultValue = "10")
+                                          @Positive(message = "limit должен быть больше 0")
+                                          @Max(value = FilmService.MAX_RECOMMENDATIONS,
+                                                  message = "limit не может быть больше 100")
+                                          int limit) {
+        return filmService.getSimilarFilms(filmId, limit);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+// Потоковая выгрузка и чтение объектов в формате NDJSON (один JSON-объект на строку).
+// При выгрузке хранилище читается постранично по ключу, а каждая страница сразу пишется в ответ и сбрасывается в сокет,
+// поэтому расход памяти не зависит от размера хранилища, а медленный клиент притормаживает чтение.
+@Component
+@Slf4j
+public class NdjsonStreamer {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final int BATCH_SIZE = 500;
+
+    private final ObjectMapper objectMapper;
+    // По умолчанию ObjectMapper сбрасывает генератор после каждого объекта, а сбрасываем мы раз на страницу
+    private final ObjectWriter itemWriter;
+
+    @Autowired
+    public NdjsonStreamer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.itemWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public <T> StreamingResponseBody stream(PageReader<T> pageReader, ToLongFunction<T> idExtractor) {
+        return outputStream -> {
+            long writtenCount = 0;
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // Разделитель между объектами пишем сами, чтобы каждая строка завершалась переводом строки
+                generator.setRootValueSeparator(null);
+                long afterId = 0;
+                List<T> page;
+                do {
+                    page = pageReader.read(afterId, BATCH_SIZE);
+                    for (T item : page) {
+                        itemWriter.writeValue(generator, item);
+                        generator.writeRaw('\n');
+                    }
+                    // Запись в сокет блокируется, пока клиент не примет данные, — это и есть управление потоком
+                    generator.flush();
+                    writtenCount += page.size();
+                    if (!page.isEmpty()) {
+                        afterId = idExtractor.applyAsLong(page.get(page.size() - 1));
+                    }
+                } while (page.size() == BATCH_SIZE);
+            }
+            log.info("Потоковая выгрузка завершена, передано объектов: {}", writtenCount);
+        };
+    }
+
+    // Читаем объекты из тела запроса в формате NDJSON. Пустые строки пропускаются.
+    // Строка, которая не разбирается как объект, отклоняет весь запрос, как и синтаксическая ошибка в JSON-массиве.
+    public <T> List<T> read(InputStream inputStream, Class<T> type, int maxCount) throws IOException {
+        List<T> items = new ArrayList<>();
+        try (MappingIterator<T> iterator = objectMapper.readerFor(type).readValues(inputStream)) {
+            while (iterator.hasNextValue()) {
+                if (items.size() == maxCount) {
+                    throw new ValidationException("За один запрос можно добавить не более " + maxCount + " объектов");
+                }
+                items.add(iterator.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Не удалось разобрать объект {} пакета NDJSON: {}", items.size() + 1, e.getOriginalMessage());
+            throw new ValidationException("Не удалось разобрать объект " + (items.size() + 1) + " пакета NDJSON: "
+                    + e.getOriginalMessage());
+        }
+        log.info("Прочитано объектов NDJSON: {}", items.size());
+        return items;
+    }
+
+    // Чтение страницы объектов с ID больше afterId.
+    @FunctionalInterface
+    public interface PageReader<T> {
+        List<T> read(long afterId, int limit);
+    }
+
+}
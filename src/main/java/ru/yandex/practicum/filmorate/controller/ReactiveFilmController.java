@@ -0,0 +1,134 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.ReactiveFilmService;
+
+import java.util.List;
+
+// Неблокирующий вариант FilmController на WebFlux. Списки отдаются потоком: в JSON-массиве
+// или в NDJSON по одному объекту на строку, в зависимости от заголовка Accept.
+@RestController
+@RequestMapping("/films")
+@Slf4j
+@Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveFilmController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ReactiveFilmService filmService;
+
+    @Autowired
+    public ReactiveFilmController(ReactiveFilmService filmService) {
+        this.filmService = filmService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Film> addFilm(@Valid @RequestBody Film film) {
+        return filmService.getFilmStorage().addFilm(film);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Film> getFilm(@PathVariable("id")
+                                  @NotNull(message = "id не может быть null")
+                                  @Min(value = 1, message = "id должен быть положительным целым числом")
+                                  @Valid Long filmId) {
+        return filmService.getFilmStorage().getFilmById(filmId);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Film> deleteFilm(@PathVariable("id")
+                                     @NotNull(message = "id не может быть null")
+                                     @Min(value = 1, message = "id должен быть положительным целым числом")
+                                     @Valid Long deletedFilmId) {
+        return filmService.getFilmStorage().removeFilm(deletedFilmId);
+    }
+
+    @PutMapping
+    public Mono<Film> updateFilm(@Valid @RequestBody Film updatedFilm) {
+        return filmService.getFilmStorage().updateFilm(updatedFilm);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, NdjsonStreamer.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Flux<Film>>> getAllFilms(
+            @RequestParam(name = "ids", required = false)
+                @Size(max = MAX_PAGE_SIZE, message = "За один запрос можно получить не более 1000 объектов")
+                List<@Positive(message = "id должен быть положительным целым числом") Long> ids,
+            @RequestParam(name = "after", required = false)
+                @PositiveOrZero(message = "after не может быть отрицательным") Long afterId,
+            @RequestParam(name = "limit", required = false)
+                @Positive(message = "limit должен быть больше 0")
+                @Max(value = MAX_PAGE_SIZE, message = "limit не может быть больше 1000") Integer limit) {
+        if (ids != null) {
+            return Mono.just(ResponseEntity.ok(filmService.getFilmStorage().getFilmsByIds(ids)));
+        }
+        if (afterId == null && limit == null) {
+            return Mono.just(ResponseEntity.ok(filmService.getFilmStorage().getAllFilms()));
+        }
+        // Курсор следующей страницы известен только после чтения страницы, поэтому страница собирается целиком
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        return filmService.getFilmStorage().getFilmsPage(afterId == null ? 0 : afterId, pageSize)
+                .collectList()
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.size() == pageSize) {
+                        response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getLast().getId()));
+                    }
+                    return response.body(Flux.fromIterable(page));
+                });
+    }
+
+    @PutMapping("/{id}/like/{userId}")
+    public Mono<Film> addLike(
+            @PathVariable("id")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long likedFilmId,
+            @PathVariable("userId")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long userId) {
+        return filmService.addLike(likedFilmId, userId);
+    }
+
+    @DeleteMapping("/{id}/like/{userId}")
+    public Mono<Film> removeLike(
+            @PathVariable("id")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long likedFilmId,
+            @PathVariable("userId")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long userId) {
+        return filmService.removeLike(likedFilmId, userId);
+    }
+
+    @GetMapping(value = "/popular",
+            produces = {MediaType.APPLICATION_JSON_VALUE, NdjsonStreamer.APPLICATION_NDJSON_VALUE})
+    public Flux<Film> getMostPopularFilms(@RequestParam(name = "count", defaultValue = "10")
+                                              @Positive(message = "count должен быть больше 0")
+                                              @Valid Long mostPopularFilmCount) {
+        return filmService.getMostPopularFilms(mostPopularFilmCount);
+    }
+
+}
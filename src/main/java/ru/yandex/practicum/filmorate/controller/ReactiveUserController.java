@@ -0,0 +1,174 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.ReactiveUserService;
+
+import java.util.List;
+
+// Неблокирующий вариант UserController на WebFlux. Списки отдаются потоком, как в ReactiveFilmController.
+@RestController
+@RequestMapping("/users")
+@Slf4j
+@Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ReactiveUserService userService;
+
+    @Autowired
+    public ReactiveUserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<User> addUser(@Valid @RequestBody User user) {
+        return userService.getUserStorage().addUser(user);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<User> getUser(@PathVariable("id")
+                                  @NotNull(message = "id не может быть null")
+                                  @Min(value = 1, message = "id должен быть положительным целым числом")
+                                  @Valid Long userId) {
+        return userService.getUserStorage().getUserById(userId);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<User> removeUser(@PathVariable("id")
+                                     @NotNull(message = "id не может быть null")
+                                     @Min(value = 1, message = "id должен быть положительным целым числом")
+                                     @Valid Long removedUserId) {
+        return userService.getUserStorage().removeUser(removedUserId);
+    }
+
+    @PutMapping
+    public Mono<User> updateUser(@Valid @RequestBody User updatedUser) {
+        return userService.getUserStorage().updateUser(updatedUser);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, NdjsonStreamer.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Flux<User>>> getAllUsers(
+            @RequestParam(name = "ids", required = false)
+                @Size(max = MAX_PAGE_SIZE, message = "За один запрос можно получить не более 1000 объектов")
+                List<@Positive(message = "id должен быть положительным целым числом") Long> ids,
+            @RequestParam(name = "after", required = false)
+                @PositiveOrZero(message = "after не может быть отрицательным") Long afterId,
+            @RequestParam(name = "limit", required = false)
+                @Positive(message = "limit должен быть больше 0")
+                @Max(value = MAX_PAGE_SIZE, message = "limit не может быть больше 1000") Integer limit) {
+        if (ids != null) {
+            return Mono.just(ResponseEntity.ok(userService.getUserStorage().getUsersByIds(ids)));
+        }
+        if (afterId == null && limit == null) {
+            return Mono.just(ResponseEntity.ok(userService.getUserStorage().getAllUsers()));
+        }
+        // Курсор следующей страницы известен только после чтения страницы, поэтому страница собирается целиком
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        return userService.getUserStorage().getUsersPage(afterId == null ? 0 : afterId, pageSize)
+                .collectList()
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.size() == pageSize) {
+                        response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getLast().getId()));
+                    }
+                    return response.body(Flux.fromIterable(page));
+                });
+    }
+
+    @GetMapping("/by-email/{email}")
+    public Mono<User> getUserByEmail(@PathVariable("email")
+                                         @NotBlank(message = "E-mail не может быть пустым") String email) {
+        return userService.getUserStorage().getUserByEmail(email);
+    }
+
+    @GetMapping(value = "/by-login/{login}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, NdjsonStreamer.APPLICATION_NDJSON_VALUE})
+    public Flux<User> getUsersByLogin(@PathVariable("login")
+                                          @NotBlank(message = "Логин не может быть пустым") String login) {
+        return userService.getUserStorage().getUsersByLogin(login);
+    }
+
+    @PutMapping("/{id}/friends/{friendId}")
+    public Mono<User> addFriend(
+            @PathVariable("id")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long userId,
+            @PathVariable("friendId")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long addedFriendsId) {
+        return userService.addFriend(userId, addedFriendsId);
+    }
+
+    @DeleteMapping("/{id}/friends/{friendId}")
+    public Mono<User> removeFriend(
+            @PathVariable("id")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long userId,
+            @PathVariable("friendId")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long removedFriendsId) {
+        return userService.removeFriend(userId, removedFriendsId);
+    }
+
+    @GetMapping(value = "/{id}/friends",
+            produces = {MediaType.APPLICATION_JSON_VALUE, NdjsonStreamer.APPLICATION_NDJSON_VALUE})
+    public Flux<User> getFriendsListOfUser(@PathVariable("id")
+                                               @NotNull(message = "id не может быть null")
+                                               @Min(value = 1, message = "id должен быть положительным целым числом")
+                                               @Valid Long userId) {
+        return userService.getFriendsListOfUser(userId);
+    }
+
+    @GetMapping(value = "/{id}/friends/common/{otherId}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, NdjsonStreamer.APPLICATION_NDJSON_VALUE})
+    public Flux<User> getMutualFriendsList(@PathVariable("id")
+                                               @NotNull(message = "id не может быть null")
+                                               @Min(value = 1, message = "id должен быть положительным целым числом")
+                                               @Valid Long userId,
+                                           @PathVariable("otherId")
+                                               @NotNull(message = "id не может быть null")
+                                               @Min(value = 1, message = "id должен быть положительным целым числом")
+                                               @Valid Long anotherUserId) {
+        return userService.getMutualFriendsList(userId, anotherUserId);
+    }
+
+    @GetMapping("/{id}/friends/common/{otherId}/count")
+    public Mono<Integer> getMutualFriendsCount(
+            @PathVariable("id")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long userId,
+            @PathVariable("otherId")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long anotherUserId) {
+        return userService.getMutualFriendsCount(userId, anotherUserId);
+    }
+
+}
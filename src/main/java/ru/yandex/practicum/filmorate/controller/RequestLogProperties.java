@@ -0,0 +1,17 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Настройки выборочного журнала запросов Logbook (filmorate.request-log.*).
+@Data
+@ConfigurationProperties(prefix = "filmorate.request-log")
+public class RequestLogProperties {
+    // Доля запросов, которые пишутся в журнал, если для пути не задана своя доля
+    private double sampleRate = 1.0;
+    // Доли по префиксам путей, например sample-rates[/films/popular]=0.01. Действует самый длинный префикс
+    private Map<String, Double> sampleRates = new LinkedHashMap<>();
+}
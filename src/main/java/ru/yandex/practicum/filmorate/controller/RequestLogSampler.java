@@ -0,0 +1,53 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Выборка запросов для журнала: запрос пишется с вероятностью, заданной для самого длинного подходящего
+// префикса его пути, или с долей по умолчанию. Решение принимается по запросу, и ответ на него пишется
+// вместе с ним. Префиксы разбираются один раз, на запросе — только проход по короткому массиву.
+public class RequestLogSampler {
+    private final double defaultRate;
+    private final String[] prefixes;
+    private final double[] rates;
+
+    public RequestLogSampler(RequestLogProperties properties) {
+        this.defaultRate = checkRate(properties.getSampleRate());
+        List<Map.Entry<String, Double>> entries = properties.getSampleRates().entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<String, Double> entry) -> entry.getKey().length())
+                        .reversed())
+                .toList();
+        this.prefixes = new String[entries.size()];
+        this.rates = new double[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            prefixes[i] = entries.get(i).getKey();
+            rates[i] = checkRate(entries.get(i).getValue());
+        }
+    }
+
+    // Решаем, писать ли запрос с этим путем в журнал.
+    public boolean sample(String path) {
+        double rate = rateFor(path);
+        return rate >= 1.0 || rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    // Получаем долю запросов, которые пишутся в журнал, для пути.
+    double rateFor(String path) {
+        for (int i = 0; i < prefixes.length; i++) {
+            if (path.startsWith(prefixes[i])) {
+                return rates[i];
+            }
+        }
+        return defaultRate;
+    }
+
+    private static double checkRate(Double rate) {
+        if (rate == null || rate < 0.0 || rate > 1.0) {
+            throw new IllegalArgumentException("Доля запросов в журнале должна быть от 0 до 1, получено: " + rate);
+        }
+        return rate;
+    }
+
+}
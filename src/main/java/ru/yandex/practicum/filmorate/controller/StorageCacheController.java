@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.storage.StorageDecorator;
+import ru.yandex.practicum.filmorate.storage.cache.CacheStatistics;
+import ru.yandex.practicum.filmorate.storage.cache.CachingFilmStorage;
+import ru.yandex.practicum.filmorate.storage.cache.CachingUserStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/storage/cache")
+@ConditionalOnProperty(name = "filmorate.storage.cache.enabled", havingValue = "true")
+public class StorageCacheController {
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+
+    public StorageCacheController(FilmStorage filmStorage, UserStorage userStorage) {
+        this.filmStorage = filmStorage;
+        this.userStorage = userStorage;
+    }
+
+    // Получаем статистику попаданий, промахов и вытеснений кешей хранилищ.
+    @GetMapping("/stats")
+    public Map<String, CacheStatistics> getStatistics() {
+        Map<String, CacheStatistics> statistics = new LinkedHashMap<>();
+        StorageDecorator.find(filmStorage, CachingFilmStorage.class)
+                .ifPresent(cachingFilmStorage -> statistics.put("films", cachingFilmStorage.getStatistics()));
+        StorageDecorator.find(userStorage, CachingUserStorage.class)
+                .ifPresent(cachingUserStorage -> statistics.put("users", cachingUserStorage.getStatistics()));
+        return statistics;
+    }
+
+}
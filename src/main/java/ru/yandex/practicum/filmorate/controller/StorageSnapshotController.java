@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.storage.snapshot.InMemorySnapshotter;
+import ru.yandex.practicum.filmorate.storage.snapshot.SnapshotResult;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/storage/snapshot")
+@ConditionalOnProperty(name = "filmorate.storage.snapshot.enabled", havingValue = "true")
+public class StorageSnapshotController {
+    private final InMemorySnapshotter snapshotter;
+
+    public StorageSnapshotController(InMemorySnapshotter snapshotter) {
+        this.snapshotter = snapshotter;
+    }
+
+    // Записываем снимок хранилищ в памяти. Изменения во время записи не блокируются.
+    @PostMapping
+    public SnapshotResult snapshot() throws IOException {
+        return snapshotter.snapshot();
+    }
+
+}
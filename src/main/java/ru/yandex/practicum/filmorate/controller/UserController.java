@@ -1,28 +1,60 @@
 package ru.yandex.practicum.filmorate.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.BatchService;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.MutationPipeline;
 import ru.yandex.practicum.filmorate.service.UserService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/users")
 @Slf4j
 @Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 10_000;
+
     private final UserService userService;
+    private final FilmService filmService;
+    private final BatchService batchService;
+    private final MutationPipeline mutationPipeline;
+    private final NdjsonStreamer ndjsonStreamer;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, FilmService filmService, BatchService batchService,
+                          MutationPipeline mutationPipeline, NdjsonStreamer ndjsonStreamer) {
         this.userService = userService;
+        this.filmService = filmService;
+        this.batchService = batchService;
+        this.mutationPipeline = mutationPipeline;
+        this.ndjsonStreamer = ndjsonStreamer;
     }
 
     @PostMapping
@@ -31,6 +63,21 @@ public class UserController {
         return userService.getUserStorage().addUser(user);
     }
 
+    // Пакет в виде JSON-массива. Ошибки проверки отдельных пользователей возвращаются в ответе и не отклоняют пакет.
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BatchResult<User> addUsers(@RequestBody
+                                      @Size(max = MAX_BATCH_SIZE,
+                                              message = "За один запрос можно добавить не более 10000 объектов")
+                                      List<User> users) {
+        return batchService.addUsers(users);
+    }
+
+    // Пакет в формате NDJSON: по одному объекту на строку.
+    @PostMapping(value = "/batch", consumes = NdjsonStreamer.APPLICATION_NDJSON_VALUE)
+    public BatchResult<User> addUsersNdjson(InputStream body) throws IOException {
+        return batchService.addUsers(ndjsonStreamer.read(body, User.class, MAX_BATCH_SIZE));
+    }
+
     @GetMapping("/{id}")
     public User getUser(@PathVariable("id")
                             @NotNull(message = "id не может быть null")
@@ -53,32 +100,74 @@ public class UserController {
     }
 
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getUserStorage().getAllUsers();
+    public ResponseEntity<List<User>> getAllUsers(
+            @RequestParam(name = "ids", required = false)
+                @Size(max = MAX_PAGE_SIZE, message = "За один запрос можно получить не более 1000 объектов")
+                List<@Positive(message = "id должен быть положительным целым числом") Long> ids,
+            @RequestParam(name = "after", required = false)
+                @PositiveOrZero(message = "after не может быть отрицательным") Long afterId,
+            @RequestParam(name = "limit", required = false)
+                @Positive(message = "limit должен быть больше 0")
+                @Max(value = MAX_PAGE_SIZE, message = "limit не может быть больше 1000") Integer limit) {
+        if (ids != null) {
+            return ResponseEntity.ok(userService.getUserStorage().getUsersByIds(ids));
+        }
+        if (afterId == null && limit == null) {
+            return ResponseEntity.ok(userService.getUserStorage().getAllUsers());
+        }
+        // Постраничная выдача по ключу: курсор следующей страницы — ID последнего элемента текущей
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        List<User> page = userService.getUserStorage().getUsersPage(afterId == null ? 0 : afterId, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    @GetMapping(produces = NdjsonStreamer.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonStreamer.APPLICATION_NDJSON_VALUE))
+                .body(ndjsonStreamer.stream(userService.getUserStorage()::getUsersPage, User::getId));
+    }
+
+    @GetMapping("/by-email/{email}")
+    public User getUserByEmail(@PathVariable("email")
+                                   @NotBlank(message = "E-mail не может быть пустым") String email) {
+        return userService.getUserStorage().getUserByEmail(email);
+    }
+
+    @GetMapping("/by-login/{login}")
+    public List<User> getUsersByLogin(@PathVariable("login")
+                                          @NotBlank(message = "Логин не может быть пустым") String login) {
+        return userService.getUserStorage().getUsersByLogin(login);
     }
 
     @PutMapping("/{id}/friends/{friendId}")
-    public User addFriend(@PathVariable("id")
-                              @NotNull(message = "id не может быть null")
-                              @Min(value = 1, message = "id должен быть положительным целым числом")
-                              @Valid Long userId,
-                          @PathVariable("friendId")
-                              @NotNull(message = "id не может быть null")
-                              @Min(value = 1, message = "id должен быть положительным целым числом")
-                              @Valid Long addedFriendsId) {
-        return userService.addFriend(userId, addedFriendsId);
+    public CompletableFuture<User> addFriend(
+            @PathVariable("id")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long userId,
+            @PathVariable("friendId")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long addedFriendsId) {
+        return mutationPipeline.addFriend(userId, addedFriendsId);
     }
 
     @DeleteMapping("/{id}/friends/{friendId}")
-    public User removeFriend(@PathVariable("id")
-                                 @NotNull(message = "id не может быть null")
-                                 @Min(value = 1, message = "id должен быть положительным целым числом")
-                                 @Valid Long userId,
-                             @PathVariable("friendId")
-                                 @NotNull(message = "id не может быть null")
-                                 @Min(value = 1, message = "id должен быть положительным целым числом")
-                                 @Valid Long removedFriendsId) {
-        return userService.removeFriend(userId, removedFriendsId);
+    public CompletableFuture<User> removeFriend(
+            @PathVariable("id")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long userId,
+            @PathVariable("friendId")
+                @NotNull(message = "id не может быть null")
+                @Min(value = 1, message = "id должен быть положительным целым числом")
+                @Valid Long removedFriendsId) {
+        return mutationPipeline.removeFriend(userId, removedFriendsId);
     }
 
     @GetMapping("/{id}/friends")
@@ -89,6 +178,32 @@ public class UserController {
         return userService.getFriendsListOfUser(userId);
     }
 
+    @GetMapping("/{id}/friends/suggested")
+    public List<User> getSuggestedFriends(@PathVariable("id")
+                                              @NotNull(message = "id не может быть null")
+                                              @Min(value = 1, message = "id должен быть положительным целым числом")
+                                              @Valid Long userId,
+                                          @RequestParam(name = "limit", defaultValue = "10")
+                                              @Positive(message = "limit должен быть больше 0")
+                                              @Max(value = UserService.MAX_SUGGESTIONS,
+                                                      message = "limit не может быть больше 100")
+                                              int limit) {
+        return userService.getSuggestedFriends(userId, limit);
+    }
+
+    @GetMapping("/{id}/recommendations")
+    public List<Film> getRecommendedFilms(@PathVariable("id")
+                                              @NotNull(message = "id не может быть null")
+                                              @Min(value = 1, message = "id должен быть положительным целым числом")
+                                              @Valid Long userId,
+                                          @RequestParam(name = "limit", defaultValue = "10")
+                                              @Positive(message = "limit должен быть больше 0")
+                                              @Max(value = FilmService.MAX_RECOMMENDATIONS,
+                                                      message = "limit не может быть больше 100")
+                                              int limit) {
+        return filmService.getRecommendedFilms(userId, limit);
+    }
+
     @GetMapping("/{id}/friends/common/{otherId}")
     public List<User> getMutualFriendsList(@PathVariable("id")
                                                @NotNull(message = "id не может быть null")
@@ -101,4 +216,16 @@ public class UserController {
         return userService.getMutualFriendsList(userId, anotherUserId);
     }
 
+    @GetMapping("/{id}/friends/common/{otherId}/count")
+    public int getMutualFriendsCount(@PathVariable("id")
+                                         @NotNull(message = "id не может быть null")
+                                         @Min(value = 1, message = "id должен быть положительным целым числом")
+                                         @Valid Long userId,
+                                     @PathVariable("otherId")
+                                         @NotNull(message = "id не может быть null")
+                                         @Min(value = 1, message = "id должен быть положительным целым числом")
+                                         @Valid Long anotherUserId) {
+        return userService.getMutualFriendsCount(userId, anotherUserId);
+    }
+
 }
\ No newline at end of file
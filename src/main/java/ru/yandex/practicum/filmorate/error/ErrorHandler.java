@@ -1,22 +1,44 @@
 package ru.yandex.practicum.filmorate.error;
 
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.OverloadedException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
 
+import java.util.List;
+
 @RestControllerAdvice
 public class ErrorHandler {
+    // Сколько ошибок проверки тела перечислять в ответе
+    private static final int MAX_REPORTED_ERRORS = 10;
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleMethodArgumentNotValid(final MethodArgumentNotValidException e) {
-        return new ErrorResponse(e.getMessage(),
-                "ОШИБКА ВАЛИДАЦИИ ТЕЛА ЗАПРОСА: " + e.getMessage()
+        String message = describe(e.getBindingResult());
+        return new ErrorResponse(message,
+                "ОШИБКА ВАЛИДАЦИИ ТЕЛА ЗАПРОСА: " + message
+        );
+    }
+
+    // Ошибка проверки тела запроса в реактивном API на WebFlux
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleWebExchangeBind(final WebExchangeBindException e) {
+        String message = describe(e.getBindingResult());
+        return new ErrorResponse(message,
+                "ОШИБКА ВАЛИДАЦИИ ТЕЛА ЗАПРОСА: " + message
         );
     }
 
@@ -44,6 +66,15 @@ public class ErrorHandler {
         );
     }
 
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloaded(final OverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(new ErrorResponse(e.getMessage(),
+                        "СЕРВИС ПЕРЕГРУЖЕН, ПОВТОРИТЕ ЗАПРОС ПОЗЖЕ."
+                ));
+    }
+
     @ExceptionHandler(Throwable.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Throwable e) {
@@ -52,4 +83,25 @@ public class ErrorHandler {
         );
     }
 
+    // getMessage() исключений проверки тела перечисляет все ошибки с именами объектов, кодами и отклоненными
+    // значениями и собирается заново при каждом вызове. В ответ берем только поле и текст первых ошибок.
+    private static String describe(BindingResult bindingResult) {
+        List<ObjectError> errors = bindingResult.getAllErrors();
+        StringBuilder message = new StringBuilder();
+        int reported = Math.min(errors.size(), MAX_REPORTED_ERRORS);
+        for (int i = 0; i < reported; i++) {
+            ObjectError error = errors.get(i);
+            if (i > 0) {
+                message.append("; ");
+            }
+            message.append(error instanceof FieldError fieldError ? fieldError.getField() : error.getObjectName())
+                    .append(": ")
+                    .append(error.getDefaultMessage());
+        }
+        if (errors.size() > reported) {
+            message.append("; и еще ошибок: ").append(errors.size() - reported);
+        }
+        return message.toString();
+    }
+
 }
\ No newline at end of file
@@ -1,7 +1,24 @@
 package ru.yandex.practicum.filmorate.exception;
 
+// Исключение без стека вызовов: оно описывает ожидаемый ответ 404, стек в ответ не попадает, а его заполнение
+// при запросах по случайным ID стоит дороже самого поиска. Сообщения для частых случаев собираются
+// из заготовленных частей одной конкатенацией.
 public class NotFoundException extends RuntimeException {
+    private static final String FILM_PREFIX = "Попытка получения фильма. Фильм с ID: ";
+    private static final String USER_PREFIX = "Попытка получения пользователя. Пользователь с ID: ";
+    private static final String SUFFIX = " не найден";
+
     public NotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
+    }
+
+    // Фильм с указанным ID не найден.
+    public static NotFoundException film(Long filmId) {
+        return new NotFoundException(FILM_PREFIX + filmId + SUFFIX);
+    }
+
+    // Пользователь с указанным ID не найден.
+    public static NotFoundException user(Long userId) {
+        return new NotFoundException(USER_PREFIX + userId + SUFFIX);
     }
-}
\ No newline at end of file
+}
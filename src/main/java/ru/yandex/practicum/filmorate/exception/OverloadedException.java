@@ -0,0 +1,16 @@
+package ru.yandex.practicum.filmorate.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+// Запрос не принят из-за перегрузки. retryAfter — через сколько клиенту стоит повторить запрос.
+@Getter
+public class OverloadedException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public OverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -1,7 +1,8 @@
 package ru.yandex.practicum.filmorate.exception;
 
+// Исключение без стека вызовов: оно описывает ожидаемый ответ 400 на некорректный запрос клиента.
 public class ValidationException extends RuntimeException {
     public ValidationException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
-}
\ No newline at end of file
+}
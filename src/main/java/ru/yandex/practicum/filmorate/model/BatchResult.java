@@ -0,0 +1,15 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.util.List;
+
+// Итог пакетного добавления: добавленные объекты и ошибки отклоненных объектов с их позициями в пакете.
+public record BatchResult<T>(int created, int failed, List<T> items, List<ItemError> errors) {
+
+    public BatchResult(List<T> items, List<ItemError> errors) {
+        this(items.size(), errors.size(), items, errors);
+    }
+
+    public record ItemError(int index, String error) {
+    }
+
+}
@@ -7,15 +7,15 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.yandex.practicum.filmorate.annotations.ValidReleaseDate;
+import ru.yandex.practicum.filmorate.util.ShardedLongSet;
 
 import java.time.LocalDate;
-import java.util.HashSet;
-import java.util.Set;
 
 @Data
 @AllArgsConstructor
 public class Film {
-    private final Set<Long> filmLikedUsersId = new HashSet<>();
+    // Потокобезопасное множество примитивных ID, которое шардируется, если фильм лайкают из многих потоков сразу
+    private final ShardedLongSet filmLikedUsersId = new ShardedLongSet();
     private Long id;
 
     @NotBlank(message = "Название не может быть null или пустым")
@@ -32,12 +32,14 @@ public class Film {
     @Min(value = 1, message = "Продолжительность фильма должна быть положительным числом")
     private Long duration;
 
-    public void addLike(Long userId) {
-        filmLikedUsersId.add(userId);
+    // Возвращаем true, если лайк был добавлен
+    public boolean addLike(Long userId) {
+        return filmLikedUsersId.add(userId);
     }
 
-    public void removeLike(Long userId) {
-        filmLikedUsersId.remove(userId);
+    // Возвращаем true, если лайк был удален
+    public boolean removeLike(Long userId) {
+        return filmLikedUsersId.remove(userId);
     }
 
 }
\ No newline at end of file
@@ -3,15 +3,15 @@ package ru.yandex.practicum.filmorate.model;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import ru.yandex.practicum.filmorate.util.LongHashSet;
 
 import java.time.LocalDate;
-import java.util.HashSet;
-import java.util.Set;
 
 @Data
 @AllArgsConstructor
 public class User {
-    private final Set<Long> friendsId = new HashSet<>();
+    // Потокобезопасное множество примитивных ID: без упаковки каждого ID в Long
+    private final LongHashSet friendsId = new LongHashSet();
     private Long id;
 
     @NotNull(message = "E-mail не может быть null")
@@ -0,0 +1,105 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Пакетное добавление фильмов и пользователей. Все объекты пакета проверяются за один проход,
+// прошедшие проверку добавляются в хранилище одной операцией, а отклоненные попадают в список ошибок
+// и не мешают добавлению остальных.
+@Service
+@Slf4j
+public class BatchService {
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final Validator validator;
+
+    @Autowired
+    public BatchService(FilmStorage filmStorage, UserStorage userStorage, Validator validator) {
+        this.filmStorage = filmStorage;
+        this.userStorage = userStorage;
+        this.validator = validator;
+    }
+
+    public BatchResult<Film> addFilms(List<Film> films) {
+        log.info("Начат процесс пакетного добавления {} фильмов.", films.size());
+        List<BatchResult.ItemError> errors = new ArrayList<>();
+        List<Film> validFilms = new ArrayList<>(films.size());
+        for (int i = 0; i < films.size(); i++) {
+            String error = validate(films.get(i));
+            if (error == null) {
+                validFilms.add(films.get(i));
+            } else {
+                errors.add(new BatchResult.ItemError(i, error));
+            }
+        }
+        List<Film> addedFilms = filmStorage.addFilms(validFilms);
+        log.info("Пакетное добавление фильмов завершено: добавлено {}, отклонено {}", addedFilms.size(), errors.size());
+        return new BatchResult<>(addedFilms, errors);
+    }
+
+    public BatchResult<User> addUsers(List<User> users) {
+        log.info("Начат процесс пакетного добавления {} пользователей.", users.size());
+        List<BatchResult.ItemError> errors = new ArrayList<>();
+        List<User> validUsers = new ArrayList<>(users.size());
+        List<Integer> validIndexes = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            String error = validate(users.get(i));
+            if (error == null) {
+                validUsers.add(users.get(i));
+                validIndexes.add(i);
+            } else {
+                errors.add(new BatchResult.ItemError(i, error));
+            }
+        }
+        List<User> addedUsers = userStorage.addUsers(validUsers);
+        // Хранилище пропускает пользователей с занятым E-mail: находим их позиции в исходном пакете.
+        // Сравниваем по ссылке, так как одинаковые по полям пользователи в пакете — разные позиции
+        if (addedUsers.size() < validUsers.size()) {
+            Set<User> added = Collections.newSetFromMap(new IdentityHashMap<>());
+            added.addAll(addedUsers);
+            for (int i = 0; i < validUsers.size(); i++) {
+                User user = validUsers.get(i);
+                if (!added.contains(user)) {
+                    errors.add(new BatchResult.ItemError(validIndexes.get(i),
+                            "Указанный E-mail: " + user.getEmail() + " уже используется"));
+                }
+            }
+            errors.sort(Comparator.comparingInt(BatchResult.ItemError::index));
+        }
+        log.info("Пакетное добавление пользователей завершено: добавлено {}, отклонено {}",
+                addedUsers.size(), errors.size());
+        return new BatchResult<>(addedUsers, errors);
+    }
+
+    // Возвращаем сообщения нарушенных ограничений через "; " или null, если объект корректен.
+    private String validate(Object item) {
+        if (item == null) {
+            return "Объект пакета не может быть null";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+}
@@ -0,0 +1,369 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.util.LongHashSet;
+import ru.yandex.practicum.filmorate.util.LongIntCounter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+// Рекомендации фильмов по графу лайков. Для каждого фильма хранится разреженная строка совместных лайков:
+// сколько пользователей лайкнули и его, и другой фильм. Похожие на фильм — фильмы его строки с наибольшими
+// счетчиками, рекомендации пользователю — сумма строк его фильмов без уже лайкнутых.
+// Модель строится из хранилища в фоне после запуска приложения и обновляется на каждом лайке и удалении
+// фильма через FilmService: лайк пользователя с n лайками меняет 2n счетчиков. Удаление пользователя модель
+// не меняет: его лайки остаются у фильмов в хранилище, и модель, построенная заново, совпадает с текущей.
+// Общей блокировки у модели нет: изменения одного пользователя идут под блокировкой его полосы,
+// а у каждой строки своя блокировка чтения и записи, поэтому лайки разных пользователей и запросы не ждут
+// друг друга. Блокировки — ReentrantLock, а не мониторы: ожидание не закрепляет виртуальный поток за носителем.
+@Slf4j
+class FilmRecommendations {
+    // Пользователь с большим числом лайков в совместные лайки не входит: его вклад растет как квадрат числа
+    // лайков и почти не несет сходства фильмов. Так один лайк меняет не больше 2 * MAX_LIKES_PER_USER счетчиков.
+    static final int MAX_LIKES_PER_USER = 500;
+    // Сколько первых фильмов каждой строки становятся кандидатами в рекомендации пользователю
+    private static final int CANDIDATES_PER_ROW = 100;
+    // Алгоритм порога суммирует каждого кандидата по всем строкам, то есть его цена растет как квадрат числа
+    // строк. Для пользователей с большим числом лайков строки сразу складываются целиком.
+    private static final int MAX_THRESHOLD_ROWS = 50;
+    // Фильмы читаются из хранилища при построении модели страницами такого размера
+    private static final int PAGE_SIZE = 1_000;
+    private static final int USER_LOCK_STRIPES = 256;
+
+    private final FilmStorage filmStorage;
+    private final Lock[] userLocks = new Lock[USER_LOCK_STRIPES];
+    private final Map<Long, LongHashSet> likedFilms = new ConcurrentHashMap<>();
+    private final Map<Long, Row> coLikes = new ConcurrentHashMap<>();
+    // Изменения, принятые во время построения модели, повторяются после него: построение могло прочитать
+    // лайки фильма до изменения, а добавить в модель после него
+    private final Queue<Runnable> changedDuringLoad = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<LoadState> loadState = new AtomicReference<>(LoadState.NOT_STARTED);
+
+    FilmRecommendations(FilmStorage filmStorage) {
+        this.filmStorage = filmStorage;
+        Arrays.setAll(userLocks, i -> new ReentrantLock());
+    }
+
+    // Приводим модель к состоянию лайка в хранилище. Вызывается после изменения лайка в хранилище, поэтому
+    // повторный лайк ничего не меняет, а при гонке двух изменений одной пары побеждает последнее прочитанное.
+    void update(Film film, Long userId) {
+        long filmId = film.getId();
+        repeatAfterLoad(() -> resync(filmId, userId));
+        sync(film, userId);
+    }
+
+    // Убираем из модели лайки удаленного фильма
+    void removeFilm(Film film) {
+        repeatAfterLoad(() -> forgetFilm(film));
+        forgetFilm(film);
+    }
+
+    // Получаем не более limit фильмов, чаще всего лайкнутых вместе с фильмом.
+    List<Film> similar(Long filmId, int limit) {
+        Row row = coLikes.get(filmId);
+        return toFilms(row == null ? new long[0] : row.top(limit, id -> false));
+    }
+
+    // Получаем не более limit фильмов, которые чаще всего лайкали вместе с фильмами пользователя.
+    // Пользователю сверх порога лайков хватает MAX_LIKES_PER_USER строк, иначе время ответа не ограничено.
+    List<Film> recommend(Long userId, int limit) {
+        LongHashSet films = likedFilms.get(userId);
+        if (films == null) {
+            return List.of();
+        }
+        // При слиянии лайкнутые фильмы проверяются на каждом счетчике, поэтому ищем их в отсортированном снимке,
+        // а не в множестве под блокировкой
+        long[] liked = films.toLongArray();
+        Arrays.sort(liked);
+        LongPredicate isLiked = filmId -> Arrays.binarySearch(liked, filmId) >= 0;
+        List<Row> rows = new ArrayList<>();
+        for (long filmId : liked) {
+            Row row = coLikes.get(filmId);
+            if (row != null) {
+                rows.add(row);
+            }
+            if (rows.size() == MAX_LIKES_PER_USER) {
+                break;
+            }
+        }
+        long[] ranked = rows.size() <= MAX_THRESHOLD_ROWS ? rankByThreshold(rows, isLiked, limit) : null;
+        if (ranked == null) {
+            ranked = rankByMerge(rows, isLiked, limit);
+        }
+        return toFilms(ranked);
+    }
+
+    // Строим модель по лайкам из хранилища. Запросы до конца построения получают ответ по уже прочитанной части.
+    void load() {
+        if (!loadState.compareAndSet(LoadState.NOT_STARTED, LoadState.LOADING)) {
+            return;
+        }
+        log.debug("Начато построение модели совместных лайков");
+        try {
+            long afterId = 0;
+            List<Film> page;
+            do {
+                page = filmStorage.getFilmsPage(afterId, PAGE_SIZE);
+                for (Film film : page) {
+                    long filmId = film.getId();
+                    film.getFilmLikedUsersId().forEachLong(userId -> withUserLock(userId, () -> like(userId, filmId)));
+                    afterId = filmId;
+                }
+            } while (page.size() == PAGE_SIZE);
+            log.debug("Модель совместных лайков построена: фильмов {}, пользователей {}",
+                    coLikes.size(), likedFilms.size());
+        } catch (RuntimeException e) {
+            log.error("Модель совместных лайков построена не полностью", e);
+        } finally {
+            loadState.set(LoadState.LOADED);
+            repeatChanges();
+        }
+    }
+
+    // Алгоритм порога: кандидаты — первые CANDIDATES_PER_ROW фильмов каждой строки, и только для них сумма
+    // считается точно. Фильм вне кандидатов набирает в каждой строке не больше последнего отобранного
+    // из нее счетчика, а в сумме — не больше суммы этих счетчиков, то есть порога. Если последний фильм
+    // ответа набрал больше порога, ответ точный. Иначе возвращаем null, и строки складываются целиком.
+    // Строки популярных фильмов содержат десятки тысяч фильмов, поэтому полное сложение в разы дольше.
+    private long[] rankByThreshold(List<Row> rows, LongPredicate isLiked, int limit) {
+        LongIntCounter scores = new LongIntCounter(rows.size() * CANDIDATES_PER_ROW);
+        long threshold = 0;
+        // Лайкнутые фильмы отсеиваются после отбора. В строках есть только фильмы со своей строкой, поэтому
+        // лайкнутых фильмов в строке меньше числа строк, и из нее берем с таким запасом
+        int perRow = CANDIDATES_PER_ROW + rows.size();
+        for (Row row : rows) {
+            long[] top = row.top(perRow, id -> false);
+            if (top.length == perRow) {
+                threshold += row.get(top[perRow - 1]);
+            }
+            for (long filmId : top) {
+                if (!isLiked.test(filmId) && scores.get(filmId) == 0) {
+                    scores.add(filmId, sum(rows, filmId));
+                }
+            }
+        }
+        long[] ranked = scores.top(limit, id -> false);
+        if (threshold == 0 || ranked.length == limit && scores.get(ranked[limit - 1]) > threshold) {
+            return ranked;
+        }
+        return null;
+    }
+
+    private long[] rankByMerge(List<Row> rows, LongPredicate isLiked, int limit) {
+        int largest = 0;
+        for (Row row : rows) {
+            largest = Math.max(largest, row.size());
+        }
+        LongIntCounter scores = new LongIntCounter(largest);
+        for (Row row : rows) {
+            row.mergeInto(scores);
+        }
+        return scores.top(limit, isLiked);
+    }
+
+    private static int sum(List<Row> rows, long filmId) {
+        int sum = 0;
+        for (Row row : rows) {
+            sum += row.get(filmId);
+        }
+        return sum;
+    }
+
+    // Фильмы, удаленные после лайков, пропускаются хранилищем
+    private List<Film> toFilms(long[] ranked) {
+        return filmStorage.getFilmsByIds(Arrays.stream(ranked).boxed().toList());
+    }
+
+    private void repeatAfterLoad(Runnable change) {
+        if (loadState.get() == LoadState.LOADING) {
+            changedDuringLoad.add(change);
+            // Построение могло закончиться до добавления: тогда повторяем изменение сами
+            if (loadState.get() == LoadState.LOADED) {
+                repeatChanges();
+            }
+        }
+    }
+
+    private void repeatChanges() {
+        Runnable change;
+        while ((change = changedDuringLoad.poll()) != null) {
+            change.run();
+        }
+    }
+
+    // Перечитываем лайк из хранилища. Удаленный фильм возвращается пустым списком.
+    private void resync(long filmId, long userId) {
+        List<Film> films = filmStorage.getFilmsByIds(List.of(filmId));
+        if (films.isEmpty()) {
+            withUserLock(userId, () -> unlike(userId, filmId));
+        } else {
+            sync(films.get(0), userId);
+        }
+    }
+
+    private void sync(Film film, long userId) {
+        withUserLock(userId, () -> {
+            if (film.getFilmLikedUsersId().contains(userId)) {
+                like(userId, film.getId());
+            } else {
+                unlike(userId, film.getId());
+            }
+        });
+    }
+
+    private void forgetFilm(Film film) {
+        long filmId = film.getId();
+        film.getFilmLikedUsersId().forEachLong(userId -> withUserLock(userId, () -> unlike(userId, filmId)));
+    }
+
+    private void withUserLock(long userId, Runnable change) {
+        Lock lock = userLocks[Long.hashCode(userId) & (USER_LOCK_STRIPES - 1)];
+        lock.lock();
+        try {
+            change.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Вызывается под блокировкой полосы пользователя
+    private void like(long userId, long filmId) {
+        LongHashSet films = likedFilms.computeIfAbsent(userId, id -> new LongHashSet());
+        if (!films.add(filmId)) {
+            return;
+        }
+        int count = films.size();
+        if (count <= MAX_LIKES_PER_USER) {
+            films.forEachLong(otherId -> pair(filmId, otherId, 1));
+        } else if (count == MAX_LIKES_PER_USER + 1) {
+            // Пользователь перешел порог: убираем его вклад по всем прежним фильмам
+            films.forEachLong(first -> films.forEachLong(second -> {
+                if (first != filmId && second != filmId && first < second) {
+                    pair(first, second, -1);
+                }
+            }));
+        }
+    }
+
+    // Вызывается под блокировкой полосы пользователя
+    private void unlike(long userId, long filmId) {
+        LongHashSet films = likedFilms.get(userId);
+        if (films == null || !films.remove(filmId)) {
+            return;
+        }
+        int count = films.size();
+        if (count < MAX_LIKES_PER_USER) {
+            films.forEachLong(otherId -> pair(filmId, otherId, -1));
+        } else if (count == MAX_LIKES_PER_USER) {
+            // Пользователь вернулся под порог: возвращаем его вклад по оставшимся фильмам
+            films.forEachLong(first -> films.forEachLong(second -> {
+                if (first < second) {
+                    pair(first, second, 1);
+                }
+            }));
+        }
+        if (count == 0) {
+            likedFilms.remove(userId);
+        }
+    }
+
+    // Меняем счетчик пары в строках обоих фильмов
+    private void pair(long first, long second, int delta) {
+        if (first == second) {
+            return;
+        }
+        change(first, second, delta);
+        change(second, first, delta);
+    }
+
+    // Строку меняют лайки разных пользователей, поэтому счетчик меняется под блокировкой записи строки.
+    // Опустевшая строка удаляется из таблицы и помечается удаленной: изменение, которое дождалось ее блокировки
+    // после удаления, повторяется на новой строке.
+    private void change(long filmId, long otherId, int delta) {
+        while (true) {
+            Row row = coLikes.computeIfAbsent(filmId, id -> new Row());
+            Lock writeLock = row.lock.writeLock();
+            writeLock.lock();
+            try {
+                if (!row.removed) {
+                    row.counter.add(otherId, delta);
+                    if (row.counter.size() == 0) {
+                        row.removed = true;
+                        coLikes.remove(filmId, row);
+                    }
+                    return;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    // Строка совместных лайков фильма. Запросы читают ее под блокировкой чтения параллельно друг с другом.
+    private static final class Row {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final LongIntCounter counter = new LongIntCounter();
+        // Меняется под блокировкой записи
+        private boolean removed;
+
+        private long[] top(int limit, LongPredicate excluded) {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                return counter.top(limit, excluded);
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        private int get(long filmId) {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                return counter.get(filmId);
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        private int size() {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                return counter.size();
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        private void mergeInto(LongIntCounter scores) {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                scores.merge(counter);
+            } finally {
+                readLock.unlock();
+            }
+        }
+    }
+
+    private enum LoadState {
+        NOT_STARTED,
+        LOADING,
+        LOADED
+    }
+
+}
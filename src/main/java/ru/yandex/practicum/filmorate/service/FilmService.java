@@ -1,69 +1,95 @@
 package ru.yandex.practicum.filmorate.service;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 
 @Service
 @Getter
 @Slf4j
 public class FilmService {
+    // Наибольшее число фильмов в ответе getSimilarFilms и getRecommendedFilms
+    public static final int MAX_RECOMMENDATIONS = 100;
+
     private final FilmStorage filmStorage;
     private final UserService userService;
+    @Getter(AccessLevel.NONE)
+    private final FilmRecommendations recommendations;
 
     @Autowired
     public FilmService(FilmStorage filmStorage, UserService userService) {
         this.filmStorage = filmStorage;
         this.userService = userService;
+        this.recommendations = new FilmRecommendations(filmStorage);
     }
 
     public Film addLike(Long likedFilmId, Long userId) {
-        log.info("Начат процесс добавления нового лайка.");
-        try {
-            userService.getUserStorage().getUserById(userId);
-        } catch (NotFoundException e) {
+        log.debug("Начат процесс добавления нового лайка.");
+        if (userService.getUserStorage().findUserById(userId).isEmpty()) {
             throw new NotFoundException("Пользователь с ID: "
                     + userId + " не найден. Невозможно поставить лайк фильму");
         }
-        Film film = filmStorage.getFilmById(likedFilmId);
-        film.addLike(userId);
+        Film film = filmStorage.addLike(likedFilmId, userId);
+        recommendations.update(film, userId);
         return film;
     }
 
     public Film removeLike(Long unlikedFilmId, Long userId) {
-        log.info("Начат процесс удаления лайка фильма.");
-        try {
-            userService.getUserStorage().getUserById(userId);
-        } catch (NotFoundException e) {
+        log.debug("Начат процесс удаления лайка фильма.");
+        if (userService.getUserStorage().findUserById(userId).isEmpty()) {
             throw new NotFoundException("Пользователь с ID: "
                     + userId + " не найден. Невозможно удалить лайк у фильма");
         }
-        Film film = filmStorage.getFilmById(unlikedFilmId);
-        film.removeLike(userId);
+        Film film = filmStorage.removeLike(unlikedFilmId, userId);
+        recommendations.update(film, userId);
+        return film;
+    }
+
+    public Film removeFilm(Long filmId) {
+        log.debug("Начат процесс удаления фильма с ID {}.", filmId);
+        Film film = filmStorage.removeFilm(filmId);
+        recommendations.removeFilm(film);
         return film;
     }
 
     public List<Film> getMostPopularFilms(Long mostPopularFilmCount) {
-        log.info("Начат процесс получения списка наиболее популярных фильмов.");
-        Map<Long, Long> sortedByLikeFilms = new TreeMap<>(Comparator.reverseOrder());
-        for (Film film : filmStorage.getAllFilms()) {
-            if (!film.getFilmLikedUsersId().isEmpty()) {
-                sortedByLikeFilms.put((long) film.getFilmLikedUsersId().size(), film.getId());
-            }
+        log.debug("Начат процесс получения списка наиболее популярных фильмов.");
+        return filmStorage.getMostPopularFilms(mostPopularFilmCount);
+    }
+
+    public List<Film> getSimilarFilms(Long filmId, int limit) {
+        log.debug("Начат процесс получения фильмов, похожих на фильм с ID {}.", filmId);
+        checkRecommendationsLimit(limit);
+        filmStorage.getFilmById(filmId);
+        return recommendations.similar(filmId, limit);
+    }
+
+    public List<Film> getRecommendedFilms(Long userId, int limit) {
+        log.debug("Начат процесс получения рекомендаций фильмов пользователю с ID {}.", userId);
+        checkRecommendationsLimit(limit);
+        userService.getUserStorage().getUserById(userId);
+        return recommendations.recommend(userId, limit);
+    }
+
+    // Строим модель рекомендаций по лайкам из хранилища. Вызывается один раз в фоне после запуска приложения,
+    // до конца построения рекомендации неполные.
+    public void loadRecommendations() {
+        recommendations.load();
+    }
+
+    private void checkRecommendationsLimit(int limit) {
+        if (limit < 1 || limit > MAX_RECOMMENDATIONS) {
+            throw new ValidationException("Количество рекомендаций должно быть от 1 до "
+                    + MAX_RECOMMENDATIONS);
         }
-        return sortedByLikeFilms.values().stream()
-                .map(filmStorage::getFilmById)
-                .limit(mostPopularFilmCount)
-                .toList();
     }
 
 }
\ No newline at end of file
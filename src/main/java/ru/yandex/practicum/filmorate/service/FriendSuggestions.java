@@ -0,0 +1,141 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.util.LongHashSet;
+import ru.yandex.practicum.filmorate.util.LongIntCounter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Рекомендации друзей: пользователи, которые не являются друзьями, упорядоченные по числу общих друзей.
+// Считаются обходом графа дружбы на два шага: для каждого друга перебираются его друзья. Списки друзей друзей
+// читаются из хранилища в вызывающем потоке, а у пользователей с большим числом друзей их подсчет делится между
+// задачами ForkJoinPool, каждая считает в свой примитивный счетчик. Задачи не обращаются к хранилищу
+// и не блокируют потоки общего пула.
+// Ранжированный список кешируется для каждого пользователя и сбрасывается при изменении дружбы через UserService.
+// Кеш ограничен по размеру, и Caffeine вытесняет из него редко запрашиваемых пользователей.
+@Slf4j
+class FriendSuggestions {
+    // Начиная с этого числа друзей, подсчет идет параллельно. Друзья читаются из хранилища частями такого размера
+    private static final int PARALLEL_THRESHOLD = 512;
+    private static final int CHUNK_SIZE = 256;
+    // Наибольшее число пользователей с рекомендациями в кеше
+    private static final int MAX_CACHED_USERS = 10_000;
+
+    private final UserStorage userStorage;
+    private final Cache<Long, long[]> cache = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_USERS)
+            .build();
+    // Растет при каждом сбросе кеша. Результат, посчитанный во время сброса, в кеше не остается
+    private final AtomicLong version = new AtomicLong();
+
+    FriendSuggestions(UserStorage userStorage) {
+        this.userStorage = userStorage;
+    }
+
+    // Получаем не более limit рекомендаций для пользователя.
+    List<User> suggest(Long userId, int limit) {
+        long[] ranked = cache.getIfPresent(userId);
+        if (ranked == null) {
+            long startVersion = version.get();
+            ranked = rank(userStorage.getUserById(userId));
+            if (version.get() == startVersion) {
+                cache.put(userId, ranked);
+                // Сброс мог пройти между проверкой и записью: тогда запись устарела еще до попадания в кеш
+                if (version.get() != startVersion) {
+                    cache.invalidate(userId);
+                }
+            }
+        }
+        long[] selected = ranked.length > limit ? Arrays.copyOf(ranked, limit) : ranked;
+        // Пользователи, удаленные после расчета, пропускаются хранилищем
+        return userStorage.getUsersByIds(Arrays.stream(selected).boxed().toList());
+    }
+
+    // Сбрасываем рекомендации, которые зависят от дружбы двух пользователей: их собственные и их друзей.
+    // Удаление пользователя кеш не сбрасывает, но удаленные пользователи не попадают в ответ.
+    void invalidate(User user, User friend) {
+        version.incrementAndGet();
+        cache.invalidate(user.getId());
+        cache.invalidate(friend.getId());
+        user.getFriendsId().forEachLong(cache::invalidate);
+        friend.getFriendsId().forEachLong(cache::invalidate);
+    }
+
+    private long[] rank(User user) {
+        long userId = user.getId();
+        LongHashSet friendsId = user.getFriendsId();
+        log.debug("Начат расчет рекомендаций друзей пользователя с ID: {}", userId);
+        long[][] friendsOfFriends = readFriendsOfFriends(friendsId.toLongArray());
+        LongIntCounter mutualCounts = friendsOfFriends.length < PARALLEL_THRESHOLD
+                ? countFriendsOfFriends(friendsOfFriends, 0, friendsOfFriends.length)
+                : ForkJoinPool.commonPool().invoke(new CountTask(friendsOfFriends, 0, friendsOfFriends.length));
+        return mutualCounts.top(UserService.MAX_SUGGESTIONS, id -> id == userId || friendsId.contains(id));
+    }
+
+    // Читаем из хранилища списки друзей всех друзей частями по CHUNK_SIZE. Удаленные друзья пропускаются.
+    private long[][] readFriendsOfFriends(long[] friends) {
+        List<long[]> friendsOfFriends = new ArrayList<>(friends.length);
+        for (int start = 0; start < friends.length; start += CHUNK_SIZE) {
+            List<Long> chunk = Arrays.stream(friends, start, Math.min(start + CHUNK_SIZE, friends.length))
+                    .boxed()
+                    .toList();
+            for (User friend : userStorage.getUsersByIds(chunk)) {
+                friendsOfFriends.add(friend.getFriendsId().toLongArray());
+            }
+        }
+        return friendsOfFriends.toArray(long[][]::new);
+    }
+
+    // Для каждого друга из friendsOfFriends[from, to) прибавляем единицу всем его друзьям.
+    private static LongIntCounter countFriendsOfFriends(long[][] friendsOfFriends, int from, int to) {
+        LongIntCounter counter = new LongIntCounter();
+        for (int i = from; i < to; i++) {
+            for (long friendId : friendsOfFriends[i]) {
+                counter.increment(friendId);
+            }
+        }
+        return counter;
+    }
+
+    // Задача подсчета по части списков друзей друзей: делится пополам, пока часть больше CHUNK_SIZE.
+    // Счетчики половин сливаются в больший из двух.
+    private static final class CountTask extends RecursiveTask<LongIntCounter> {
+        private final long[][] friendsOfFriends;
+        private final int from;
+        private final int to;
+
+        private CountTask(long[][] friendsOfFriends, int from, int to) {
+            this.friendsOfFriends = friendsOfFriends;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected LongIntCounter compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return countFriendsOfFriends(friendsOfFriends, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(friendsOfFriends, from, middle);
+            left.fork();
+            LongIntCounter right = new CountTask(friendsOfFriends, middle, to).compute();
+            LongIntCounter leftResult = left.join();
+            if (leftResult.size() < right.size()) {
+                right.merge(leftResult);
+                return right;
+            }
+            leftResult.merge(right);
+            return leftResult;
+        }
+    }
+
+}
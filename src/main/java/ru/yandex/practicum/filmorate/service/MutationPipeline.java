@@ -0,0 +1,184 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.exception.OverloadedException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Конвейер изменений лайков и дружбы с единственным потоком записи.
+//
+// Потоки запросов только кладут изменение в ограниченную кольцевую очередь и получают CompletableFuture,
+// который завершается результатом изменения после его применения, — так клиент видит свою запись в ответе.
+// Поток записи забирает изменения пачками до batchSize и применяет их по одному, поэтому горячий фильм
+// не изменяется из множества потоков одновременно. При переполнении очереди запрос отклоняется
+// с OverloadedException, а не ждет освобождения места.
+//
+// Внутри пачки изменения одной пары (фильм и пользователь, пользователь и друг) сворачиваются:
+// лайк и снятие лайка — операции над множеством, поэтому итог определяет последнее изменение пары.
+// Применяется только оно, в порядке последнего появления пары в пачке, а все свернутые запросы
+// получают его результат — состояние после всей последовательности.
+//
+// Если конвейер выключен, изменения применяются сразу в потоке запроса.
+@Slf4j
+public class MutationPipeline implements Closeable {
+    private final FilmService filmService;
+    private final UserService userService;
+    private final MutationPipelineProperties properties;
+    private final BlockingQueue<Mutation> queue;
+    private final Thread writer;
+    private volatile boolean running;
+
+    public MutationPipeline(FilmService filmService, UserService userService, MutationPipelineProperties properties) {
+        this.filmService = filmService;
+        this.userService = userService;
+        this.properties = properties;
+        if (properties.isEnabled()) {
+            queue = new ArrayBlockingQueue<>(properties.getCapacity());
+            running = true;
+            writer = new Thread(this::runWriter, "mutation-writer");
+            writer.setDaemon(true);
+            writer.start();
+        } else {
+            queue = null;
+            writer = null;
+        }
+    }
+
+    public CompletableFuture<Film> addLike(Long filmId, Long userId) {
+        return submit(new Key(KeyType.LIKE, filmId, userId), () -> filmService.addLike(filmId, userId));
+    }
+
+    public CompletableFuture<Film> removeLike(Long filmId, Long userId) {
+        return submit(new Key(KeyType.LIKE, filmId, userId), () -> filmService.removeLike(filmId, userId));
+    }
+
+    public CompletableFuture<User> addFriend(Long userId, Long friendId) {
+        return submit(new Key(KeyType.FRIEND, userId, friendId), () -> userService.addFriend(userId, friendId));
+    }
+
+    public CompletableFuture<User> removeFriend(Long userId, Long friendId) {
+        return submit(new Key(KeyType.FRIEND, userId, friendId), () -> userService.removeFriend(userId, friendId));
+    }
+
+    // Останавливаем поток записи, предварительно применив все уже принятые изменения.
+    @Override
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Изменения, успевшие попасть в очередь после остановки потока записи, уже не будут применены
+        Mutation mutation;
+        while ((mutation = queue.poll()) != null) {
+            mutation.result().completeExceptionally(overloaded());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> submit(Key key, Supplier<T> operation) {
+        if (queue == null) {
+            return CompletableFuture.completedFuture(operation.get());
+        }
+        Mutation mutation = new Mutation(key, operation, new CompletableFuture<>());
+        if (!running || !queue.offer(mutation)) {
+            log.warn("Очередь изменений переполнена, изменение {} отклонено", key);
+            throw overloaded();
+        }
+        // Поток записи мог остановиться после проверки и уже не заберет изменение из очереди
+        if (!running && queue.remove(mutation)) {
+            throw overloaded();
+        }
+        return (CompletableFuture<T>) (CompletableFuture<?>) mutation.result();
+    }
+
+    // Ошибки, в том числе Error, завершают с исключением только запросы своей пачки, и поток записи
+    // продолжает работу. Если он все же остановлен, новые изменения отклоняются, а ожидающие в очереди
+    // завершаются с OverloadedException, чтобы запросы не зависли.
+    private void runWriter() {
+        List<Mutation> batch = new ArrayList<>(properties.getBatchSize());
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    Mutation first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, properties.getBatchSize() - 1);
+                    apply(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Throwable e) {
+                    log.error("Ошибка применения пачки изменений", e);
+                    batch.forEach(mutation -> mutation.result().completeExceptionally(e));
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            running = false;
+            Mutation mutation;
+            while ((mutation = queue.poll()) != null) {
+                mutation.result().completeExceptionally(overloaded());
+            }
+        }
+    }
+
+    private void apply(List<Mutation> batch) {
+        // Пара переставляется в конец при каждом появлении, чтобы порядок пар соответствовал последним изменениям
+        Map<Key, List<Mutation>> coalesced = new LinkedHashMap<>();
+        for (Mutation mutation : batch) {
+            List<Mutation> sameKey = coalesced.remove(mutation.key());
+            if (sameKey == null) {
+                sameKey = new ArrayList<>(1);
+            }
+            sameKey.add(mutation);
+            coalesced.put(mutation.key(), sameKey);
+        }
+        for (List<Mutation> sameKey : coalesced.values()) {
+            try {
+                Object result = sameKey.getLast().operation().get();
+                sameKey.forEach(mutation -> mutation.result().complete(result));
+            } catch (Throwable e) {
+                sameKey.forEach(mutation -> mutation.result().completeExceptionally(e));
+            }
+        }
+        if (coalesced.size() < batch.size()) {
+            log.debug("Из пачки в {} изменений применено {} после свертки", batch.size(), coalesced.size());
+        }
+    }
+
+    private OverloadedException overloaded() {
+        return new OverloadedException("Очередь изменений лайков и друзей переполнена, повторите запрос позже",
+                properties.getRetryAfter());
+    }
+
+    private enum KeyType {
+        LIKE,
+        FRIEND
+    }
+
+    private record Key(KeyType type, Long subjectId, Long objectId) {
+    }
+
+    private record Mutation(Key key, Supplier<?> operation, CompletableFuture<Object> result) {
+    }
+
+}
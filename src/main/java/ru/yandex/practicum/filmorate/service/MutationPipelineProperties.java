@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Настройки конвейера лайков и дружбы (filmorate.pipeline.*).
+@Data
+@ConfigurationProperties(prefix = "filmorate.pipeline")
+public class MutationPipelineProperties {
+    // Если конвейер выключен, изменения применяются сразу в потоке запроса
+    private boolean enabled;
+    // Емкость очереди изменений. При заполненной очереди запрос отклоняется с кодом 503
+    private int capacity = 65_536;
+    // Наибольшее количество изменений, применяемых потоком записи за один проход
+    private int batchSize = 1024;
+    // Значение заголовка Retry-After при переполнении очереди
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.ReactiveFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.ReactiveUserStorage;
+
+// Реактивный вариант FilmService с теми же проверками.
+@Service
+@Getter
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveFilmService {
+    private final ReactiveFilmStorage filmStorage;
+    private final ReactiveUserStorage userStorage;
+
+    @Autowired
+    public ReactiveFilmService(ReactiveFilmStorage filmStorage, ReactiveUserStorage userStorage) {
+        this.filmStorage = filmStorage;
+        this.userStorage = userStorage;
+    }
+
+    public Mono<Film> addLike(Long likedFilmId, Long userId) {
+        log.debug("Начат процесс добавления нового лайка.");
+        return userStorage.findUserById(userId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Пользователь с ID: "
+                        + userId + " не найден. Невозможно поставить лайк фильму")))
+                .then(filmStorage.addLike(likedFilmId, userId));
+    }
+
+    public Mono<Film> removeLike(Long unlikedFilmId, Long userId) {
+        log.debug("Начат процесс удаления лайка фильма.");
+        return userStorage.findUserById(userId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Пользователь с ID: "
+                        + userId + " не найден. Невозможно удалить лайк у фильма")))
+                .then(filmStorage.removeLike(unlikedFilmId, userId));
+    }
+
+    public Flux<Film> getMostPopularFilms(Long mostPopularFilmCount) {
+        log.debug("Начат процесс получения списка наиболее популярных фильмов.");
+        return filmStorage.getMostPopularFilms(mostPopularFilmCount);
+    }
+
+}
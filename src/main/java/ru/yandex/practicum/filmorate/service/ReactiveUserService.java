@@ -0,0 +1,71 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.ReactiveUserStorage;
+
+// Реактивный вариант UserService с теми же проверками.
+@Service
+@Getter
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserService {
+    private final ReactiveUserStorage userStorage;
+
+    @Autowired
+    public ReactiveUserService(ReactiveUserStorage userStorage) {
+        this.userStorage = userStorage;
+    }
+
+    public Mono<User> addFriend(Long userId, Long addedFriendsId) {
+        log.debug("Начат процесс добавления нового друга.");
+        if (userId.equals(addedFriendsId)) {
+            log.error("ID {} пользователя и ID {} друга для добавления совпадают", userId, addedFriendsId);
+            return Mono.error(new ValidationException("ID=" + userId + " пользователя и ID= "
+                    + addedFriendsId + " друга для добавления совпадают"));
+        }
+        return userStorage.addFriend(userId, addedFriendsId);
+    }
+
+    public Mono<User> removeFriend(Long userId, Long removedFriendsId) {
+        log.debug("Начат процесс удаления из списка друзей.");
+        if (userId.equals(removedFriendsId)) {
+            log.error("ID {} пользователя и ID {} друга для удаления совпадают", userId, removedFriendsId);
+            return Mono.error(new ValidationException("ID=" + userId + " пользователя и ID= "
+                    + removedFriendsId + " друга для добавления совпадают"));
+        }
+        return userStorage.removeFriend(userId, removedFriendsId);
+    }
+
+    public Flux<User> getFriendsListOfUser(Long userId) {
+        log.debug("Начат процесс получения списка друзей пользователя с ID {}.", userId);
+        return userStorage.getUserById(userId)
+                .flatMapMany(user -> userStorage.getUsersByIds(user.getFriendsId()));
+    }
+
+    public Flux<User> getMutualFriendsList(Long firstUserId, Long secondUserId) {
+        log.debug("Начат процесс получения списка общих друзей.");
+        if (firstUserId.equals(secondUserId)) {
+            log.error("ID {} и ID {} обоих пользователей совпадают", firstUserId, secondUserId);
+            return Flux.error(new ValidationException("ID обоих пользователей совпадают"));
+        }
+        return userStorage.getMutualFriends(firstUserId, secondUserId);
+    }
+
+    public Mono<Integer> getMutualFriendsCount(Long firstUserId, Long secondUserId) {
+        log.debug("Начат процесс подсчета общих друзей.");
+        if (firstUserId.equals(secondUserId)) {
+            log.error("ID {} и ID {} обоих пользователей совпадают", firstUserId, secondUserId);
+            return Mono.error(new ValidationException("ID обоих пользователей совпадают"));
+        }
+        return userStorage.getMutualFriendsCount(firstUserId, secondUserId);
+    }
+
+}
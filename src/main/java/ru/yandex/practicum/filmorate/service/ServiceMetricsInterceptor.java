@@ -0,0 +1,49 @@
+package ru.yandex.practicum.filmorate.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Замер операций сервиса таймером filmorate.service с тегами service и method. Таймеры создаются заранее для
+// публичных методов с параметрами — это операции сервиса, а не геттеры Lombok, — и на вызове только ищутся
+// в неизменяемой карте. Остальные методы вызываются без замера.
+public class ServiceMetricsInterceptor implements MethodInterceptor {
+    private final Map<Method, Timer> timers;
+
+    public ServiceMetricsInterceptor(Class<?> serviceClass, MeterRegistry registry) {
+        Map<Method, Timer> serviceTimers = new HashMap<>();
+        for (Method method : serviceClass.getDeclaredMethods()) {
+            if (Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers())
+                    && method.getParameterCount() > 0) {
+                serviceTimers.put(method, Timer.builder("filmorate.service")
+                        .description("Время операции сервиса")
+                        .tag("service", serviceClass.getSimpleName())
+                        .tag("method", method.getName())
+                        .register(registry));
+            }
+        }
+        this.timers = Map.copyOf(serviceTimers);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Timer timer = timers.get(invocation.getMethod());
+        if (timer == null) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate.service;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,77 +9,82 @@ import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 @Service
 @Getter
 @Slf4j
 public class UserService {
+    // Наибольшее число пользователей в ответе getSuggestedFriends
+    public static final int MAX_SUGGESTIONS = 100;
+
     private final UserStorage userStorage;
+    @Getter(AccessLevel.NONE)
+    private final FriendSuggestions friendSuggestions;
 
     @Autowired
     public UserService(UserStorage userStorage) {
         this.userStorage = userStorage;
+        this.friendSuggestions = new FriendSuggestions(userStorage);
     }
 
     public User addFriend(Long userId, Long addedFriendsId) {
-        log.info("Начат процесс добавления нового друга.");
+        log.debug("Начат процесс добавления нового друга.");
         if (userId.equals(addedFriendsId)) {
             log.error("ID {} пользователя и ID {} друга для добавления совпадают", userId, addedFriendsId);
             throw new ValidationException("ID=" + userId + " пользователя и ID= "
                     + addedFriendsId + " друга для добавления совпадают");
         }
-        User user = userStorage.getUserById(userId);
-        User addedFriend = userStorage.getUserById(addedFriendsId);
-        log.info("Начат процесс взаимного добавления в список друзей у пользователей с ID = {} и ID = {}",
-                userId, addedFriendsId);
-        user.addFriend(addedFriendsId);
-        addedFriend.addFriend(userId);
-        return addedFriend;
+        User friend = userStorage.addFriend(userId, addedFriendsId);
+        friendSuggestions.invalidate(userStorage.getUserById(userId), friend);
+        return friend;
     }
 
     public User removeFriend(Long userId, Long removedFriendsId) {
-        log.info("Начат процесс удаления из списка друзей.");
+        log.debug("Начат процесс удаления из списка друзей.");
         if (userId.equals(removedFriendsId)) {
             log.error("ID {} пользователя и ID {} друга для удаления совпадают", userId, removedFriendsId);
             throw new ValidationException("ID=" + userId + " пользователя и ID= "
                     + removedFriendsId + " друга для добавления совпадают");
         }
-        User user = userStorage.getUserById(userId);
-        User removedFriend = userStorage.getUserById(removedFriendsId);
-        log.info("Начат процесс взаимного удаления из списка друзей у пользователей с ID = {} и ID = {}",
-                userId, removedFriendsId);
-        user.removeFriend(removedFriendsId);
-        removedFriend.removeFriend(userId);
-        return removedFriend;
+        User friend = userStorage.removeFriend(userId, removedFriendsId);
+        friendSuggestions.invalidate(userStorage.getUserById(userId), friend);
+        return friend;
     }
 
     public List<User> getFriendsListOfUser(Long userId) {
-        log.info("Начат процесс получения списка друзей пользователя с ID {}.", userId);
+        log.debug("Начат процесс получения списка друзей пользователя с ID {}.", userId);
         User user = userStorage.getUserById(userId);
-        Set<Long> friendsId = user.getFriendsId();
-        return friendsId.stream()
-                .map(userStorage::getUserById)
-                .toList();
+        return userStorage.getUsersByIds(user.getFriendsId());
     }
 
     public List<User> getMutualFriendsList(Long firstUserId, Long secondUserId) {
-        log.info("Начат процесс получения списка общих друзей.");
+        log.debug("Начат процесс получения списка общих друзей.");
+        if (firstUserId.equals(secondUserId)) {
+            log.error("ID {} и ID {} обоих пользователей совпадают", firstUserId, secondUserId);
+            throw new ValidationException("ID обоих пользователей совпадают");
+        }
+        return userStorage.getMutualFriends(firstUserId, secondUserId);
+    }
+
+    public int getMutualFriendsCount(Long firstUserId, Long secondUserId) {
+        log.debug("Начат процесс подсчета общих друзей.");
         if (firstUserId.equals(secondUserId)) {
             log.error("ID {} и ID {} обоих пользователей совпадают", firstUserId, secondUserId);
             throw new ValidationException("ID обоих пользователей совпадают");
         }
-        User firstUser = userStorage.getUserById(firstUserId);
-        User secondUser = userStorage.getUserById(secondUserId);
-        log.info("Начат процесс получения списка общих друзей пользователей с ID = {} и ID = {}",
-                firstUserId, secondUserId);
-        Set<Long> mutualFriendsId = new HashSet<>(firstUser.getFriendsId());
-        mutualFriendsId.retainAll(secondUser.getFriendsId());
-        return mutualFriendsId.stream()
-                        .map(userStorage::getUserById)
-                        .toList();
+        return userStorage.getMutualFriendsCount(firstUserId, secondUserId);
+    }
+
+    // Получаем не более limit рекомендаций друзей: пользователей, которые еще не друзья, по убыванию числа
+    // общих друзей, при равенстве — по возрастанию ID.
+    public List<User> getSuggestedFriends(Long userId, int limit) {
+        log.debug("Начат процесс получения рекомендаций друзей пользователя с ID {}.", userId);
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ValidationException("Количество рекомендаций должно быть от 1 до "
+                    + MAX_SUGGESTIONS);
+        }
+        return friendSuggestions.suggest(userId, limit);
     }
 
 }
\ No newline at end of file
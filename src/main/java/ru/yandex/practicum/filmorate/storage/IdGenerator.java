@@ -0,0 +1,17 @@
+package ru.yandex.practicum.filmorate.storage;
+
+public interface IdGenerator {
+
+    // Выдаем следующий ID.
+    long nextId();
+
+    // Резервируем блок из count последовательных ID и возвращаем первый ID блока.
+    long allocateBlock(int count);
+
+    // Поднимаем верхнюю границу выданных ID (например, после восстановления хранилища).
+    void seed(long highWaterMark);
+
+    // Получаем последний выданный ID.
+    long currentId();
+
+}
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Атомарная последовательность ID. Выдает ID за O(1) и никогда не выдает повторно ID удаленных объектов.
+public class SequenceIdGenerator implements IdGenerator {
+    private final AtomicLong lastId = new AtomicLong();
+
+    @Override
+    public long nextId() {
+        return lastId.incrementAndGet();
+    }
+
+    @Override
+    public long allocateBlock(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Размер блока ID должен быть положительным числом");
+        }
+        return lastId.getAndAdd(count) + 1;
+    }
+
+    @Override
+    public void seed(long highWaterMark) {
+        lastId.accumulateAndGet(highWaterMark, Math::max);
+    }
+
+    @Override
+    public long currentId() {
+        return lastId.get();
+    }
+
+}
@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.Optional;
+
+// Хранилище, добавляющее поведение поверх другого хранилища того же интерфейса (кеш, метрики).
+public interface StorageDecorator<T> {
+
+    // Получаем хранилище, поверх которого работает декоратор.
+    T getDelegate();
+
+    // Ищем в цепочке декораторов, начиная с самого storage, хранилище нужного типа.
+    static <S> Optional<S> find(Object storage, Class<S> type) {
+        Object current = storage;
+        while (!type.isInstance(current)) {
+            if (!(current instanceof StorageDecorator<?> decorator)) {
+                return Optional.empty();
+            }
+            current = decorator.getDelegate();
+        }
+        return Optional.of(type.cast(current));
+    }
+
+}
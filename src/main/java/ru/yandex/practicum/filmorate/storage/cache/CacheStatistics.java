@@ -0,0 +1,15 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+// Статистика кеша хранилища.
+public record CacheStatistics(long size, long hitCount, long missCount, long evictionCount, double hitRate) {
+
+    static CacheStatistics of(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                stats.hitRate());
+    }
+
+}
@@ -0,0 +1,140 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.StorageDecorator;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Кеш фильмов перед хранилищем: фильм по ID читается из хранилища только при промахе.
+// Вытеснение по размеру и времени жизни выполняет Caffeine (W-TinyLFU). Параллельные промахи по одному ID
+// ждут одну загрузку, а не идут в хранилище каждый. После изменения фильма его запись в кеше удаляется.
+// Удаление пользователя фильмы в хранилище не меняет: его лайки остаются у фильмов во всех движках
+// (у film_likes.user_id нет внешнего ключа), поэтому записи кеша при этом не сбрасываются и не устаревают.
+public class CachingFilmStorage implements FilmStorage, StorageDecorator<FilmStorage> {
+    private final FilmStorage delegate;
+    private final AsyncCache<Long, Film> films;
+
+    public CachingFilmStorage(FilmStorage delegate, StorageCacheProperties properties) {
+        this.delegate = delegate;
+        this.films = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+    }
+
+    @Override
+    public Film addFilm(Film film) {
+        return delegate.addFilm(film);
+    }
+
+    @Override
+    public List<Film> addFilms(List<Film> newFilms) {
+        return delegate.addFilms(newFilms);
+    }
+
+    @Override
+    public Film removeFilm(Long filmId) {
+        try {
+            return delegate.removeFilm(filmId);
+        } finally {
+            invalidate(filmId);
+        }
+    }
+
+    @Override
+    public Film updateFilm(Film updatedFilm) {
+        try {
+            return delegate.updateFilm(updatedFilm);
+        } finally {
+            invalidate(updatedFilm == null ? null : updatedFilm.getId());
+        }
+    }
+
+    @Override
+    public List<Film> getAllFilms() {
+        return delegate.getAllFilms();
+    }
+
+    @Override
+    public List<Film> getFilmsPage(long afterId, int limit) {
+        return delegate.getFilmsPage(afterId, limit);
+    }
+
+    @Override
+    public Optional<Film> findFilmById(Long filmId) {
+        if (filmId == null) {
+            return Optional.empty();
+        }
+        // Отсутствие объекта не кешируется: Caffeine не хранит загрузку, завершившуюся null
+        return Optional.ofNullable(CallerRunsLoader.get(films, filmId,
+                id -> delegate.findFilmById(id).orElse(null)));
+    }
+
+    @Override
+    public List<Film> getFilmsByIds(Collection<Long> filmIds) {
+        List<Long> ids = filmIds.stream().filter(Objects::nonNull).toList();
+        Map<Long, Film> found = CallerRunsLoader.join(films.getAll(ids, (missingIds, executor) ->
+                CompletableFuture.completedFuture(delegate.getFilmsByIds(List.copyOf(missingIds))
+                        .stream()
+                        .collect(Collectors.toMap(Film::getId, Function.identity())))));
+        List<Film> result = new ArrayList<>(ids.size());
+        for (Long filmId : ids) {
+            Film film = found.get(filmId);
+            if (film != null) {
+                result.add(film);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Film addLike(Long filmId, Long userId) {
+        try {
+            return delegate.addLike(filmId, userId);
+        } finally {
+            invalidate(filmId);
+        }
+    }
+
+    @Override
+    public Film removeLike(Long filmId, Long userId) {
+        try {
+            return delegate.removeLike(filmId, userId);
+        } finally {
+            invalidate(filmId);
+        }
+    }
+
+    @Override
+    public List<Film> getMostPopularFilms(long count) {
+        return delegate.getMostPopularFilms(count);
+    }
+
+    public CacheStatistics getStatistics() {
+        return CacheStatistics.of(films.synchronous());
+    }
+
+    @Override
+    public FilmStorage getDelegate() {
+        return delegate;
+    }
+
+    private void invalidate(Long filmId) {
+        if (filmId != null) {
+            films.synchronous().invalidate(filmId);
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.StorageDecorator;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Кеш пользователей перед хранилищем: пользователь по ID читается из хранилища только при промахе.
+// Вытеснение по размеру и времени жизни выполняет Caffeine (W-TinyLFU). Параллельные промахи по одному ID
+// ждут одну загрузку. После изменения пользователя или его дружбы записи затронутых пользователей удаляются.
+public class CachingUserStorage implements UserStorage, StorageDecorator<UserStorage> {
+    private final UserStorage delegate;
+    private final AsyncCache<Long, User> users;
+
+    public CachingUserStorage(UserStorage delegate, StorageCacheProperties properties) {
+        this.delegate = delegate;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+    }
+
+    @Override
+    public User addUser(User user) {
+        return delegate.addUser(user);
+    }
+
+    @Override
+    public List<User> addUsers(List<User> newUsers) {
+        return delegate.addUsers(newUsers);
+    }
+
+    @Override
+    public User removeUser(Long userId) {
+        User removedUser = null;
+        try {
+            removedUser = delegate.removeUser(userId);
+            return removedUser;
+        } finally {
+            invalidate(userId);
+            // Удаленный пользователь пропадает и из списков друзей
+            if (removedUser != null) {
+                removedUser.getFriendsId().forEachLong(users.synchronous()::invalidate);
+            }
+        }
+    }
+
+    @Override
+    public User updateUser(User updatedUser) {
+        try {
+            return delegate.updateUser(updatedUser);
+        } finally {
+            invalidate(updatedUser == null ? null : updatedUser.getId());
+        }
+    }
+
+    @Override
+    public List<User> getAllUsers() {
+        return delegate.getAllUsers();
+    }
+
+    @Override
+    public List<User> getUsersPage(long afterId, int limit) {
+        return delegate.getUsersPage(afterId, limit);
+    }
+
+    @Override
+    public Optional<User> findUserById(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        // Отсутствие объекта не кешируется: Caffeine не хранит загрузку, завершившуюся null
+        return Optional.ofNullable(CallerRunsLoader.get(users, userId,
+                id -> delegate.findUserById(id).orElse(null)));
+    }
+
+    @Override
+    public List<User> getUsersByIds(Collection<Long> userIds) {
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).toList();
+        Map<Long, User> found = CallerRunsLoader.join(users.getAll(ids, (missingIds, executor) ->
+                CompletableFuture.completedFuture(delegate.getUsersByIds(List.copyOf(missingIds))
+                        .stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity())))));
+        List<User> result = new ArrayList<>(ids.size());
+        for (Long userId : ids) {
+            User user = found.get(userId);
+            if (user != null) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public User getUserByEmail(String email) {
+        return delegate.getUserByEmail(email);
+    }
+
+    @Override
+    public List<User> getUsersByLogin(String login) {
+        return delegate.getUsersByLogin(login);
+    }
+
+    @Override
+    public User addFriend(Long userId, Long friendId) {
+        try {
+            return delegate.addFriend(userId, friendId);
+        } finally {
+            invalidate(userId);
+            invalidate(friendId);
+        }
+    }
+
+    @Override
+    public User removeFriend(Long userId, Long friendId) {
+        try {
+            return delegate.removeFriend(userId, friendId);
+        } finally {
+            invalidate(userId);
+            invalidate(friendId);
+        }
+    }
+
+    @Override
+    public List<User> getMutualFriends(Long firstUserId, Long secondUserId) {
+        return delegate.getMutualFriends(firstUserId, secondUserId);
+    }
+
+    @Override
+    public int getMutualFriendsCount(Long firstUserId, Long secondUserId) {
+        return delegate.getMutualFriendsCount(firstUserId, secondUserId);
+    }
+
+    public CacheStatistics getStatistics() {
+        return CacheStatistics.of(users.synchronous());
+    }
+
+    @Override
+    public UserStorage getDelegate() {
+        return delegate;
+    }
+
+    private void invalidate(Long userId) {
+        if (userId != null) {
+            users.synchronous().invalidate(userId);
+        }
+    }
+
+}
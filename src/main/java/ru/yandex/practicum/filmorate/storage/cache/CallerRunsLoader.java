@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+// Загрузка записи кеша в потоке, который первым промахнулся по ключу.
+// Синхронный Cache.get вызывает загрузчик внутри ConcurrentHashMap.compute, то есть под монитором: загрузка из БД
+// закрепила бы виртуальный поток за потоком-носителем. Здесь под монитором в кеш кладется только незавершенный
+// CompletableFuture, загрузка идет после выхода из compute, а параллельные промахи по тому же ключу ждут его.
+// Если запись удалили из кеша во время загрузки, загруженное значение в кеш не попадет.
+final class CallerRunsLoader {
+
+    private CallerRunsLoader() {
+    }
+
+    static <V> V get(AsyncCache<Long, V> cache, Long key, Function<Long, V> loader) {
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> value = cache.get(key, (id, executor) -> loading);
+        if (value == loading) {
+            try {
+                loading.complete(loader.apply(key));
+            } catch (RuntimeException e) {
+                // Неудачная загрузка удаляется из кеша, ждущие потоки получат то же исключение
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return join(value);
+    }
+
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,17 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Настройки кеша фильмов и пользователей перед хранилищами (filmorate.storage.cache.*).
+@Data
+@ConfigurationProperties(prefix = "filmorate.storage.cache")
+public class StorageCacheProperties {
+    private boolean enabled;
+    // Наибольшее число объектов в кеше каждого хранилища
+    private long maximumSize = 100_000;
+    // Время жизни объекта в кеше после загрузки
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
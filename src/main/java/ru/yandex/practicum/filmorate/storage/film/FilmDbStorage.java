@@ -0,0 +1,318 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+// Хранилище фильмов в реляционной БД.
+// Популярные фильмы читаются по индексу (likes_count DESC, film_id) без подсчета лайков в запросе,
+// лайки списка фильмов подгружаются одним запросом на пачку фильмов.
+@Slf4j
+@Transactional
+public class FilmDbStorage implements FilmStorage {
+    private static final String SELECT_FILMS = "SELECT film_id, name, description, release_date, duration FROM films ";
+    // Размер пачки ID в одном запросе IN
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    private static final String INSERT_FILM =
+            "INSERT INTO films (name, description, release_date, duration) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public FilmDbStorage(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public Film addFilm(Film film) {
+        if (film == null) {
+            log.error("Запрос на добавление нового фильма поступил с пустым телом");
+            throw new ValidationException("Запрос на добавление фильма поступил с пустым телом");
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_FILM, Statement.RETURN_GENERATED_KEYS);
+            bindFilm(statement, film);
+            return statement;
+        }, keyHolder);
+        film.setId(Objects.requireNonNull(keyHolder.getKey()).longValue());
+        log.debug("Успешно добавлен новый фильм с ID: {}", film.getId());
+        return film;
+    }
+
+    // Пакет вставляется одним пакетным запросом JDBC, сгенерированные ID возвращаются в порядке пакета.
+    @Override
+    public List<Film> addFilms(List<Film> newFilms) {
+        if (newFilms.stream().anyMatch(Objects::isNull)) {
+            log.error("Пакет новых фильмов содержит пустой объект");
+            throw new ValidationException("Пакет фильмов содержит пустой объект");
+        }
+        if (newFilms.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_FILM, new String[]{"film_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        bindFilm(statement, newFilms.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return newFilms.size();
+                    }
+                }, keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < newFilms.size(); i++) {
+            newFilms.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Успешно добавлено новых фильмов: {}", newFilms.size());
+        }
+        return newFilms;
+    }
+
+    @Override
+    public Film removeFilm(Long filmId) {
+        log.debug("Начата проверка наличия фильма с ID: {} для его последующего удаления", filmId);
+        Film removedFilm = filmId == null ? null : findFilm(filmId);
+        if (removedFilm != null && jdbcTemplate.update("DELETE FROM films WHERE film_id = ?", filmId) > 0) {
+            log.debug("Фильм с ID: {} успешно удален.", filmId);
+            return removedFilm;
+        }
+        log.error("Попытка удаления фильма. Фильм с ID: {} не найден", filmId);
+        throw new NotFoundException("Попытка удаления фильма. Фильм с ID: " + filmId + " не найден");
+    }
+
+    @Override
+    public Film updateFilm(Film updatedFilm) {
+        if (updatedFilm == null) {
+            log.error("Запрос на обновление данных фильма поступил с пустым телом");
+            throw new ValidationException("Запрос на обновление данных фильма поступил с пустым телом");
+        }
+        log.debug("Начат процесс обновления данных фильма. Проверяем ID фильма");
+        if (updatedFilm.getId() == null) {
+            log.error("Фильм имеет ID со значением null");
+            throw new ValidationException("ID фильма должен быть указан");
+        }
+        log.debug("Начата проверка наличия фильма с ID: {}", updatedFilm.getId());
+        // Строка блокируется до конца транзакции, чтобы параллельные обновления не затерли друг друга
+        List<Film> lockedFilms = jdbcTemplate.query(SELECT_FILMS + "WHERE film_id = ? FOR UPDATE",
+                this::mapFilm, updatedFilm.getId());
+        if (lockedFilms.isEmpty()) {
+            log.error("Попытка обновления данных фильма. Фильм с ID: {} не найден", updatedFilm.getId());
+            throw new NotFoundException("Попытка обновления данных фильма. Фильм с ID = "
+                    + updatedFilm.getId() + " не найден");
+        }
+        Film oldFilm = lockedFilms.getFirst();
+        LocalDate cinemaBirthDate = LocalDate.of(1895, Month.DECEMBER, 28);
+        if (!oldFilm.getName().equals(updatedFilm.getName())) {
+            log.debug("Устанавливаем обновленное название фильма: {}", updatedFilm.getName());
+            oldFilm.setName(updatedFilm.getName());
+        }
+        if (!oldFilm.getDescription().equals(updatedFilm.getDescription())) {
+            log.debug("Обновляем описание фильма: {}", updatedFilm.getDescription());
+            oldFilm.setDescription(updatedFilm.getDescription());
+        }
+        if (!oldFilm.getReleaseDate().isEqual(updatedFilm.getReleaseDate())
+                && updatedFilm.getReleaseDate().isAfter(cinemaBirthDate)) {
+            log.debug("Устанавливаем обновленную дату релиза: {}", updatedFilm.getReleaseDate());
+            oldFilm.setReleaseDate(updatedFilm.getReleaseDate());
+        }
+        if (!oldFilm.getDuration().equals(updatedFilm.getDuration())) {
+            log.debug("Устанавливаем обновленную длительность фильма: {}", updatedFilm.getDuration());
+            oldFilm.setDuration(updatedFilm.getDuration());
+        }
+        jdbcTemplate.update("UPDATE films SET name = ?, description = ?, release_date = ?, duration = ? "
+                        + "WHERE film_id = ?", oldFilm.getName(), oldFilm.getDescription(),
+                Date.valueOf(oldFilm.getReleaseDate()), oldFilm.getDuration(), oldFilm.getId());
+        attachLikes(lockedFilms);
+        log.debug("Данные фильма с ID: {} успешно обновлены", oldFilm.getId());
+        return oldFilm;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Film> getAllFilms() {
+        log.debug("Начат процесс предоставления списка всех фильмов");
+        List<Film> films = jdbcTemplate.query(SELECT_FILMS + "ORDER BY film_id", this::mapFilm);
+        Map<Long, Film> filmsById = new HashMap<>(films.size() * 2);
+        films.forEach(film -> filmsById.put(film.getId(), film));
+        jdbcTemplate.query("SELECT film_id, user_id FROM film_likes", (ResultSet rs) -> {
+            Film film = filmsById.get(rs.getLong("film_id"));
+            if (film != null) {
+                film.addLike(rs.getLong("user_id"));
+            }
+        });
+        return films;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Film> getFilmsPage(long afterId, int limit) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начат процесс предоставления страницы из {} фильмов с ID больше {}", limit, afterId);
+        }
+        List<Film> films = jdbcTemplate.query(SELECT_FILMS + "WHERE film_id > ? ORDER BY film_id LIMIT ?",
+                this::mapFilm, afterId, limit);
+        attachLikes(films);
+        return films;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Film> findFilmById(Long filmId) {
+        log.debug("Начат поиск фильма с ID: {}", filmId);
+        return filmId == null ? Optional.empty() : Optional.ofNullable(findFilm(filmId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Film> getFilmsByIds(Collection<Long> filmIds) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начат процесс предоставления {} фильмов по списку ID", filmIds.size());
+        }
+        List<Long> ids = filmIds.stream().filter(Objects::nonNull).toList();
+        Map<Long, Film> filmsById = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+            namedJdbcTemplate.query(SELECT_FILMS + "WHERE film_id IN (:ids)", Map.of("ids", chunk),
+                    (ResultSet rs) -> {
+                        Film film = mapFilm(rs, 0);
+                        filmsById.put(film.getId(), film);
+                    });
+        }
+        attachLikes(filmsById.values());
+        // Сохраняем порядок запроса, отсутствующие ID пропускаем
+        List<Film> result = new ArrayList<>(ids.size());
+        for (Long filmId : ids) {
+            Film film = filmsById.get(filmId);
+            if (film != null) {
+                result.add(film);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Film addLike(Long filmId, Long userId) {
+        log.debug("Начат процесс добавления лайка фильму с ID: {} от пользователя с ID: {}", filmId, userId);
+        if (filmId != null && insertLike(filmId, userId)) {
+            jdbcTemplate.update("UPDATE films SET likes_count = likes_count + 1 WHERE film_id = ?", filmId);
+        }
+        Film film = filmId == null ? null : findFilm(filmId);
+        if (film != null) {
+            log.debug("Фильму с ID: {} поставлен лайк от пользователя с ID: {}", filmId, userId);
+            return film;
+        }
+        log.error("Попытка добавления лайка. Фильм с ID: {} не найден", filmId);
+        throw NotFoundException.film(filmId);
+    }
+
+    // Добавляем строку лайка. Возвращаем false, если фильма нет или лайк уже есть. Два одновременных лайка
+    // одной пары оба проходят проверку NOT EXISTS, и второй упирается в первичный ключ: это тоже повторный лайк.
+    private boolean insertLike(long filmId, Long userId) {
+        try {
+            return jdbcTemplate.update("INSERT INTO film_likes (film_id, user_id) "
+                    + "SELECT film_id, CAST(? AS BIGINT) FROM films WHERE film_id = ? AND NOT EXISTS "
+                    + "(SELECT 1 FROM film_likes WHERE film_id = ? AND user_id = ?)",
+                    userId, filmId, filmId, userId) > 0;
+        } catch (DuplicateKeyException e) {
+            log.debug("Лайк фильму с ID: {} от пользователя с ID: {} уже поставлен параллельно", filmId, userId);
+            return false;
+        }
+    }
+
+    @Override
+    public Film removeLike(Long filmId, Long userId) {
+        log.debug("Начат процесс удаления лайка у фильма с ID: {} от пользователя с ID: {}", filmId, userId);
+        if (filmId != null && jdbcTemplate.update("DELETE FROM film_likes WHERE film_id = ? AND user_id = ?",
+                filmId, userId) > 0) {
+            jdbcTemplate.update("UPDATE films SET likes_count = likes_count - 1 WHERE film_id = ?", filmId);
+        }
+        Film film = filmId == null ? null : findFilm(filmId);
+        if (film != null) {
+            log.debug("У фильма с ID: {} удален лайк от пользователя с ID: {}", filmId, userId);
+            return film;
+        }
+        log.error("Попытка удаления лайка. Фильм с ID: {} не найден", filmId);
+        throw NotFoundException.film(filmId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Film> getMostPopularFilms(long count) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начат процесс предоставления списка из {} наиболее популярных фильмов", count);
+        }
+        // Фильмы без лайков в популярные не попадают, как и в хранилище в памяти
+        List<Film> films = jdbcTemplate.query(SELECT_FILMS + "WHERE likes_count > 0 "
+                + "ORDER BY likes_count DESC, film_id LIMIT ?", this::mapFilm, count);
+        attachLikes(films);
+        return films;
+    }
+
+    private Film findFilm(long filmId) {
+        List<Film> films = jdbcTemplate.query(SELECT_FILMS + "WHERE film_id = ?", this::mapFilm, filmId);
+        attachLikes(films);
+        return films.isEmpty() ? null : films.getFirst();
+    }
+
+    // Подгружаем лайки фильмов одним запросом на пачку фильмов
+    private void attachLikes(Collection<Film> films) {
+        if (films.isEmpty()) {
+            return;
+        }
+        Map<Long, Film> filmsById = new HashMap<>(films.size() * 2);
+        films.forEach(film -> filmsById.put(film.getId(), film));
+        List<Long> ids = List.copyOf(filmsById.keySet());
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+            namedJdbcTemplate.query("SELECT film_id, user_id FROM film_likes WHERE film_id IN (:ids)",
+                    Map.of("ids", chunk),
+                    (ResultSet rs) -> {
+                        filmsById.get(rs.getLong("film_id")).addLike(rs.getLong("user_id"));
+                    });
+        }
+    }
+
+    private static void bindFilm(PreparedStatement statement, Film film) throws SQLException {
+        statement.setString(1, film.getName());
+        statement.setString(2, film.getDescription());
+        statement.setObject(3, film.getReleaseDate() == null ? null : Date.valueOf(film.getReleaseDate()), Types.DATE);
+        statement.setObject(4, film.getDuration(), Types.BIGINT);
+    }
+
+    private Film mapFilm(ResultSet rs, int rowNum) throws SQLException {
+        return new Film(rs.getLong("film_id"), rs.getString("name"), rs.getString("description"),
+                rs.getObject("release_date", LocalDate.class), rs.getObject("duration", Long.class));
+    }
+
+}
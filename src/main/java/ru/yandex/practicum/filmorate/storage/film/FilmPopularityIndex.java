@@ -0,0 +1,128 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Индекс популярности фильмов, упорядоченный по (количество лайков по убыванию, ID по возрастанию).
+// Лайк только прибавляет delta к счетчику LongAdder фильма и помечает фильм измененным, не трогая рейтинг:
+// даже лайки одного «вирусного» фильма из многих потоков не ждут друг друга.
+// Накопленные изменения переносятся в рейтинг при чтении, поэтому получение N самых популярных фильмов стоит
+// O(k log n + N), где k — число фильмов, изменившихся с прошлого чтения. Фильмы с одинаковым количеством лайков
+// не вытесняют друг друга.
+public class FilmPopularityIndex {
+    private static final Comparator<Entry> RANKING_ORDER = Comparator.comparingLong(Entry::likesCount).reversed()
+            .thenComparingLong(Entry::filmId);
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Рейтинг и зафиксированные счетчики меняются только под flushLock
+    private final Lock flushLock = new ReentrantLock();
+    private final NavigableSet<Entry> ranking = new TreeSet<>(RANKING_ORDER);
+    private final Map<Long, Long> likesCounts = new HashMap<>();
+
+    // Изменяем количество лайков фильма на delta. Фильмы без лайков в индексе не хранятся.
+    public void adjust(long filmId, long delta) {
+        LongAdder adder = pending.computeIfAbsent(filmId, id -> new LongAdder());
+        adder.add(delta);
+        // Перенос мог удалить счетчик фильма без лайков, пока мы к нему прибавляли: тогда забираем
+        // свое изменение из удаленного счетчика, если перенос его еще не вернул, и прибавляем к новому
+        if (pending.get(filmId) != adder) {
+            long late = adder.sumThenReset();
+            if (late != 0) {
+                adjust(filmId, late);
+            }
+            return;
+        }
+        // Проверка перед добавлением избавляет горячий фильм от записи в общую таблицу на каждый лайк
+        if (!dirty.contains(filmId)) {
+            dirty.add(filmId);
+        }
+    }
+
+    // Удаляем фильм из индекса.
+    public void remove(long filmId) {
+        flushLock.lock();
+        try {
+            dirty.remove(filmId);
+            pending.remove(filmId);
+            Long count = likesCounts.remove(filmId);
+            if (count != null && count > 0) {
+                ranking.remove(new Entry(count, filmId));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Получаем ID не более чем count самых популярных фильмов.
+    public List<Long> top(long count) {
+        flushLock.lock();
+        try {
+            flush();
+            return ranking.stream()
+                    .limit(count)
+                    .map(Entry::filmId)
+                    .toList();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Переносим накопленные изменения в рейтинг. Фильм снимается с пометки до обнуления счетчика:
+    // лайк, пришедший после обнуления, снова пометит фильм и попадет в следующий перенос.
+    private void flush() {
+        for (Long filmId : dirty) {
+            dirty.remove(filmId);
+            LongAdder adder = pending.get(filmId);
+            if (adder == null) {
+                continue;
+            }
+            long delta = adder.sumThenReset();
+            Long oldCount = likesCounts.get(filmId);
+            long newCount = (oldCount == null ? 0 : oldCount) + delta;
+            if (newCount == 0) {
+                prune(filmId, adder);
+            }
+            if (delta == 0) {
+                continue;
+            }
+            if (oldCount != null && oldCount > 0) {
+                ranking.remove(new Entry(oldCount, filmId));
+            }
+            // Снятие лайка может быть учтено раньше его постановки, поэтому счетчик временно бывает
+            // отрицательным: его храним, но в рейтинг фильм попадает только с положительным счетчиком
+            if (newCount == 0) {
+                likesCounts.remove(filmId);
+                continue;
+            }
+            likesCounts.put(filmId, newCount);
+            if (newCount > 0) {
+                ranking.add(new Entry(newCount, filmId));
+            }
+        }
+    }
+
+    // Удаляем счетчик фильма без лайков, чтобы фильмы, у которых лайки сняты, не держали LongAdder.
+    // Изменение, успевшее попасть в удаленный счетчик, возвращаем через adjust.
+    private void prune(long filmId, LongAdder adder) {
+        if (pending.remove(filmId, adder)) {
+            long late = adder.sumThenReset();
+            if (late != 0) {
+                adjust(filmId, late);
+            }
+        }
+    }
+
+    private record Entry(long likesCount, long filmId) {
+    }
+
+}
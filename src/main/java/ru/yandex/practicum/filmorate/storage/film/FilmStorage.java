@@ -1,14 +1,20 @@
 package ru.yandex.practicum.filmorate.storage.film;
 
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.model.Film;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface FilmStorage {
 
     // Добавляем новый фильм.
     Film addFilm(Film film);
 
+    // Добавляем пакет новых фильмов одной операцией. ID выделяются одним блоком в порядке пакета.
+    List<Film> addFilms(List<Film> films);
+
     // Удаляем имеющийся фильм.
     Film removeFilm(Long filmId);
 
@@ -18,7 +24,27 @@ public interface FilmStorage {
     // Получаем список всех имеющихся фильмов.
     List<Film> getAllFilms();
 
-    // Получаем фильм по ID.
-    Film getFilmById(Long filmId);
+    // Получаем страницу из не более чем limit фильмов с ID больше afterId в порядке возрастания ID.
+    List<Film> getFilmsPage(long afterId, int limit);
+
+    // Ищем фильм по ID. Отсутствие фильма — пустой результат, а не исключение.
+    Optional<Film> findFilmById(Long filmId);
+
+    // Получаем фильм по ID. Если фильма нет, бросаем NotFoundException.
+    default Film getFilmById(Long filmId) {
+        return findFilmById(filmId).orElseThrow(() -> NotFoundException.film(filmId));
+    }
+
+    // Получаем фильмы по списку ID в порядке этого списка. Отсутствующие ID пропускаются.
+    List<Film> getFilmsByIds(Collection<Long> filmIds);
+
+    // Добавляем фильму лайк от пользователя.
+    Film addLike(Long filmId, Long userId);
+
+    // Удаляем у фильма лайк от пользователя.
+    Film removeLike(Long filmId, Long userId);
+
+    // Получаем список наиболее популярных фильмов.
+    List<Film> getMostPopularFilms(long count);
 
 }
\ No newline at end of file
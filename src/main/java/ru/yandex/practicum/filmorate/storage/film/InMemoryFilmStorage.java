@@ -1,21 +1,42 @@
 package ru.yandex.practicum.filmorate.storage.film;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.IdGenerator;
+import ru.yandex.practicum.filmorate.storage.SequenceIdGenerator;
 
 import java.time.LocalDate;
 import java.time.Month;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 @Component
+@ConditionalOnProperty(name = "filmorate.storage.engine", havingValue = "memory", matchIfMissing = true)
 @Slf4j
 public class InMemoryFilmStorage implements FilmStorage {
-    private final Map<Long, Film> films = new HashMap<>();
+    // Хранилище вызывается из множества потоков Tomcat, поэтому используем ConcurrentSkipListMap:
+    // чтение не блокируется, изменение одного ID атомарно и не мешает изменению других ID,
+    // а упорядоченность по ID позволяет отдавать список постранично без копирования всего хранилища.
+    private final NavigableMap<Long, Film> films = new ConcurrentSkipListMap<>();
+    private final FilmPopularityIndex popularityIndex = new FilmPopularityIndex();
+    private final IdGenerator idGenerator;
+
+    public InMemoryFilmStorage() {
+        this(new SequenceIdGenerator());
+    }
+
+    public InMemoryFilmStorage(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
 
     @Override
     public Film addFilm(Film film) {
@@ -23,19 +44,43 @@ public class InMemoryFilmStorage implements FilmStorage {
             log.error("Запрос на добавление нового фильма поступил с пустым телом");
             throw new ValidationException("Запрос на добавление фильма поступил с пустым телом");
         }
-        film.setId(getNextId());
+        film.setId(idGenerator.nextId());
         log.debug("Новому фильму назначен ID: {}", film.getId());
         films.put(film.getId(), film);
-        log.info("Успешно добавлен новый фильм с ID: {}", film.getId());
+        log.debug("Успешно добавлен новый фильм с ID: {}", film.getId());
         return film;
     }
 
+    @Override
+    public List<Film> addFilms(List<Film> newFilms) {
+        if (newFilms.stream().anyMatch(Objects::isNull)) {
+            log.error("Пакет новых фильмов содержит пустой объект");
+            throw new ValidationException("Пакет фильмов содержит пустой объект");
+        }
+        if (newFilms.isEmpty()) {
+            return List.of();
+        }
+        long firstId = idGenerator.allocateBlock(newFilms.size());
+        for (int i = 0; i < newFilms.size(); i++) {
+            Film film = newFilms.get(i);
+            film.setId(firstId + i);
+            films.put(film.getId(), film);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Успешно добавлено новых фильмов: {}, ID с {} по {}",
+                    newFilms.size(), firstId, firstId + newFilms.size() - 1);
+        }
+        return newFilms;
+    }
+
     @Override
     public Film removeFilm(Long filmId) {
-        log.info("Начата проверка наличия фильма с ID: {} для его последующего удаления", filmId);
-        if (films.containsKey(filmId)) {
-            log.info("Фильм с ID: {} успешно удален.", filmId);
-            return films.remove(filmId);
+        log.debug("Начата проверка наличия фильма с ID: {} для его последующего удаления", filmId);
+        Film removedFilm = filmId == null ? null : films.remove(filmId);
+        if (removedFilm != null) {
+            popularityIndex.remove(filmId);
+            log.debug("Фильм с ID: {} успешно удален.", filmId);
+            return removedFilm;
         }
         log.error("Попытка удаления фильма. Фильм с ID: {} не найден", filmId);
         throw new NotFoundException("Попытка удаления фильма. Фильм с ID: " + filmId + " не найден");
@@ -47,14 +92,14 @@ public class InMemoryFilmStorage implements FilmStorage {
             log.error("Запрос на обновление данных фильма поступил с пустым телом");
             throw new ValidationException("Запрос на обновление данных фильма поступил с пустым телом");
         }
-        log.info("Начат процесс обновления данных фильма. Проверяем ID фильма");
+        log.debug("Начат процесс обновления данных фильма. Проверяем ID фильма");
         if (updatedFilm.getId() == null) {
             log.error("Фильм имеет ID со значением null");
             throw new ValidationException("ID фильма должен быть указан");
         }
-        log.info("Начата проверка наличия фильма с ID: {}", updatedFilm.getId());
-        if (films.containsKey(updatedFilm.getId())) {
-            Film oldFilm = films.get(updatedFilm.getId());
+        log.debug("Начата проверка наличия фильма с ID: {}", updatedFilm.getId());
+        // Проверка наличия и обновление выполняются атомарно для данного ID
+        Film result = films.computeIfPresent(updatedFilm.getId(), (id, oldFilm) -> {
             LocalDate cinemaBirthDate = LocalDate.of(1895, Month.DECEMBER, 28);
             if (!oldFilm.getName().equals(updatedFilm.getName())) {
                 log.debug("Устанавливаем обновленное название фильма: {}", updatedFilm.getName());
@@ -73,8 +118,11 @@ public class InMemoryFilmStorage implements FilmStorage {
                 log.debug("Устанавливаем обновленную длительность фильма: {}", updatedFilm.getDuration());
                 oldFilm.setDuration(updatedFilm.getDuration());
             }
-            log.info("Данные фильма с ID: {} успешно обновлены", oldFilm.getId());
             return oldFilm;
+        });
+        if (result != null) {
+            log.debug("Данные фильма с ID: {} успешно обновлены", result.getId());
+            return result;
         }
         log.error("Попытка обновления данных фильма. Фильм с ID: {} не найден", updatedFilm.getId());
         throw new NotFoundException("Попытка обновления данных фильма. Фильм с ID = "
@@ -83,29 +131,123 @@ public class InMemoryFilmStorage implements FilmStorage {
 
     @Override
     public List<Film> getAllFilms() {
-        log.info("Начат процесс предоставления списка всех фильмов");
+        log.debug("Начат процесс предоставления списка всех фильмов");
         return films.values().stream().toList();
     }
 
     @Override
-    public Film getFilmById(Long filmId) {
-        log.info("Начата проверка наличия фильма с ID: {} для его предоставления по запросу", filmId);
-        if (films.containsKey(filmId)) {
-            log.info("Фильм с ID: {} найден и успешно предоставлен в ответ на запрос.", filmId);
-            return films.get(filmId);
+    public List<Film> getFilmsPage(long afterId, int limit) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начат процесс предоставления страницы из {} фильмов с ID больше {}", limit, afterId);
         }
-        log.error("Попытка получения фильма по ID. Фильм с ID: {} не найден", filmId);
-        throw new NotFoundException("Попытка получения фильма. Фильм с ID: " + filmId + " не найден");
+        return films.tailMap(afterId, false).values().stream()
+                .limit(limit)
+                .toList();
     }
 
-    //Генерируем ID нового фильма
-    private long getNextId() {
-        long currentMaxId = films.keySet()
-                .stream()
-                .mapToLong(id -> id)
-                .max()
-                .orElse(0);
-        return ++currentMaxId;
+    @Override
+    public Optional<Film> findFilmById(Long filmId) {
+        log.debug("Начат поиск фильма с ID: {}", filmId);
+        return filmId == null ? Optional.empty() : Optional.ofNullable(films.get(filmId));
+    }
+
+    @Override
+    public List<Film> getFilmsByIds(Collection<Long> filmIds) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начат процесс предоставления {} фильмов по списку ID", filmIds.size());
+        }
+        List<Film> result = new ArrayList<>(filmIds.size());
+        for (Long filmId : filmIds) {
+            Film film = filmId == null ? null : films.get(filmId);
+            if (film != null) {
+                result.add(film);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Film addLike(Long filmId, Long userId) {
+        log.debug("Начат процесс добавления лайка фильму с ID: {} от пользователя с ID: {}", filmId, userId);
+        // Лайк не блокирует узел фильма в общей карте: множество лайков и счетчик популярности
+        // сами потокобезопасны, поэтому лайки одного фильма из разных потоков не ждут друг друга
+        Film film = filmId == null ? null : films.get(filmId);
+        if (film != null) {
+            if (film.addLike(userId)) {
+                popularityIndex.adjust(filmId, 1);
+                forgetIfRemoved(filmId);
+            }
+            log.debug("Фильму с ID: {} поставлен лайк от пользователя с ID: {}", filmId, userId);
+            return film;
+        }
+        log.error("Попытка добавления лайка. Фильм с ID: {} не найден", filmId);
+        throw NotFoundException.film(filmId);
+    }
+
+    @Override
+    public Film removeLike(Long filmId, Long userId) {
+        log.debug("Начат процесс удаления лайка у фильма с ID: {} от пользователя с ID: {}", filmId, userId);
+        Film film = filmId == null ? null : films.get(filmId);
+        if (film != null) {
+            if (film.removeLike(userId)) {
+                popularityIndex.adjust(filmId, -1);
+                forgetIfRemoved(filmId);
+            }
+            log.debug("У фильма с ID: {} удален лайк от пользователя с ID: {}", filmId, userId);
+            return film;
+        }
+        log.error("Попытка удаления лайка. Фильм с ID: {} не найден", filmId);
+        throw NotFoundException.film(filmId);
+    }
+
+    @Override
+    public List<Film> getMostPopularFilms(long count) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начат процесс предоставления списка из {} наиболее популярных фильмов", count);
+        }
+        return popularityIndex.top(count).stream()
+                .map(films::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Восстанавливаем фильм с уже назначенным ID вместе с его лайками (из снимка или журнала).
+    // Имеющемуся фильму заменяем поля и добавляем лайки, последовательность ID поднимаем до его ID.
+    public Film restoreFilm(Film restoredFilm) {
+        idGenerator.seed(restoredFilm.getId());
+        return films.compute(restoredFilm.getId(), (id, oldFilm) -> {
+            if (oldFilm == null) {
+                popularityIndex.adjust(id, restoredFilm.getFilmLikedUsersId().size());
+                return restoredFilm;
+            }
+            oldFilm.setName(restoredFilm.getName());
+            oldFilm.setDescription(restoredFilm.getDescription());
+            oldFilm.setReleaseDate(restoredFilm.getReleaseDate());
+            oldFilm.setDuration(restoredFilm.getDuration());
+            restoredFilm.getFilmLikedUsersId().forEachLong(userId -> {
+                if (oldFilm.addLike(userId)) {
+                    popularityIndex.adjust(id, 1);
+                }
+            });
+            return oldFilm;
+        });
+    }
+
+    // Получаем последний выданный ID фильма.
+    public long getLastId() {
+        return idGenerator.currentId();
+    }
+
+    // Поднимаем последовательность ID до восстановленного значения, даже если объект с этим ID уже удален.
+    public void seedLastId(long lastId) {
+        idGenerator.seed(lastId);
+    }
+
+    // Фильм мог быть удален между получением и изменением счетчика: убираем его из индекса повторно
+    private void forgetIfRemoved(long filmId) {
+        if (!films.containsKey(filmId)) {
+            popularityIndex.remove(filmId);
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.Collection;
+
+// Неблокирующий вариант FilmStorage для реактивного API. Ошибки (NotFoundException, ValidationException)
+// передаются сигналом onError, а списки отдаются потоком Flux, который читается по мере запроса подписчика.
+public interface ReactiveFilmStorage {
+
+    // Добавляем новый фильм.
+    Mono<Film> addFilm(Film film);
+
+    // Удаляем имеющийся фильм.
+    Mono<Film> removeFilm(Long filmId);
+
+    // Обновляем имеющийся фильм.
+    Mono<Film> updateFilm(Film updatedFilm);
+
+    // Получаем все имеющиеся фильмы в порядке возрастания ID. Хранилище читается постранично по мере запроса.
+    Flux<Film> getAllFilms();
+
+    // Получаем страницу из не более чем limit фильмов с ID больше afterId в порядке возрастания ID.
+    Flux<Film> getFilmsPage(long afterId, int limit);
+
+    // Получаем фильм по ID.
+    Mono<Film> getFilmById(Long filmId);
+
+    // Ищем фильма по ID. Если его нет, Mono завершается пустым, без ошибки.
+    Mono<Film> findFilmById(Long filmId);
+
+    // Получаем фильмы по списку ID в порядке этого списка. Отсутствующие ID пропускаются.
+    Flux<Film> getFilmsByIds(Collection<Long> filmIds);
+
+    // Добавляем фильму лайк от пользователя.
+    Mono<Film> addLike(Long filmId, Long userId);
+
+    // Удаляем у фильма лайк от пользователя.
+    Mono<Film> removeLike(Long filmId, Long userId);
+
+    // Получаем список наиболее популярных фильмов.
+    Flux<Film> getMostPopularFilms(long count);
+
+}
@@ -0,0 +1,101 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+// Реактивное хранилище фильмов поверх обычного. Вызов хранилища выполняется при подписке на планировщике scheduler:
+// для хранилищ в памяти — сразу в потоке подписчика (Schedulers.immediate()), для блокирующих — на отдельном пуле
+// (Schedulers.boundedElastic()), чтобы ожидание ввода-вывода не занимало поток цикла событий.
+public class ReactiveFilmStorageAdapter implements ReactiveFilmStorage {
+    // Размер страницы при потоковом чтении всего хранилища: следующая страница читается, когда подписчик запросит ее
+    private static final int STREAM_PAGE_SIZE = 500;
+
+    private final FilmStorage delegate;
+    private final Scheduler scheduler;
+
+    public ReactiveFilmStorageAdapter(FilmStorage delegate, Scheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Mono<Film> addFilm(Film film) {
+        return call(() -> delegate.addFilm(film));
+    }
+
+    @Override
+    public Mono<Film> removeFilm(Long filmId) {
+        return call(() -> delegate.removeFilm(filmId));
+    }
+
+    @Override
+    public Mono<Film> updateFilm(Film updatedFilm) {
+        return call(() -> delegate.updateFilm(updatedFilm));
+    }
+
+    @Override
+    public Flux<Film> getAllFilms() {
+        return call(() -> delegate.getFilmsPage(0, STREAM_PAGE_SIZE))
+                .expand(page -> page.size() < STREAM_PAGE_SIZE
+                        ? Mono.empty()
+                        : call(() -> delegate.getFilmsPage(page.getLast().getId(), STREAM_PAGE_SIZE)))
+                .flatMapIterable(Function.identity());
+    }
+
+    @Override
+    public Flux<Film> getFilmsPage(long afterId, int limit) {
+        return callMany(() -> delegate.getFilmsPage(afterId, limit));
+    }
+
+    @Override
+    public Mono<Film> getFilmById(Long filmId) {
+        return call(() -> delegate.getFilmById(filmId));
+    }
+
+    @Override
+    public Mono<Film> findFilmById(Long filmId) {
+        // Mono.fromCallable завершается пустым, если результат null
+        return call(() -> delegate.findFilmById(filmId).orElse(null));
+    }
+
+    @Override
+    public Flux<Film> getFilmsByIds(Collection<Long> filmIds) {
+        return callMany(() -> delegate.getFilmsByIds(filmIds));
+    }
+
+    @Override
+    public Mono<Film> addLike(Long filmId, Long userId) {
+        return call(() -> delegate.addLike(filmId, userId));
+    }
+
+    @Override
+    public Mono<Film> removeLike(Long filmId, Long userId) {
+        return call(() -> delegate.removeLike(filmId, userId));
+    }
+
+    @Override
+    public Flux<Film> getMostPopularFilms(long count) {
+        return callMany(() -> delegate.getMostPopularFilms(count));
+    }
+
+    // Получаем хранилище, поверх которого работает адаптер.
+    public FilmStorage getDelegate() {
+        return delegate;
+    }
+
+    private <T> Mono<T> call(Callable<T> operation) {
+        return Mono.fromCallable(operation).subscribeOn(scheduler);
+    }
+
+    private <T> Flux<T> callMany(Callable<List<T>> operation) {
+        return call(operation).flatMapIterable(Function.identity());
+    }
+
+}
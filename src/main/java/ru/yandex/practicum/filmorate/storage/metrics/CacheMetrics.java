@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.storage.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.yandex.practicum.filmorate.storage.cache.CacheStatistics;
+
+import java.util.function.Supplier;
+
+// Метрики кеша хранилища по его статистике: попадания, промахи и вытеснения — счетчики, размер — датчик.
+// Значения читаются из статистики Caffeine при сборе метрик, на обращения к кешу это не влияет.
+public final class CacheMetrics {
+
+    private CacheMetrics() {
+    }
+
+    public static void bind(MeterRegistry registry, String cache, Supplier<CacheStatistics> statistics) {
+        FunctionCounter.builder("filmorate.cache.requests", statistics, s -> s.get().hitCount())
+                .tag("cache", cache)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("filmorate.cache.requests", statistics, s -> s.get().missCount())
+                .tag("cache", cache)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("filmorate.cache.evictions", statistics, s -> s.get().evictionCount())
+                .tag("cache", cache)
+                .register(registry);
+        Gauge.builder("filmorate.cache.size", statistics, s -> s.get().size())
+                .tag("cache", cache)
+                .register(registry);
+    }
+
+}
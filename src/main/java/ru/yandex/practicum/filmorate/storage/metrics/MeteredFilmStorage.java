@@ -0,0 +1,174 @@
+package ru.yandex.practicum.filmorate.storage.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.StorageDecorator;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Метрики хранилища фильмов: таймер filmorate.storage на каждый метод, счетчик filmorate.likes
+// успешно добавленных и удаленных лайков и датчики числа фильмов и лайков.
+// На вызове только два чтения System.nanoTime() и запись в заранее созданный таймер.
+public class MeteredFilmStorage implements FilmStorage, StorageDecorator<FilmStorage> {
+    private static final String ENTITY = "film";
+
+    private final FilmStorage delegate;
+    private final Timer addFilmTimer;
+    private final Timer addFilmsTimer;
+    private final Timer removeFilmTimer;
+    private final Timer updateFilmTimer;
+    private final Timer getAllFilmsTimer;
+    private final Timer getFilmsPageTimer;
+    private final Timer findFilmByIdTimer;
+    private final Timer getFilmsByIdsTimer;
+    private final Timer addLikeTimer;
+    private final Timer removeLikeTimer;
+    private final Timer getMostPopularFilmsTimer;
+    private final Counter likesAdded;
+    private final Counter likesRemoved;
+
+    public MeteredFilmStorage(FilmStorage delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.addFilmTimer = StorageMeters.timer(registry, ENTITY, "addFilm");
+        this.addFilmsTimer = StorageMeters.timer(registry, ENTITY, "addFilms");
+        this.removeFilmTimer = StorageMeters.timer(registry, ENTITY, "removeFilm");
+        this.updateFilmTimer = StorageMeters.timer(registry, ENTITY, "updateFilm");
+        this.getAllFilmsTimer = StorageMeters.timer(registry, ENTITY, "getAllFilms");
+        this.getFilmsPageTimer = StorageMeters.timer(registry, ENTITY, "getFilmsPage");
+        this.findFilmByIdTimer = StorageMeters.timer(registry, ENTITY, "findFilmById");
+        this.getFilmsByIdsTimer = StorageMeters.timer(registry, ENTITY, "getFilmsByIds");
+        this.addLikeTimer = StorageMeters.timer(registry, ENTITY, "addLike");
+        this.removeLikeTimer = StorageMeters.timer(registry, ENTITY, "removeLike");
+        this.getMostPopularFilmsTimer = StorageMeters.percentileTimer(registry, ENTITY, "getMostPopularFilms");
+        this.likesAdded = StorageMeters.counter(registry, "filmorate.likes", "add");
+        this.likesRemoved = StorageMeters.counter(registry, "filmorate.likes", "remove");
+        StorageMeters.gauges(registry, new StorageCounts<>(delegate::getFilmsPage, Film::getId,
+                film -> film.getFilmLikedUsersId().size(), 1), "films", "likes");
+    }
+
+    @Override
+    public Film addFilm(Film film) {
+        long start = System.nanoTime();
+        try {
+            return delegate.addFilm(film);
+        } finally {
+            addFilmTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<Film> addFilms(List<Film> films) {
+        long start = System.nanoTime();
+        try {
+            return delegate.addFilms(films);
+        } finally {
+            addFilmsTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Film removeFilm(Long filmId) {
+        long start = System.nanoTime();
+        try {
+            return delegate.removeFilm(filmId);
+        } finally {
+            removeFilmTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Film updateFilm(Film updatedFilm) {
+        long start = System.nanoTime();
+        try {
+            return delegate.updateFilm(updatedFilm);
+        } finally {
+            updateFilmTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<Film> getAllFilms() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getAllFilms();
+        } finally {
+            getAllFilmsTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<Film> getFilmsPage(long afterId, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getFilmsPage(afterId, limit);
+        } finally {
+            getFilmsPageTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Optional<Film> findFilmById(Long filmId) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findFilmById(filmId);
+        } finally {
+            findFilmByIdTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<Film> getFilmsByIds(Collection<Long> filmIds) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getFilmsByIds(filmIds);
+        } finally {
+            getFilmsByIdsTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Film addLike(Long filmId, Long userId) {
+        long start = System.nanoTime();
+        try {
+            Film film = delegate.addLike(filmId, userId);
+            likesAdded.increment();
+            return film;
+        } finally {
+            addLikeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Film removeLike(Long filmId, Long userId) {
+        long start = System.nanoTime();
+        try {
+            Film film = delegate.removeLike(filmId, userId);
+            likesRemoved.increment();
+            return film;
+        } finally {
+            removeLikeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<Film> getMostPopularFilms(long count) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getMostPopularFilms(count);
+        } finally {
+            getMostPopularFilmsTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public FilmStorage getDelegate() {
+        return delegate;
+    }
+
+}
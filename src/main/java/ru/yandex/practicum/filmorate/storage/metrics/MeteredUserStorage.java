@@ -0,0 +1,219 @@
+package ru.yandex.practicum.filmorate.storage.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.StorageDecorator;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Метрики хранилища пользователей: таймер filmorate.storage на каждый метод, счетчик filmorate.friendships
+// успешно добавленных и удаленных дружб, распределение filmorate.friends числа друзей у друга после изменения
+// дружбы и датчики числа пользователей и дружб. Каждая дружба взаимна, поэтому датчик дружб делит сумму на два.
+public class MeteredUserStorage implements UserStorage, StorageDecorator<UserStorage> {
+    private static final String ENTITY = "user";
+
+    private final UserStorage delegate;
+    private final Timer addUserTimer;
+    private final Timer addUsersTimer;
+    private final Timer removeUserTimer;
+    private final Timer updateUserTimer;
+    private final Timer getAllUsersTimer;
+    private final Timer getUsersPageTimer;
+    private final Timer findUserByIdTimer;
+    private final Timer getUsersByIdsTimer;
+    private final Timer getUserByEmailTimer;
+    private final Timer getUsersByLoginTimer;
+    private final Timer addFriendTimer;
+    private final Timer removeFriendTimer;
+    private final Timer getMutualFriendsTimer;
+    private final Timer getMutualFriendsCountTimer;
+    private final Counter friendshipsAdded;
+    private final Counter friendshipsRemoved;
+    private final DistributionSummary friendsPerUser;
+
+    public MeteredUserStorage(UserStorage delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.addUserTimer = StorageMeters.timer(registry, ENTITY, "addUser");
+        this.addUsersTimer = StorageMeters.timer(registry, ENTITY, "addUsers");
+        this.removeUserTimer = StorageMeters.timer(registry, ENTITY, "removeUser");
+        this.updateUserTimer = StorageMeters.timer(registry, ENTITY, "updateUser");
+        this.getAllUsersTimer = StorageMeters.timer(registry, ENTITY, "getAllUsers");
+        this.getUsersPageTimer = StorageMeters.timer(registry, ENTITY, "getUsersPage");
+        this.findUserByIdTimer = StorageMeters.timer(registry, ENTITY, "findUserById");
+        this.getUsersByIdsTimer = StorageMeters.timer(registry, ENTITY, "getUsersByIds");
+        this.getUserByEmailTimer = StorageMeters.timer(registry, ENTITY, "getUserByEmail");
+        this.getUsersByLoginTimer = StorageMeters.timer(registry, ENTITY, "getUsersByLogin");
+        this.addFriendTimer = StorageMeters.timer(registry, ENTITY, "addFriend");
+        this.removeFriendTimer = StorageMeters.timer(registry, ENTITY, "removeFriend");
+        this.getMutualFriendsTimer = StorageMeters.timer(registry, ENTITY, "getMutualFriends");
+        this.getMutualFriendsCountTimer = StorageMeters.timer(registry, ENTITY, "getMutualFriendsCount");
+        this.friendshipsAdded = StorageMeters.counter(registry, "filmorate.friendships", "add");
+        this.friendshipsRemoved = StorageMeters.counter(registry, "filmorate.friendships", "remove");
+        this.friendsPerUser = DistributionSummary.builder("filmorate.friends")
+                .description("Число друзей пользователя после изменения его дружбы")
+                .baseUnit("friends")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        StorageMeters.gauges(registry, new StorageCounts<>(delegate::getUsersPage, User::getId,
+                user -> user.getFriendsId().size(), 2), "users", "friendships");
+    }
+
+    @Override
+    public User addUser(User user) {
+        long start = System.nanoTime();
+        try {
+            return delegate.addUser(user);
+        } finally {
+            addUserTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<User> addUsers(List<User> users) {
+        long start = System.nanoTime();
+        try {
+            return delegate.addUsers(users);
+        } finally {
+            addUsersTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public User removeUser(Long userId) {
+        long start = System.nanoTime();
+        try {
+            return delegate.removeUser(userId);
+        } finally {
+            removeUserTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public User updateUser(User updatedUser) {
+        long start = System.nanoTime();
+        try {
+            return delegate.updateUser(updatedUser);
+        } finally {
+            updateUserTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<User> getAllUsers() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getAllUsers();
+        } finally {
+            getAllUsersTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<User> getUsersPage(long afterId, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getUsersPage(afterId, limit);
+        } finally {
+            getUsersPageTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Optional<User> findUserById(Long userId) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findUserById(userId);
+        } finally {
+            findUserByIdTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<User> getUsersByIds(Collection<Long> userIds) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getUsersByIds(userIds);
+        } finally {
+            getUsersByIdsTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public User getUserByEmail(String email) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getUserByEmail(email);
+        } finally {
+            getUserByEmailTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<User> getUsersByLogin(String login) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getUsersByLogin(login);
+        } finally {
+            getUsersByLoginTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public User addFriend(Long userId, Long friendId) {
+        long start = System.nanoTime();
+        try {
+            User friend = delegate.addFriend(userId, friendId);
+            friendshipsAdded.increment();
+            friendsPerUser.record(friend.getFriendsId().size());
+            return friend;
+        } finally {
+            addFriendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public User removeFriend(Long userId, Long friendId) {
+        long start = System.nanoTime();
+        try {
+            User friend = delegate.removeFriend(userId, friendId);
+            friendshipsRemoved.increment();
+            friendsPerUser.record(friend.getFriendsId().size());
+            return friend;
+        } finally {
+            removeFriendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<User> getMutualFriends(Long firstUserId, Long secondUserId) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getMutualFriends(firstUserId, secondUserId);
+        } finally {
+            getMutualFriendsTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public int getMutualFriendsCount(Long firstUserId, Long secondUserId) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getMutualFriendsCount(firstUserId, secondUserId);
+        } finally {
+            getMutualFriendsCountTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public UserStorage getDelegate() {
+        return delegate;
+    }
+
+}
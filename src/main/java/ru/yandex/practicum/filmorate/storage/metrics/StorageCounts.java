@@ -0,0 +1,85 @@
+package ru.yandex.practicum.filmorate.storage.metrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+// Число сущностей и связей хранилища для датчиков. Датчики опрашиваются при каждом сборе метрик, а подсчет —
+// это проход по всем страницам хранилища, поэтому он выполняется не чаще раза в интервал обновления
+// и только одним потоком: остальные в это время получают предыдущие значения.
+final class StorageCounts<T> {
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int PAGE_SIZE = 1000;
+
+    private final PageReader<T> pageReader;
+    private final ToLongFunction<T> idExtractor;
+    private final ToIntFunction<T> edgeCounter;
+    // Сколько раз одна связь учтена в edgeCounter: взаимная дружба видна у обоих пользователей
+    private final int sidesPerEdge;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Counts counts;
+    private volatile long refreshedAt;
+
+    StorageCounts(PageReader<T> pageReader, ToLongFunction<T> idExtractor, ToIntFunction<T> edgeCounter,
+                  int sidesPerEdge) {
+        this.pageReader = pageReader;
+        this.idExtractor = idExtractor;
+        this.edgeCounter = edgeCounter;
+        this.sidesPerEdge = sidesPerEdge;
+    }
+
+    // Получаем число сущностей.
+    double entities() {
+        Counts current = current();
+        return current == null ? Double.NaN : current.entities();
+    }
+
+    // Получаем сумму связей по всем сущностям.
+    double edges() {
+        Counts current = current();
+        return current == null ? Double.NaN : current.edges();
+    }
+
+    private Counts current() {
+        Counts current = counts;
+        if ((current == null || System.nanoTime() - refreshedAt >= REFRESH_INTERVAL_NANOS) && refreshLock.tryLock()) {
+            try {
+                if (counts == current) {
+                    counts = count();
+                    refreshedAt = System.nanoTime();
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        return counts;
+    }
+
+    private Counts count() {
+        long entities = 0;
+        long edges = 0;
+        long afterId = 0;
+        List<T> page;
+        do {
+            page = pageReader.read(afterId, PAGE_SIZE);
+            for (T entity : page) {
+                edges += edgeCounter.applyAsInt(entity);
+                afterId = idExtractor.applyAsLong(entity);
+            }
+            entities += page.size();
+        } while (page.size() == PAGE_SIZE);
+        return new Counts(entities, edges / sidesPerEdge);
+    }
+
+    // Чтение страницы хранилища: не более limit сущностей с ID больше afterId в порядке возрастания ID.
+    @FunctionalInterface
+    interface PageReader<T> {
+        List<T> read(long afterId, int limit);
+    }
+
+    private record Counts(long entities, long edges) {
+    }
+
+}
@@ -0,0 +1,54 @@
+package ru.yandex.practicum.filmorate.storage.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Имена и теги метрик хранилищ. Метры создаются один раз при оборачивании хранилища,
+// чтобы на каждом вызове не искать их в реестре по имени и тегам.
+final class StorageMeters {
+    static final String CALLS = "filmorate.storage";
+    static final String ENTITIES = "filmorate.entities";
+    static final String EDGES = "filmorate.edges";
+
+    private StorageMeters() {
+    }
+
+    static Timer timer(MeterRegistry registry, String entity, String method) {
+        return Timer.builder(CALLS)
+                .description("Время вызова метода хранилища")
+                .tag("entity", entity)
+                .tag("method", method)
+                .register(registry);
+    }
+
+    // Таймер запроса популярных фильмов: кроме гистограммы для Prometheus публикует p50, p99 и p999.
+    static Timer percentileTimer(MeterRegistry registry, String entity, String method) {
+        return Timer.builder(CALLS)
+                .description("Время вызова метода хранилища")
+                .tag("entity", entity)
+                .tag("method", method)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    static Counter counter(MeterRegistry registry, String name, String action) {
+        return Counter.builder(name)
+                .tag("action", action)
+                .register(registry);
+    }
+
+    static <T> void gauges(MeterRegistry registry, StorageCounts<T> counts, String entities, String edges) {
+        Gauge.builder(ENTITIES, counts, StorageCounts::entities)
+                .description("Число сущностей в хранилище")
+                .tag("type", entities)
+                .register(registry);
+        Gauge.builder(EDGES, counts, StorageCounts::edges)
+                .description("Число связей между сущностями в хранилище")
+                .tag("type", edges)
+                .register(registry);
+    }
+
+}
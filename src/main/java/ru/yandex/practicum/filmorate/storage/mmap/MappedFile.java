@@ -0,0 +1,100 @@
+package ru.yandex.practicum.filmorate.storage.mmap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Файл, отображаемый в память областями фиксированного размера. Файл растет при обращении к новой области.
+// Значение целиком лежит в одной области: вызывающий не размещает записи поперек границы областей.
+// Чтение и запись идут по абсолютным смещениям и не меняют позицию буферов, поэтому буферы общие для всех потоков.
+class MappedFile implements Closeable {
+    private final FileChannel channel;
+    private final int regionShift;
+    private final int regionMask;
+    // ReentrantLock, а не synchronized: отображение области не закрепляет виртуальный поток за потоком-носителем
+    private final ReentrantLock mapLock = new ReentrantLock();
+    private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+
+    MappedFile(Path path, int regionSize) throws IOException {
+        if (Integer.bitCount(regionSize) != 1) {
+            throw new IllegalArgumentException("Размер области должен быть степенью двойки");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.regionShift = Integer.numberOfTrailingZeros(regionSize);
+        this.regionMask = regionSize - 1;
+    }
+
+    int regionSize() {
+        return regionMask + 1;
+    }
+
+    long getLong(long position) {
+        return region(position).getLong(offset(position));
+    }
+
+    void putLong(long position, long value) {
+        region(position).putLong(offset(position), value);
+    }
+
+    int getInt(long position) {
+        return region(position).getInt(offset(position));
+    }
+
+    void putInt(long position, int value) {
+        region(position).putInt(offset(position), value);
+    }
+
+    void get(long position, byte[] target) {
+        region(position).get(offset(position), target);
+    }
+
+    void put(long position, byte[] source) {
+        region(position).put(offset(position), source);
+    }
+
+    @Override
+    public void close() throws IOException {
+        regions = new MappedByteBuffer[0];
+        channel.close();
+    }
+
+    private int offset(long position) {
+        return (int) (position & regionMask);
+    }
+
+    private MappedByteBuffer region(long position) {
+        int index = (int) (position >>> regionShift);
+        MappedByteBuffer[] current = regions;
+        if (index < current.length) {
+            return current[index];
+        }
+        return mapRegion(index);
+    }
+
+    private MappedByteBuffer mapRegion(int index) {
+        mapLock.lock();
+        try {
+            MappedByteBuffer[] current = regions;
+            if (index < current.length) {
+                return current[index];
+            }
+            MappedByteBuffer[] extended = Arrays.copyOf(current, index + 1);
+            for (int i = current.length; i <= index; i++) {
+                extended[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i << regionShift, regionSize());
+            }
+            regions = extended;
+            return extended[index];
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось отобразить в память область файла", e);
+        } finally {
+            mapLock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,418 @@
+package ru.yandex.practicum.filmorate.storage.mmap;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.IdGenerator;
+import ru.yandex.practicum.filmorate.storage.SequenceIdGenerator;
+import ru.yandex.practicum.filmorate.storage.film.FilmPopularityIndex;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.util.ShardedLongSet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+// Каталог фильмов вне кучи: записи фильмов лежат в отображаемых в память файлах, а не в объектах Film,
+// поэтому миллионы фильмов со строками и датами не нагружают сборщик мусора.
+// Индексный файл хранит заголовок фиксированного размера на каждый ID, строки лежат в отдельной области (арене).
+// Film собирается из заголовка только при чтении. При обновлении строка перезаписывается на месте,
+// если помещается в выделенное под нее место, иначе под нее выделяется новое место в арене.
+// В куче остаются только лайки и индекс популярности. Файлы не переживают перезапуск: для этого есть движок wal.
+@Slf4j
+public class MappedFilmStorage implements FilmStorage, Closeable {
+    // Раскладка заголовка фильма в индексном файле
+    private static final int SLOT_SIZE = 64;
+    private static final int STATE = 0;
+    private static final StringField NAME = new StringField(4, 8, 16);
+    private static final StringField DESCRIPTION = new StringField(20, 24, 32);
+    private static final int RELEASE_DATE = 40;
+    private static final int DURATION = 48;
+
+    private static final int LIVE = 1;
+    private static final int REMOVED = 2;
+    private static final int NULL_LENGTH = -1;
+    private static final long NULL_NUMBER = Long.MIN_VALUE;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path indexPath;
+    private final Path arenaPath;
+    private final MappedFile index;
+    private final MappedFile arena;
+    private final AtomicLong arenaTail = new AtomicLong();
+    // Чтение идет без блокировки с проверкой штампа, запись блокирует полосу ID, а лайк берет ее на чтение
+    private final StampedLock[] locks = new StampedLock[LOCK_STRIPES];
+    private final Map<Long, ShardedLongSet> likes = new ConcurrentHashMap<>();
+    private final FilmPopularityIndex popularityIndex = new FilmPopularityIndex();
+    private final IdGenerator idGenerator;
+
+    public MappedFilmStorage(Path directory, int regionSize) throws IOException {
+        this(directory, regionSize, new SequenceIdGenerator());
+    }
+
+    public MappedFilmStorage(Path directory, int regionSize, IdGenerator idGenerator) throws IOException {
+        Files.createDirectories(directory);
+        this.indexPath = directory.resolve("films.idx");
+        this.arenaPath = directory.resolve("films.dat");
+        this.index = new MappedFile(indexPath, regionSize);
+        this.arena = new MappedFile(arenaPath, regionSize);
+        this.idGenerator = idGenerator;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new StampedLock();
+        }
+    }
+
+    @Override
+    public Film addFilm(Film film) {
+        if (film == null) {
+            log.error("Запрос на добавление нового фильма поступил с пустым телом");
+            throw new ValidationException("Запрос на добавление фильма поступил с пустым телом");
+        }
+        film.setId(idGenerator.nextId());
+        log.debug("Новому фильму назначен ID: {}", film.getId());
+        writeNewFilm(film);
+        log.debug("Успешно добавлен новый фильм с ID: {}", film.getId());
+        return film;
+    }
+
+    @Override
+    public List<Film> addFilms(List<Film> newFilms) {
+        if (newFilms.stream().anyMatch(Objects::isNull)) {
+            log.error("Пакет новых фильмов содержит пустой объект");
+            throw new ValidationException("Пакет фильмов содержит пустой объект");
+        }
+        if (newFilms.isEmpty()) {
+            return List.of();
+        }
+        long firstId = idGenerator.allocateBlock(newFilms.size());
+        for (int i = 0; i < newFilms.size(); i++) {
+            Film film = newFilms.get(i);
+            film.setId(firstId + i);
+            writeNewFilm(film);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Успешно добавлено новых фильмов: {}, ID с {} по {}",
+                    newFilms.size(), firstId, firstId + newFilms.size() - 1);
+        }
+        return newFilms;
+    }
+
+    @Override
+    public Film removeFilm(Long filmId) {
+        log.debug("Начата проверка наличия фильма с ID: {} для его последующего удаления", filmId);
+        Film removedFilm = null;
+        if (filmId != null) {
+            StampedLock lock = lockFor(filmId);
+            long stamp = lock.writeLock();
+            try {
+                removedFilm = decode(filmId);
+                if (removedFilm != null) {
+                    index.putInt(slot(filmId) + STATE, REMOVED);
+                    likes.remove(filmId);
+                    popularityIndex.remove(filmId);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        if (removedFilm != null) {
+            log.debug("Фильм с ID: {} успешно удален.", filmId);
+            return removedFilm;
+        }
+        log.error("Попытка удаления фильма. Фильм с ID: {} не найден", filmId);
+        throw new NotFoundException("Попытка удаления фильма. Фильм с ID: " + filmId + " не найден");
+    }
+
+    @Override
+    public Film updateFilm(Film updatedFilm) {
+        if (updatedFilm == null) {
+            log.error("Запрос на обновление данных фильма поступил с пустым телом");
+            throw new ValidationException("Запрос на обновление данных фильма поступил с пустым телом");
+        }
+        log.debug("Начат процесс обновления данных фильма. Проверяем ID фильма");
+        if (updatedFilm.getId() == null) {
+            log.error("Фильм имеет ID со значением null");
+            throw new ValidationException("ID фильма должен быть указан");
+        }
+        log.debug("Начата проверка наличия фильма с ID: {}", updatedFilm.getId());
+        Film result;
+        StampedLock lock = lockFor(updatedFilm.getId());
+        long stamp = lock.writeLock();
+        try {
+            Film oldFilm = decode(updatedFilm.getId());
+            result = oldFilm == null ? null : updateInPlace(oldFilm, updatedFilm);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (result != null) {
+            log.debug("Данные фильма с ID: {} успешно обновлены", result.getId());
+            return result;
+        }
+        log.error("Попытка обновления данных фильма. Фильм с ID: {} не найден", updatedFilm.getId());
+        throw new NotFoundException("Попытка обновления данных фильма. Фильм с ID = "
+                + updatedFilm.getId() + " не найден");
+    }
+
+    @Override
+    public List<Film> getAllFilms() {
+        log.debug("Начат процесс предоставления списка всех фильмов");
+        return getFilmsPage(0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Film> getFilmsPage(long afterId, int limit) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начат процесс предоставления страницы из {} фильмов с ID больше {}", limit, afterId);
+        }
+        List<Film> page = new ArrayList<>(Math.min(limit, 1024));
+        long lastId = idGenerator.currentId();
+        for (long filmId = Math.max(afterId, 0) + 1; filmId <= lastId && page.size() < limit; filmId++) {
+            Film film = read(filmId);
+            if (film != null) {
+                page.add(film);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public Optional<Film> findFilmById(Long filmId) {
+        log.debug("Начат поиск фильма с ID: {}", filmId);
+        return filmId == null ? Optional.empty() : Optional.ofNullable(read(filmId));
+    }
+
+    @Override
+    public List<Film> getFilmsByIds(Collection<Long> filmIds) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начат процесс предоставления {} фильмов по списку ID", filmIds.size());
+        }
+        List<Film> result = new ArrayList<>(filmIds.size());
+        for (Long filmId : filmIds) {
+            Film film = filmId == null ? null : read(filmId);
+            if (film != null) {
+                result.add(film);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Film addLike(Long filmId, Long userId) {
+        log.debug("Начат процесс добавления лайка фильму с ID: {} от пользователя с ID: {}", filmId, userId);
+        Film film = filmId == null ? null : changeLike(filmId, userId, true);
+        if (film != null) {
+            log.debug("Фильму с ID: {} поставлен лайк от пользователя с ID: {}", filmId, userId);
+            return film;
+        }
+        log.error("Попытка добавления лайка. Фильм с ID: {} не найден", filmId);
+        throw NotFoundException.film(filmId);
+    }
+
+    @Override
+    public Film removeLike(Long filmId, Long userId) {
+        log.debug("Начат процесс удаления лайка у фильма с ID: {} от пользователя с ID: {}", filmId, userId);
+        Film film = filmId == null ? null : changeLike(filmId, userId, false);
+        if (film != null) {
+            log.debug("У фильма с ID: {} удален лайк от пользователя с ID: {}", filmId, userId);
+            return film;
+        }
+        log.error("Попытка удаления лайка. Фильм с ID: {} не найден", filmId);
+        throw NotFoundException.film(filmId);
+    }
+
+    @Override
+    public List<Film> getMostPopularFilms(long count) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начат процесс предоставления списка из {} наиболее популярных фильмов", count);
+        }
+        return popularityIndex.top(count).stream()
+                .map(this::read)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Закрываем и удаляем файлы каталога.
+    @Override
+    public void close() throws IOException {
+        index.close();
+        arena.close();
+        Files.deleteIfExists(indexPath);
+        Files.deleteIfExists(arenaPath);
+    }
+
+    // Лайк и индекс популярности меняются под блокировкой полосы на чтение: удаление фильма берет ее на запись
+    // и не разойдется с лайком, а лайки одного фильма из разных потоков друг друга не ждут
+    private Film changeLike(long filmId, Long userId, boolean liked) {
+        StampedLock lock = lockFor(filmId);
+        long stamp = lock.readLock();
+        try {
+            if (!isLive(filmId)) {
+                return null;
+            }
+            if (liked) {
+                if (likes.computeIfAbsent(filmId, id -> new ShardedLongSet()).add(userId)) {
+                    popularityIndex.adjust(filmId, 1);
+                }
+            } else {
+                ShardedLongSet filmLikes = likes.get(filmId);
+                if (filmLikes != null && filmLikes.remove(userId)) {
+                    popularityIndex.adjust(filmId, -1);
+                }
+            }
+            return decode(filmId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Film updateInPlace(Film oldFilm, Film updatedFilm) {
+        long slot = slot(oldFilm.getId());
+        LocalDate cinemaBirthDate = LocalDate.of(1895, Month.DECEMBER, 28);
+        if (!oldFilm.getName().equals(updatedFilm.getName())) {
+            log.debug("Устанавливаем обновленное название фильма: {}", updatedFilm.getName());
+            putString(slot, NAME, updatedFilm.getName());
+        }
+        if (!oldFilm.getDescription().equals(updatedFilm.getDescription())) {
+            log.debug("Обновляем описание фильма: {}", updatedFilm.getDescription());
+            putString(slot, DESCRIPTION, updatedFilm.getDescription());
+        }
+        if (!oldFilm.getReleaseDate().isEqual(updatedFilm.getReleaseDate())
+                && updatedFilm.getReleaseDate().isAfter(cinemaBirthDate)) {
+            log.debug("Устанавливаем обновленную дату релиза: {}", updatedFilm.getReleaseDate());
+            index.putLong(slot + RELEASE_DATE, updatedFilm.getReleaseDate().toEpochDay());
+        }
+        if (!oldFilm.getDuration().equals(updatedFilm.getDuration())) {
+            log.debug("Устанавливаем обновленную длительность фильма: {}", updatedFilm.getDuration());
+            index.putLong(slot + DURATION, updatedFilm.getDuration());
+        }
+        return decode(oldFilm.getId());
+    }
+
+    // Читаем фильм без блокировки. Если запись менялась во время чтения, повторяем его под блокировкой.
+    private Film read(long filmId) {
+        StampedLock lock = lockFor(filmId);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Film film = decode(filmId);
+                if (lock.validate(stamp)) {
+                    return film;
+                }
+            } catch (RuntimeException e) {
+                // Прочитаны несогласованные смещения изменяемой записи, читаем повторно под блокировкой
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return decode(filmId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Film decode(long filmId) {
+        if (!isLive(filmId)) {
+            return null;
+        }
+        long slot = slot(filmId);
+        long releaseDate = index.getLong(slot + RELEASE_DATE);
+        long duration = index.getLong(slot + DURATION);
+        Film film = new Film(filmId, getString(slot, NAME), getString(slot, DESCRIPTION),
+                releaseDate == NULL_NUMBER ? null : LocalDate.ofEpochDay(releaseDate),
+                duration == NULL_NUMBER ? null : duration);
+        ShardedLongSet filmLikes = likes.get(filmId);
+        if (filmLikes != null) {
+            filmLikes.forEachLong(film.getFilmLikedUsersId()::add);
+        }
+        return film;
+    }
+
+    // ID за пределами выданных не читаем: иначе запрос несуществующего ID растянул бы файл
+    private boolean isLive(long filmId) {
+        return filmId > 0 && filmId <= idGenerator.currentId() && index.getInt(slot(filmId) + STATE) == LIVE;
+    }
+
+    private String getString(long slot, StringField field) {
+        int length = index.getInt(slot + field.length());
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        arena.get(index.getLong(slot + field.offset()), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void putString(long slot, StringField field, String value) {
+        if (value == null) {
+            index.putInt(slot + field.length(), NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > index.getInt(slot + field.capacity())) {
+            int capacity = (bytes.length + 7) & ~7;
+            index.putLong(slot + field.offset(), allocate(capacity));
+            index.putInt(slot + field.capacity(), capacity);
+        }
+        arena.put(index.getLong(slot + field.offset()), bytes);
+        index.putInt(slot + field.length(), bytes.length);
+    }
+
+    // Выделяем место в арене так, чтобы строка не пересекала границу отображаемой области
+    private long allocate(int size) {
+        int regionSize = arena.regionSize();
+        if (size > regionSize) {
+            throw new ValidationException("Строка длиной " + size + " байт не помещается в каталог фильмов");
+        }
+        while (true) {
+            long start = arenaTail.get();
+            long regionEnd = (start | (regionSize - 1)) + 1;
+            long position = start + size > regionEnd ? regionEnd : start;
+            if (arenaTail.compareAndSet(start, position + size)) {
+                return position;
+            }
+        }
+    }
+
+    private long slot(long filmId) {
+        return filmId * SLOT_SIZE;
+    }
+
+    private void writeNewFilm(Film film) {
+        StampedLock lock = lockFor(film.getId());
+        long stamp = lock.writeLock();
+        try {
+            long slot = slot(film.getId());
+            putString(slot, NAME, film.getName());
+            putString(slot, DESCRIPTION, film.getDescription());
+            index.putLong(slot + RELEASE_DATE, film.getReleaseDate() == null
+                    ? NULL_NUMBER : film.getReleaseDate().toEpochDay());
+            index.putLong(slot + DURATION, film.getDuration() == null ? NULL_NUMBER : film.getDuration());
+            index.putInt(slot + STATE, LIVE);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private StampedLock lockFor(long filmId) {
+        return locks[(int) (filmId & (LOCK_STRIPES - 1))];
+    }
+
+    // Смещения длины, адреса в арене и выделенного места строкового поля в заголовке
+    private record StringField(int length, int offset, int capacity) {
+    }
+
+}
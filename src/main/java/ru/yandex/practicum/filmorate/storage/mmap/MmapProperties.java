@@ -0,0 +1,16 @@
+package ru.yandex.practicum.filmorate.storage.mmap;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+// Настройки каталога фильмов в отображаемых в память файлах (filmorate.storage.mmap.*).
+@Data
+@ConfigurationProperties(prefix = "filmorate.storage.mmap")
+public class MmapProperties {
+    // Каталог для файлов каталога фильмов. Файлы пересоздаются при запуске и удаляются при остановке
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "filmorate-mmap");
+    // Размер отображаемой области, степень двойки
+    private int regionSize = 64 * 1024 * 1024;
+}
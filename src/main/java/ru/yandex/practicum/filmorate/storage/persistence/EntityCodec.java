@@ -0,0 +1,108 @@
+package ru.yandex.practicum.filmorate.storage.persistence;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.function.LongConsumer;
+
+// Компактное двоичное представление фильмов и пользователей для журнала и снимков хранилища.
+// Строки пишутся как длина и байты UTF-8, даты — как номер дня от эпохи, множества ID — как количество и ID.
+// Отсутствующие значения кодируются служебными значениями, поэтому формат не зависит от валидации модели.
+public final class EntityCodec {
+    private static final int NULL_LENGTH = -1;
+    private static final long NULL_NUMBER = Long.MIN_VALUE;
+
+    private EntityCodec() {
+    }
+
+    // Записываем фильм. Если withLikes = false, множество лайков записывается пустым.
+    public static void writeFilm(DataOutput out, Film film, boolean withLikes) throws IOException {
+        out.writeLong(film.getId());
+        writeString(out, film.getName());
+        writeString(out, film.getDescription());
+        writeDate(out, film.getReleaseDate());
+        out.writeLong(film.getDuration() == null ? NULL_NUMBER : film.getDuration());
+        writeIds(out, withLikes ? film.getFilmLikedUsersId().toLongArray() : new long[0]);
+    }
+
+    public static Film readFilm(DataInput in) throws IOException {
+        long id = in.readLong();
+        String name = readString(in);
+        String description = readString(in);
+        LocalDate releaseDate = readDate(in);
+        long duration = in.readLong();
+        Film film = new Film(id, name, description, releaseDate, duration == NULL_NUMBER ? null : duration);
+        readIds(in, film.getFilmLikedUsersId()::add);
+        return film;
+    }
+
+    // Записываем пользователя. Если withFriends = false, множество друзей записывается пустым.
+    public static void writeUser(DataOutput out, User user, boolean withFriends) throws IOException {
+        out.writeLong(user.getId());
+        writeString(out, user.getEmail());
+        writeString(out, user.getLogin());
+        writeString(out, user.getName());
+        writeDate(out, user.getBirthday());
+        writeIds(out, withFriends ? user.getFriendsId().toLongArray() : new long[0]);
+    }
+
+    public static User readUser(DataInput in) throws IOException {
+        long id = in.readLong();
+        String email = readString(in);
+        String login = readString(in);
+        String name = readString(in);
+        LocalDate birthday = readDate(in);
+        User user = new User(id, email, login, name, birthday);
+        readIds(in, user.getFriendsId()::add);
+        return user;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeLong(date == null ? NULL_NUMBER : date.toEpochDay());
+    }
+
+    private static LocalDate readDate(DataInput in) throws IOException {
+        long epochDay = in.readLong();
+        return epochDay == NULL_NUMBER ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static void writeIds(DataOutput out, long[] ids) throws IOException {
+        out.writeInt(ids.length);
+        for (long id : ids) {
+            out.writeLong(id);
+        }
+    }
+
+    private static void readIds(DataInput in, LongConsumer target) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            target.accept(in.readLong());
+        }
+    }
+
+}
@@ -0,0 +1,249 @@
+package ru.yandex.practicum.filmorate.storage.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.persistence.EntityCodec;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+// Двоичные снимки хранилищ в памяти вместе с лайками и друзьями для быстрого перезапуска.
+//
+// Снимок состоит из заголовка и блоков по BLOCK_SIZE объектов, у каждого блока своя длина и CRC.
+// Блоки независимы, поэтому при запуске поток чтения только нарезает файл, а разбор и вставку
+// в хранилища параллельно выполняют loadThreads потоков.
+//
+// Запись снимка не блокирует изменения: объекты читаются постранично из ConcurrentSkipListMap.
+// Поэтому снимок нечеткий — изменения, сделанные во время записи, могут попасть в него частично.
+// Для долговечности каждого изменения служит движок wal.
+@Slf4j
+public class InMemorySnapshotter implements Closeable {
+    private static final int MAGIC = 0x464C4D53;
+    private static final int VERSION = 1;
+    private static final int BLOCK_SIZE = 1024;
+    private static final byte END_BLOCK = 0;
+    private static final byte FILMS_BLOCK = 1;
+    private static final byte USERS_BLOCK = 2;
+
+    private final InMemoryFilmStorage films;
+    private final InMemoryUserStorage users;
+    private final SnapshotProperties properties;
+    // Снимки пишутся по одному: запрос снимка во время записи другого ждет ее окончания
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    public InMemorySnapshotter(InMemoryFilmStorage films, InMemoryUserStorage users, SnapshotProperties properties)
+            throws IOException {
+        this.films = films;
+        this.users = users;
+        this.properties = properties;
+        if (properties.isLoadOnStartup() && Files.exists(properties.getFile())) {
+            load();
+        }
+    }
+
+    // Пишем снимок во временный файл и атомарно заменяем им предыдущий.
+    public SnapshotResult snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            long start = System.nanoTime();
+            Path file = properties.getFile().toAbsolutePath();
+            Files.createDirectories(file.getParent());
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            long filmsCount = 0;
+            long usersCount = 0;
+            long bytes;
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(films.getLastId());
+                out.writeLong(users.getLastId());
+                List<Film> filmsPage = films.getFilmsPage(0, BLOCK_SIZE);
+                while (!filmsPage.isEmpty()) {
+                    List<Film> page = filmsPage;
+                    writeBlock(out, FILMS_BLOCK, page.size(), block -> {
+                        for (Film film : page) {
+                            EntityCodec.writeFilm(block, film, true);
+                        }
+                    });
+                    filmsCount += page.size();
+                    filmsPage = films.getFilmsPage(page.getLast().getId(), BLOCK_SIZE);
+                }
+                List<User> usersPage = users.getUsersPage(0, BLOCK_SIZE);
+                while (!usersPage.isEmpty()) {
+                    List<User> page = usersPage;
+                    writeBlock(out, USERS_BLOCK, page.size(), block -> {
+                        for (User user : page) {
+                            EntityCodec.writeUser(block, user, true);
+                        }
+                    });
+                    usersCount += page.size();
+                    usersPage = users.getUsersPage(page.getLast().getId(), BLOCK_SIZE);
+                }
+                out.writeByte(END_BLOCK);
+                out.writeLong(filmsCount);
+                out.writeLong(usersCount);
+                out.flush();
+                channel.force(true);
+                bytes = channel.size();
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            SnapshotResult result = new SnapshotResult(file.toString(), filmsCount, usersCount, bytes,
+                    (System.nanoTime() - start) / 1_000_000);
+            log.info("Записан снимок хранилищ в памяти {}: фильмов {}, пользователей {}, байт {}, за {} мс",
+                    result.file(), result.films(), result.users(), result.bytes(), result.durationMillis());
+            return result;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    // Загружаем снимок в хранилища. Блоки разбираются параллельно, в памяти одновременно
+    // находится не больше двух блоков на поток разбора.
+    public SnapshotResult load() throws IOException {
+        long start = System.nanoTime();
+        Path file = properties.getFile().toAbsolutePath();
+        int threads = Math.max(1, properties.getLoadThreads());
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-load-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(threads * 2);
+        List<Future<?>> blocks = new ArrayList<>();
+        long filmsCount = 0;
+        long usersCount = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Неизвестный формат снимка хранилищ " + file);
+            }
+            long lastFilmId = in.readLong();
+            long lastUserId = in.readLong();
+            byte type;
+            while ((type = in.readByte()) != END_BLOCK) {
+                int count = in.readInt();
+                int length = in.readInt();
+                long checksum = in.readLong();
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                if (type == FILMS_BLOCK) {
+                    filmsCount += count;
+                } else if (type == USERS_BLOCK) {
+                    usersCount += count;
+                } else {
+                    throw new IOException("Неизвестный тип блока " + type + " в снимке хранилищ " + file);
+                }
+                byte blockType = type;
+                inFlight.acquireUninterruptibly();
+                blocks.add(executor.submit(() -> {
+                    try {
+                        restoreBlock(blockType, count, payload, checksum);
+                    } finally {
+                        inFlight.release();
+                    }
+                    return null;
+                }));
+            }
+            if (in.readLong() != filmsCount || in.readLong() != usersCount) {
+                throw new IOException("Снимок хранилищ " + file + " поврежден");
+            }
+            for (Future<?> block : blocks) {
+                block.get();
+            }
+            films.seedLastId(lastFilmId);
+            users.seedLastId(lastUserId);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw new IllegalStateException("Не удалось загрузить снимок хранилищ " + file, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Загрузка снимка хранилищ " + file + " прервана", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        SnapshotResult result = new SnapshotResult(file.toString(), filmsCount, usersCount, Files.size(file),
+                (System.nanoTime() - start) / 1_000_000);
+        log.info("Загружен снимок хранилищ в памяти {}: фильмов {}, пользователей {}, за {} мс ({} потоков)",
+                result.file(), result.films(), result.users(), result.durationMillis(), threads);
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (properties.isSnapshotOnShutdown()) {
+            snapshot();
+        }
+    }
+
+    private void writeBlock(DataOutputStream out, byte type, int count, BlockWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(count * 128);
+        writer.write(new DataOutputStream(bytes));
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        out.writeByte(type);
+        out.writeInt(count);
+        out.writeInt(payload.length);
+        out.writeLong(crc.getValue());
+        out.write(payload);
+    }
+
+    private void restoreBlock(byte type, int count, byte[] payload, long checksum) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        try {
+            if (crc.getValue() != checksum) {
+                throw new IOException("Блок снимка хранилищ поврежден");
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            for (int i = 0; i < count; i++) {
+                if (type == FILMS_BLOCK) {
+                    films.restoreFilm(EntityCodec.readFilm(in));
+                } else {
+                    users.restoreUser(EntityCodec.readUser(in));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Запись содержимого блока снимка.
+    @FunctionalInterface
+    private interface BlockWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+}
@@ -0,0 +1,19 @@
+package ru.yandex.practicum.filmorate.storage.snapshot;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+// Настройки двоичных снимков хранилищ в памяти (filmorate.storage.snapshot.*).
+@Data
+@ConfigurationProperties(prefix = "filmorate.storage.snapshot")
+public class SnapshotProperties {
+    private boolean enabled;
+    // Файл снимка. Новый снимок пишется во временный файл и атомарно заменяет предыдущий
+    private Path file = Path.of("data", "memory-snapshot.bin");
+    private boolean loadOnStartup = true;
+    private boolean snapshotOnShutdown = true;
+    // Количество потоков, разбирающих блоки снимка при запуске
+    private int loadThreads = Runtime.getRuntime().availableProcessors();
+}
@@ -0,0 +1,5 @@
+package ru.yandex.practicum.filmorate.storage.snapshot;
+
+// Итог записи или загрузки снимка.
+public record SnapshotResult(String file, long films, long users, long bytes, long durationMillis) {
+}
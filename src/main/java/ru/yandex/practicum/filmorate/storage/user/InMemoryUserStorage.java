@@ -1,19 +1,44 @@
 package ru.yandex.practicum.filmorate.storage.user;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.IdGenerator;
+import ru.yandex.practicum.filmorate.storage.SequenceIdGenerator;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 @Component
+@ConditionalOnProperty(name = "filmorate.storage.engine", havingValue = "memory", matchIfMissing = true)
 @Slf4j
 public class InMemoryUserStorage implements UserStorage {
-    private final Map<Long, User> users = new HashMap<>();
+    // Хранилище вызывается из множества потоков Tomcat, поэтому используем ConcurrentSkipListMap:
+    // чтение не блокируется, изменение одного ID атомарно и не мешает изменению других ID,
+    // а упорядоченность по ID позволяет отдавать список постранично без копирования всего хранилища.
+    private final NavigableMap<Long, User> users = new ConcurrentSkipListMap<>();
+    // Вторичные индексы обновляются вместе с основным хранилищем
+    private final SecondaryIndex emailIndex = new SecondaryIndex(true);
+    private final SecondaryIndex loginIndex = new SecondaryIndex(false);
+    private final IdGenerator idGenerator;
+
+    public InMemoryUserStorage() {
+        this(new SequenceIdGenerator());
+    }
+
+    public InMemoryUserStorage(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
 
     @Override
     public User addUser(User user) {
@@ -21,30 +46,69 @@ public class InMemoryUserStorage implements UserStorage {
             log.error("Запрос на добавление нового пользователя поступил с пустым телом");
             throw new ValidationException("Запрос на добавление пользователя поступил с пустым телом");
         }
-        log.info("Начат процесс добавления нового пользователя. Проверяем уникальность E-mail");
-        for (User u : users.values()) {
-            if (user.getEmail().equals(u.getEmail())) {
-                log.error("E-mail: {} уже используется", user.getEmail());
-                throw new ValidationException("Указанный E-mail: " + user.getEmail() + " уже используется");
-            }
+        log.debug("Начат процесс добавления нового пользователя. Проверяем уникальность E-mail");
+        if (emailIndex.contains(user.getEmail())) {
+            log.error("E-mail: {} уже используется", user.getEmail());
+            throw new ValidationException("Указанный E-mail: " + user.getEmail() + " уже используется");
         }
         if (user.getName() == null || user.getName().isBlank()) {
             log.debug("Имя не указано, устанавливаем имя как логин: {}", user.getLogin());
             user.setName(user.getLogin());
         }
-        user.setId(getNextId());
+        user.setId(idGenerator.nextId());
         log.debug("Новому пользователю назначен ID: {}", user.getId());
+        // E-mail резервируем атомарно: параллельный запрос с тем же E-mail мог успеть занять его после проверки
+        if (!emailIndex.add(user.getEmail(), user.getId())) {
+            log.error("E-mail: {} уже используется", user.getEmail());
+            throw new ValidationException("Указанный E-mail: " + user.getEmail() + " уже используется");
+        }
         users.put(user.getId(), user);
-        log.info("Успешно добавлен новый пользователь с ID: {}", user.getId());
+        loginIndex.add(user.getLogin(), user.getId());
+        log.debug("Успешно добавлен новый пользователь с ID: {}", user.getId());
         return user;
     }
 
+    @Override
+    public List<User> addUsers(List<User> newUsers) {
+        if (newUsers.stream().anyMatch(Objects::isNull)) {
+            log.error("Пакет новых пользователей содержит пустой объект");
+            throw new ValidationException("Пакет пользователей содержит пустой объект");
+        }
+        if (newUsers.isEmpty()) {
+            return List.of();
+        }
+        long nextId = idGenerator.allocateBlock(newUsers.size());
+        List<User> addedUsers = new ArrayList<>(newUsers.size());
+        for (User user : newUsers) {
+            long userId = nextId++;
+            // ID пропущенного пользователя остается неиспользованным: ID удаленных объектов тоже не выдаются повторно
+            if (!emailIndex.add(user.getEmail(), userId)) {
+                log.error("E-mail: {} уже используется", user.getEmail());
+                continue;
+            }
+            if (user.getName() == null || user.getName().isBlank()) {
+                user.setName(user.getLogin());
+            }
+            user.setId(userId);
+            users.put(userId, user);
+            loginIndex.add(user.getLogin(), userId);
+            addedUsers.add(user);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Успешно добавлено новых пользователей: {} из {}", addedUsers.size(), newUsers.size());
+        }
+        return addedUsers;
+    }
+
     @Override
     public User removeUser(Long userId) {
-        log.info("Начата проверка наличия пользователя с ID: {} для его последующего удаления", userId);
-        if (users.containsKey(userId)) {
-            log.info("Пользователь с ID: {} успешно удален.", userId);
-            return users.remove(userId);
+        log.debug("Начата проверка наличия пользователя с ID: {} для его последующего удаления", userId);
+        User removedUser = userId == null ? null : users.remove(userId);
+        if (removedUser != null) {
+            emailIndex.remove(removedUser.getEmail(), userId);
+            loginIndex.remove(removedUser.getLogin(), userId);
+            log.debug("Пользователь с ID: {} успешно удален.", userId);
+            return removedUser;
         }
         log.error("Попытка удаления пользователя. Пользователь с ID: {} не найден", userId);
         throw new NotFoundException("Попытка удаления пользователя. Пользователь с ID: " + userId + " не найден");
@@ -56,29 +120,28 @@ public class InMemoryUserStorage implements UserStorage {
             log.error("Запрос на обновление данных пользователя поступил с пустым телом");
             throw new ValidationException("Запрос на обновление данных пользователя поступил с пустым телом");
         }
-        log.info("Начат процесс обновления данных пользователя. Проверяем ID пользователя");
+        log.debug("Начат процесс обновления данных пользователя. Проверяем ID пользователя");
         if (updatedUser.getId() == null) {
             log.error("Пользователь имеет ID со значением null");
             throw new ValidationException("ID пользователя должен быть указан");
         }
-        log.info("Начата проверка наличия пользователя с ID: {}", updatedUser.getId());
-        if (users.containsKey(updatedUser.getId())) {
-            User oldUser = users.get(updatedUser.getId());
+        log.debug("Начата проверка наличия пользователя с ID: {}", updatedUser.getId());
+        // Проверка наличия и обновление выполняются атомарно для данного ID
+        User result = users.computeIfPresent(updatedUser.getId(), (id, oldUser) -> {
             if (!oldUser.getEmail().equals(updatedUser.getEmail()) && updatedUser.getEmail() != null
                     && !updatedUser.getEmail().isBlank()) {
-                log.info("Начата проверка уникальности обновленного E-mail");
-                for (User u : users.values()) {
-                    if (updatedUser.getEmail().equals(u.getEmail())) {
-                        log.error("Обновляемый E-mail: {} уже используется", updatedUser.getEmail());
-                        throw new ValidationException("Обновляемый E-mail: " + updatedUser.getEmail()
-                                + " уже используется");
-                    }
+                log.debug("Начата проверка уникальности обновленного E-mail");
+                if (!emailIndex.replace(oldUser.getEmail(), updatedUser.getEmail(), id)) {
+                    log.error("Обновляемый E-mail: {} уже используется", updatedUser.getEmail());
+                    throw new ValidationException("Обновляемый E-mail: " + updatedUser.getEmail()
+                            + " уже используется");
                 }
                 log.debug("Установлен новый E-mail: {}", updatedUser.getEmail());
                 oldUser.setEmail(updatedUser.getEmail());
             }
             if (!oldUser.getLogin().equals(updatedUser.getLogin())) {
                 log.debug("Устанавливаем обновленный логин: {}", updatedUser.getLogin());
+                loginIndex.replace(oldUser.getLogin(), updatedUser.getLogin(), id);
                 oldUser.setLogin(updatedUser.getLogin());
             }
             if (!oldUser.getName().equals(updatedUser.getName()) && updatedUser.getName() != null
@@ -90,8 +153,11 @@ public class InMemoryUserStorage implements UserStorage {
                 log.debug("Устанавливаем обновленную дату рождения: {}", updatedUser.getBirthday());
                 oldUser.setBirthday(updatedUser.getBirthday());
             }
-            log.info("Данные пользователя с ID: {} успешно обновлены", oldUser.getId());
             return oldUser;
+        });
+        if (result != null) {
+            log.debug("Данные пользователя с ID: {} успешно обновлены", result.getId());
+            return result;
         }
         log.error("Попытка обновления данных пользователя. Пользователь с ID: {} не найден", updatedUser.getId());
         throw new NotFoundException("Попытка обновления данных пользователя. Пользователь с ID: "
@@ -100,29 +166,138 @@ public class InMemoryUserStorage implements UserStorage {
 
     @Override
     public List<User> getAllUsers() {
-        log.info("Начат процесс предоставления списка всех пользователей");
+        log.debug("Начат процесс предоставления списка всех пользователей");
         return users.values().stream().toList();
     }
 
     @Override
-    public User getUserById(Long userId) {
-        log.info("Начата проверка наличия пользователя с ID: {} для его предоставления по запросу", userId);
-        if (userId != null && users.containsKey(userId)) {
-            log.info("Пользователь с ID: {} найден и успешно предоставлен в ответ на запрос.", userId);
-            return users.get(userId);
+    public List<User> getUsersPage(long afterId, int limit) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начат процесс предоставления страницы из {} пользователей с ID больше {}", limit, afterId);
+        }
+        return users.tailMap(afterId, false).values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Optional<User> findUserById(Long userId) {
+        log.debug("Начат поиск пользователя с ID: {}", userId);
+        return userId == null ? Optional.empty() : Optional.ofNullable(users.get(userId));
+    }
+
+    @Override
+    public List<User> getUsersByIds(Collection<Long> userIds) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начат процесс предоставления {} пользователей по списку ID", userIds.size());
+        }
+        List<User> result = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            User user = userId == null ? null : users.get(userId);
+            if (user != null) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public User getUserByEmail(String email) {
+        log.debug("Начат поиск пользователя по E-mail: {}", email);
+        for (Long userId : emailIndex.find(email)) {
+            User user = users.get(userId);
+            if (user != null) {
+                log.debug("Пользователь с E-mail: {} найден, его ID: {}", email, userId);
+                return user;
+            }
         }
-        log.error("Попытка получения пользователя по ID. Пользователь с ID: {} не найден", userId);
-        throw new NotFoundException("Попытка получения пользователя. Пользователь с ID: " + userId + " не найден");
+        log.error("Попытка получения пользователя по E-mail. Пользователь с E-mail: {} не найден", email);
+        throw new NotFoundException("Попытка получения пользователя. Пользователь с E-mail: " + email + " не найден");
+    }
+
+    @Override
+    public List<User> getUsersByLogin(String login) {
+        log.debug("Начат поиск пользователей по логину: {}", login);
+        return loginIndex.find(login).stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(User::getId))
+                .toList();
+    }
+
+    @Override
+    public User addFriend(Long userId, Long friendId) {
+        User user = getUserById(userId);
+        User friend = getUserById(friendId);
+        log.debug("Начат процесс взаимного добавления в список друзей у пользователей с ID = {} и ID = {}",
+                userId, friendId);
+        user.addFriend(friendId);
+        friend.addFriend(userId);
+        return friend;
+    }
+
+    @Override
+    public User removeFriend(Long userId, Long friendId) {
+        User user = getUserById(userId);
+        User friend = getUserById(friendId);
+        log.debug("Начат процесс взаимного удаления из списка друзей у пользователей с ID = {} и ID = {}",
+                userId, friendId);
+        user.removeFriend(friendId);
+        friend.removeFriend(userId);
+        return friend;
+    }
+
+    @Override
+    public List<User> getMutualFriends(Long firstUserId, Long secondUserId) {
+        User firstUser = getUserById(firstUserId);
+        User secondUser = getUserById(secondUserId);
+        log.debug("Начат процесс получения списка общих друзей пользователей с ID = {} и ID = {}",
+                firstUserId, secondUserId);
+        // Перебираем меньшее множество друзей и ищем его элементы в большем
+        long[] mutualFriendsId = firstUser.getFriendsId().intersect(secondUser.getFriendsId());
+        Arrays.sort(mutualFriendsId);
+        return getUsersByIds(Arrays.stream(mutualFriendsId).boxed().toList());
+    }
+
+    @Override
+    public int getMutualFriendsCount(Long firstUserId, Long secondUserId) {
+        User firstUser = getUserById(firstUserId);
+        User secondUser = getUserById(secondUserId);
+        return firstUser.getFriendsId().intersectionSize(secondUser.getFriendsId());
+    }
+
+    // Восстанавливаем пользователя с уже назначенным ID вместе с его друзьями (из снимка или журнала).
+    // Имеющемуся пользователю заменяем поля и добавляем друзей, последовательность ID поднимаем до его ID.
+    // Уникальность E-mail здесь не проверяется: восстанавливаемое состояние уже прошло проверку при записи.
+    public User restoreUser(User restoredUser) {
+        idGenerator.seed(restoredUser.getId());
+        return users.compute(restoredUser.getId(), (id, oldUser) -> {
+            if (oldUser == null) {
+                emailIndex.put(restoredUser.getEmail(), id);
+                loginIndex.put(restoredUser.getLogin(), id);
+                return restoredUser;
+            }
+            emailIndex.remove(oldUser.getEmail(), id);
+            emailIndex.put(restoredUser.getEmail(), id);
+            loginIndex.remove(oldUser.getLogin(), id);
+            loginIndex.put(restoredUser.getLogin(), id);
+            oldUser.setEmail(restoredUser.getEmail());
+            oldUser.setLogin(restoredUser.getLogin());
+            oldUser.setName(restoredUser.getName());
+            oldUser.setBirthday(restoredUser.getBirthday());
+            restoredUser.getFriendsId().forEachLong(oldUser.getFriendsId()::add);
+            return oldUser;
+        });
+    }
+
+    // Получаем последний выданный ID пользователя.
+    public long getLastId() {
+        return idGenerator.currentId();
     }
 
-    //Генерируем ID нового пользователя
-    private long getNextId() {
-        long currentMaxId = users.keySet()
-                .stream()
-                .mapToLong(id -> id)
-                .max()
-                .orElse(0);
-        return ++currentMaxId;
+    // Поднимаем последовательность ID до восстановленного значения, даже если объект с этим ID уже удален.
+    public void seedLastId(long lastId) {
+        idGenerator.seed(lastId);
     }
 
-}
\ No newline at end of file
+}
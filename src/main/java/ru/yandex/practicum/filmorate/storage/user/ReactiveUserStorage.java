@@ -0,0 +1,55 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.Collection;
+
+// Неблокирующий вариант UserStorage для реактивного API. Ошибки (NotFoundException, ValidationException)
+// передаются сигналом onError, а списки отдаются потоком Flux, который читается по мере запроса подписчика.
+public interface ReactiveUserStorage {
+
+    // Добавляем нового пользователя.
+    Mono<User> addUser(User user);
+
+    // Удаляем имеющегося пользователя.
+    Mono<User> removeUser(Long userId);
+
+    // Обновляем имеющегося пользователя.
+    Mono<User> updateUser(User updatedUser);
+
+    // Получаем всех имеющихся пользователей в порядке возрастания ID. Хранилище читается постранично по мере запроса.
+    Flux<User> getAllUsers();
+
+    // Получаем страницу из не более чем limit пользователей с ID больше afterId в порядке возрастания ID.
+    Flux<User> getUsersPage(long afterId, int limit);
+
+    // Получаем пользователя по ID.
+    Mono<User> getUserById(Long userId);
+
+    // Ищем пользователя по ID. Если его нет, Mono завершается пустым, без ошибки.
+    Mono<User> findUserById(Long userId);
+
+    // Получаем пользователей по списку ID в порядке этого списка. Отсутствующие ID пропускаются.
+    Flux<User> getUsersByIds(Collection<Long> userIds);
+
+    // Получаем пользователя по E-mail.
+    Mono<User> getUserByEmail(String email);
+
+    // Получаем список пользователей с указанным логином.
+    Flux<User> getUsersByLogin(String login);
+
+    // Взаимно добавляем пользователей в друзья. Возвращаем добавленного друга.
+    Mono<User> addFriend(Long userId, Long friendId);
+
+    // Взаимно удаляем пользователей из друзей. Возвращаем удаленного друга.
+    Mono<User> removeFriend(Long userId, Long friendId);
+
+    // Получаем общих друзей двух пользователей в порядке возрастания ID.
+    Flux<User> getMutualFriends(Long firstUserId, Long secondUserId);
+
+    // Считаем общих друзей двух пользователей.
+    Mono<Integer> getMutualFriendsCount(Long firstUserId, Long secondUserId);
+
+}
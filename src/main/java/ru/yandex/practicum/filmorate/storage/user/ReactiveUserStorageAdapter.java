@@ -0,0 +1,115 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+// Реактивное хранилище пользователей поверх обычного, устроенное как ReactiveFilmStorageAdapter:
+// вызов хранилища выполняется при подписке на планировщике scheduler.
+public class ReactiveUserStorageAdapter implements ReactiveUserStorage {
+    // Размер страницы при потоковом чтении всего хранилища: следующая страница читается, когда подписчик запросит ее
+    private static final int STREAM_PAGE_SIZE = 500;
+
+    private final UserStorage delegate;
+    private final Scheduler scheduler;
+
+    public ReactiveUserStorageAdapter(UserStorage delegate, Scheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Mono<User> addUser(User user) {
+        return call(() -> delegate.addUser(user));
+    }
+
+    @Override
+    public Mono<User> removeUser(Long userId) {
+        return call(() -> delegate.removeUser(userId));
+    }
+
+    @Override
+    public Mono<User> updateUser(User updatedUser) {
+        return call(() -> delegate.updateUser(updatedUser));
+    }
+
+    @Override
+    public Flux<User> getAllUsers() {
+        return call(() -> delegate.getUsersPage(0, STREAM_PAGE_SIZE))
+                .expand(page -> page.size() < STREAM_PAGE_SIZE
+                        ? Mono.empty()
+                        : call(() -> delegate.getUsersPage(page.getLast().getId(), STREAM_PAGE_SIZE)))
+                .flatMapIterable(Function.identity());
+    }
+
+    @Override
+    public Flux<User> getUsersPage(long afterId, int limit) {
+        return callMany(() -> delegate.getUsersPage(afterId, limit));
+    }
+
+    @Override
+    public Mono<User> getUserById(Long userId) {
+        return call(() -> delegate.getUserById(userId));
+    }
+
+    @Override
+    public Mono<User> findUserById(Long userId) {
+        // Mono.fromCallable завершается пустым, если результат null
+        return call(() -> delegate.findUserById(userId).orElse(null));
+    }
+
+    @Override
+    public Flux<User> getUsersByIds(Collection<Long> userIds) {
+        return callMany(() -> delegate.getUsersByIds(userIds));
+    }
+
+    @Override
+    public Mono<User> getUserByEmail(String email) {
+        return call(() -> delegate.getUserByEmail(email));
+    }
+
+    @Override
+    public Flux<User> getUsersByLogin(String login) {
+        return callMany(() -> delegate.getUsersByLogin(login));
+    }
+
+    @Override
+    public Mono<User> addFriend(Long userId, Long friendId) {
+        return call(() -> delegate.addFriend(userId, friendId));
+    }
+
+    @Override
+    public Mono<User> removeFriend(Long userId, Long friendId) {
+        return call(() -> delegate.removeFriend(userId, friendId));
+    }
+
+    @Override
+    public Flux<User> getMutualFriends(Long firstUserId, Long secondUserId) {
+        return callMany(() -> delegate.getMutualFriends(firstUserId, secondUserId));
+    }
+
+    @Override
+    public Mono<Integer> getMutualFriendsCount(Long firstUserId, Long secondUserId) {
+        return call(() -> delegate.getMutualFriendsCount(firstUserId, secondUserId));
+    }
+
+    // Получаем хранилище, поверх которого работает адаптер.
+    public UserStorage getDelegate() {
+        return delegate;
+    }
+
+    private <T> Mono<T> call(Callable<T> operation) {
+        return Mono.fromCallable(operation).subscribeOn(scheduler);
+    }
+
+    private <T> Flux<T> callMany(Callable<List<T>> operation) {
+        return call(operation).flatMapIterable(Function.identity());
+    }
+
+}
@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Вторичный индекс пользователей по нормализованному значению поля (E-mail, логин).
+// Каждое изменение значения выполняется атомарно, поэтому проверка уникальности стоит O(1).
+public class SecondaryIndex {
+    private final Map<String, Set<Long>> index = new ConcurrentHashMap<>();
+    private final boolean unique;
+
+    public SecondaryIndex(boolean unique) {
+        this.unique = unique;
+    }
+
+    // Добавляем ID под значением. Для уникального индекса возвращаем false, если значение занято другим ID.
+    public boolean add(String value, Long id) {
+        if (value == null) {
+            return true;
+        }
+        boolean[] added = {true};
+        index.compute(normalize(value), (key, ids) -> {
+            if (ids == null) {
+                ids = ConcurrentHashMap.newKeySet();
+            } else if (unique && !ids.isEmpty() && !ids.contains(id)) {
+                added[0] = false;
+                return ids;
+            }
+            ids.add(id);
+            return ids;
+        });
+        return added[0];
+    }
+
+    // Добавляем ID под значением без проверки уникальности (при восстановлении сохраненного состояния).
+    public void put(String value, Long id) {
+        if (value == null) {
+            return;
+        }
+        index.computeIfAbsent(normalize(value), key -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    // Удаляем ID из-под значения.
+    public void remove(String value, Long id) {
+        if (value == null) {
+            return;
+        }
+        index.computeIfPresent(normalize(value), (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    // Переносим ID со старого значения на новое. Если новое значение занято, старое остается в индексе.
+    public boolean replace(String oldValue, String newValue, Long id) {
+        if (!add(newValue, id)) {
+            return false;
+        }
+        if (oldValue != null && (newValue == null || !normalize(oldValue).equals(normalize(newValue)))) {
+            remove(oldValue, id);
+        }
+        return true;
+    }
+
+    // Проверяем, занято ли значение.
+    public boolean contains(String value) {
+        return value != null && index.containsKey(normalize(value));
+    }
+
+    // Получаем ID всех пользователей с данным значением.
+    public Set<Long> find(String value) {
+        if (value == null) {
+            return Collections.emptySet();
+        }
+        Set<Long> ids = index.get(normalize(value));
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+    // Приводим значение к единому виду: без пробелов по краям и в нижнем регистре.
+    public static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,389 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+// Хранилище пользователей в реляционной БД.
+// Уникальность E-mail обеспечивает уникальный индекс по нормализованному E-mail,
+// общие друзья ищутся соединением таблицы дружбы с собой по первичному ключу.
+@Slf4j
+@Transactional
+public class UserDbStorage implements UserStorage {
+    private static final String SELECT_USERS = "SELECT user_id, email, login, name, birthday FROM users ";
+    // Размер пачки ID в одном запросе IN
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (email, email_key, login, login_key, name, birthday) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public UserDbStorage(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public User addUser(User user) {
+        if (user == null) {
+            log.error("Запрос на добавление нового пользователя поступил с пустым телом");
+            throw new ValidationException("Запрос на добавление пользователя поступил с пустым телом");
+        }
+        log.debug("Начат процесс добавления нового пользователя. Проверяем уникальность E-mail");
+        if (user.getName() == null || user.getName().isBlank()) {
+            log.debug("Имя не указано, устанавливаем имя как логин: {}", user.getLogin());
+            user.setName(user.getLogin());
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS);
+                bindUser(statement, user);
+                return statement;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            log.error("E-mail: {} уже используется", user.getEmail());
+            throw new ValidationException("Указанный E-mail: " + user.getEmail() + " уже используется");
+        }
+        user.setId(Objects.requireNonNull(keyHolder.getKey()).longValue());
+        log.debug("Успешно добавлен новый пользователь с ID: {}", user.getId());
+        return user;
+    }
+
+    // Занятые E-mail отсеиваются запросом по уникальному индексу, остальные пользователи вставляются
+    // одним пакетным запросом JDBC. Если E-mail успел занять параллельный запрос, откатывается весь пакет.
+    @Override
+    public List<User> addUsers(List<User> newUsers) {
+        if (newUsers.stream().anyMatch(Objects::isNull)) {
+            log.error("Пакет новых пользователей содержит пустой объект");
+            throw new ValidationException("Пакет пользователей содержит пустой объект");
+        }
+        Set<String> takenEmails = new HashSet<>();
+        List<String> emailKeys = newUsers.stream().map(user -> key(user.getEmail())).filter(Objects::nonNull).toList();
+        for (int from = 0; from < emailKeys.size(); from += IN_CHUNK_SIZE) {
+            List<String> chunk = emailKeys.subList(from, Math.min(from + IN_CHUNK_SIZE, emailKeys.size()));
+            takenEmails.addAll(namedJdbcTemplate.queryForList("SELECT email_key FROM users WHERE email_key IN (:keys)",
+                    Map.of("keys", chunk), String.class));
+        }
+        List<User> addedUsers = new ArrayList<>(newUsers.size());
+        for (User user : newUsers) {
+            String emailKey = key(user.getEmail());
+            if (emailKey != null && !takenEmails.add(emailKey)) {
+                log.error("E-mail: {} уже используется", user.getEmail());
+                continue;
+            }
+            if (user.getName() == null || user.getName().isBlank()) {
+                user.setName(user.getLogin());
+            }
+            addedUsers.add(user);
+        }
+        if (addedUsers.isEmpty()) {
+            return addedUsers;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_USER, new String[]{"user_id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int i) throws SQLException {
+                            bindUser(statement, addedUsers.get(i));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return addedUsers.size();
+                        }
+                    }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            log.error("E-mail пакета пользователей занят параллельным запросом");
+            throw new ValidationException("Один из E-mail пакета пользователей уже используется");
+        }
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < addedUsers.size(); i++) {
+            addedUsers.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Успешно добавлено новых пользователей: {} из {}", addedUsers.size(), newUsers.size());
+        }
+        return addedUsers;
+    }
+
+    @Override
+    public User removeUser(Long userId) {
+        log.debug("Начата проверка наличия пользователя с ID: {} для его последующего удаления", userId);
+        User removedUser = userId == null ? null : findUser(userId);
+        if (removedUser != null && jdbcTemplate.update("DELETE FROM users WHERE user_id = ?", userId) > 0) {
+            log.debug("Пользователь с ID: {} успешно удален.", userId);
+            return removedUser;
+        }
+        log.error("Попытка удаления пользователя. Пользователь с ID: {} не найден", userId);
+        throw new NotFoundException("Попытка удаления пользователя. Пользователь с ID: " + userId + " не найден");
+    }
+
+    @Override
+    public User updateUser(User updatedUser) {
+        if (updatedUser == null) {
+            log.error("Запрос на обновление данных пользователя поступил с пустым телом");
+            throw new ValidationException("Запрос на обновление данных пользователя поступил с пустым телом");
+        }
+        log.debug("Начат процесс обновления данных пользователя. Проверяем ID пользователя");
+        if (updatedUser.getId() == null) {
+            log.error("Пользователь имеет ID со значением null");
+            throw new ValidationException("ID пользователя должен быть указан");
+        }
+        log.debug("Начата проверка наличия пользователя с ID: {}", updatedUser.getId());
+        // Строка блокируется до конца транзакции, чтобы параллельные обновления не затерли друг друга
+        List<User> lockedUsers = jdbcTemplate.query(SELECT_USERS + "WHERE user_id = ? FOR UPDATE",
+                this::mapUser, updatedUser.getId());
+        if (lockedUsers.isEmpty()) {
+            log.error("Попытка обновления данных пользователя. Пользователь с ID: {} не найден",
+                    updatedUser.getId());
+            throw new NotFoundException("Попытка обновления данных пользователя. Пользователь с ID: "
+                    + updatedUser.getId() + " не найден");
+        }
+        User oldUser = lockedUsers.getFirst();
+        if (!oldUser.getEmail().equals(updatedUser.getEmail()) && updatedUser.getEmail() != null
+                && !updatedUser.getEmail().isBlank()) {
+            log.debug("Установлен новый E-mail: {}", updatedUser.getEmail());
+            oldUser.setEmail(updatedUser.getEmail());
+        }
+        if (!oldUser.getLogin().equals(updatedUser.getLogin())) {
+            log.debug("Устанавливаем обновленный логин: {}", updatedUser.getLogin());
+            oldUser.setLogin(updatedUser.getLogin());
+        }
+        if (!oldUser.getName().equals(updatedUser.getName()) && updatedUser.getName() != null
+                && !updatedUser.getName().isBlank()) {
+            log.debug("Устанавливаем обновленное имя пользователя: {}", updatedUser.getName());
+            oldUser.setName(updatedUser.getName());
+        }
+        if (!oldUser.getBirthday().isEqual(updatedUser.getBirthday())) {
+            log.debug("Устанавливаем обновленную дату рождения: {}", updatedUser.getBirthday());
+            oldUser.setBirthday(updatedUser.getBirthday());
+        }
+        try {
+            jdbcTemplate.update("UPDATE users SET email = ?, email_key = ?, login = ?, login_key = ?, name = ?, "
+                            + "birthday = ? WHERE user_id = ?", oldUser.getEmail(), key(oldUser.getEmail()),
+                    oldUser.getLogin(), key(oldUser.getLogin()), oldUser.getName(),
+                    Date.valueOf(oldUser.getBirthday()), oldUser.getId());
+        } catch (DuplicateKeyException e) {
+            log.error("Обновляемый E-mail: {} уже используется", updatedUser.getEmail());
+            throw new ValidationException("Обновляемый E-mail: " + updatedUser.getEmail() + " уже используется");
+        }
+        attachFriends(lockedUsers);
+        log.debug("Данные пользователя с ID: {} успешно обновлены", oldUser.getId());
+        return oldUser;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> getAllUsers() {
+        log.debug("Начат процесс предоставления списка всех пользователей");
+        List<User> users = jdbcTemplate.query(SELECT_USERS + "ORDER BY user_id", this::mapUser);
+        Map<Long, User> usersById = new HashMap<>(users.size() * 2);
+        users.forEach(user -> usersById.put(user.getId(), user));
+        jdbcTemplate.query("SELECT user_id, friend_id FROM friendships", (ResultSet rs) -> {
+            User user = usersById.get(rs.getLong("user_id"));
+            if (user != null) {
+                user.addFriend(rs.getLong("friend_id"));
+            }
+        });
+        return users;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> getUsersPage(long afterId, int limit) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начат процесс предоставления страницы из {} пользователей с ID больше {}", limit, afterId);
+        }
+        List<User> users = jdbcTemplate.query(SELECT_USERS + "WHERE user_id > ? ORDER BY user_id LIMIT ?",
+                this::mapUser, afterId, limit);
+        attachFriends(users);
+        return users;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findUserById(Long userId) {
+        log.debug("Начат поиск пользователя с ID: {}", userId);
+        return userId == null ? Optional.empty() : Optional.ofNullable(findUser(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> getUsersByIds(Collection<Long> userIds) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начат процесс предоставления {} пользователей по списку ID", userIds.size());
+        }
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).toList();
+        Map<Long, User> usersById = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+            namedJdbcTemplate.query(SELECT_USERS + "WHERE user_id IN (:ids)", Map.of("ids", chunk),
+                    (ResultSet rs) -> {
+                        User user = mapUser(rs, 0);
+                        usersById.put(user.getId(), user);
+                    });
+        }
+        attachFriends(usersById.values());
+        // Сохраняем порядок запроса, отсутствующие ID пропускаем
+        List<User> result = new ArrayList<>(ids.size());
+        for (Long userId : ids) {
+            User user = usersById.get(userId);
+            if (user != null) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public User getUserByEmail(String email) {
+        log.debug("Начат поиск пользователя по E-mail: {}", email);
+        List<User> users = email == null ? List.of()
+                : jdbcTemplate.query(SELECT_USERS + "WHERE email_key = ?", this::mapUser, key(email));
+        if (!users.isEmpty()) {
+            attachFriends(users);
+            log.debug("Пользователь с E-mail: {} найден, его ID: {}", email, users.getFirst().getId());
+            return users.getFirst();
+        }
+        log.error("Попытка получения пользователя по E-mail. Пользователь с E-mail: {} не найден", email);
+        throw new NotFoundException("Попытка получения пользователя. Пользователь с E-mail: " + email + " не найден");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> getUsersByLogin(String login) {
+        log.debug("Начат поиск пользователей по логину: {}", login);
+        if (login == null) {
+            return List.of();
+        }
+        List<User> users = jdbcTemplate.query(SELECT_USERS + "WHERE login_key = ? ORDER BY user_id",
+                this::mapUser, key(login));
+        attachFriends(users);
+        return users;
+    }
+
+    @Override
+    public User addFriend(Long userId, Long friendId) {
+        getUserById(userId);
+        getUserById(friendId);
+        log.debug("Начат процесс взаимного добавления в список друзей у пользователей с ID = {} и ID = {}",
+                userId, friendId);
+        // Обе строки дружбы вставляются одним пакетом
+        jdbcTemplate.batchUpdate("MERGE INTO friendships (user_id, friend_id) KEY (user_id, friend_id) VALUES (?, ?)",
+                List.of(new Object[]{userId, friendId}, new Object[]{friendId, userId}));
+        return findUser(friendId);
+    }
+
+    @Override
+    public User removeFriend(Long userId, Long friendId) {
+        getUserById(userId);
+        getUserById(friendId);
+        log.debug("Начат процесс взаимного удаления из списка друзей у пользователей с ID = {} и ID = {}",
+                userId, friendId);
+        jdbcTemplate.batchUpdate("DELETE FROM friendships WHERE user_id = ? AND friend_id = ?",
+                List.of(new Object[]{userId, friendId}, new Object[]{friendId, userId}));
+        return findUser(friendId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> getMutualFriends(Long firstUserId, Long secondUserId) {
+        getUserById(firstUserId);
+        getUserById(secondUserId);
+        log.debug("Начат процесс получения списка общих друзей пользователей с ID = {} и ID = {}",
+                firstUserId, secondUserId);
+        List<User> users = jdbcTemplate.query("SELECT u.user_id, u.email, u.login, u.name, u.birthday "
+                + "FROM friendships first_friends "
+                + "JOIN friendships second_friends ON second_friends.friend_id = first_friends.friend_id "
+                + "JOIN users u ON u.user_id = first_friends.friend_id "
+                + "WHERE first_friends.user_id = ? AND second_friends.user_id = ? "
+                + "ORDER BY u.user_id", this::mapUser, firstUserId, secondUserId);
+        attachFriends(users);
+        return users;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getMutualFriendsCount(Long firstUserId, Long secondUserId) {
+        getUserById(firstUserId);
+        getUserById(secondUserId);
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM friendships first_friends "
+                + "JOIN friendships second_friends ON second_friends.friend_id = first_friends.friend_id "
+                + "WHERE first_friends.user_id = ? AND second_friends.user_id = ?",
+                Integer.class, firstUserId, secondUserId);
+        return count == null ? 0 : count;
+    }
+
+    private User findUser(long userId) {
+        List<User> users = jdbcTemplate.query(SELECT_USERS + "WHERE user_id = ?", this::mapUser, userId);
+        attachFriends(users);
+        return users.isEmpty() ? null : users.getFirst();
+    }
+
+    // Подгружаем друзей пользователей одним запросом на пачку пользователей
+    private void attachFriends(Collection<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Map<Long, User> usersById = new HashMap<>(users.size() * 2);
+        users.forEach(user -> usersById.put(user.getId(), user));
+        List<Long> ids = List.copyOf(usersById.keySet());
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size()));
+            namedJdbcTemplate.query("SELECT user_id, friend_id FROM friendships WHERE user_id IN (:ids)",
+                    Map.of("ids", chunk),
+                    (ResultSet rs) -> {
+                        usersById.get(rs.getLong("user_id")).addFriend(rs.getLong("friend_id"));
+                    });
+        }
+    }
+
+    private static void bindUser(PreparedStatement statement, User user) throws SQLException {
+        statement.setString(1, user.getEmail());
+        statement.setString(2, key(user.getEmail()));
+        statement.setString(3, user.getLogin());
+        statement.setString(4, key(user.getLogin()));
+        statement.setString(5, user.getName());
+        statement.setObject(6, user.getBirthday() == null ? null : Date.valueOf(user.getBirthday()), Types.DATE);
+    }
+
+    private User mapUser(ResultSet rs, int rowNum) throws SQLException {
+        return new User(rs.getLong("user_id"), rs.getString("email"), rs.getString("login"),
+                rs.getString("name"), rs.getObject("birthday", LocalDate.class));
+    }
+
+    private static String key(String value) {
+        return value == null ? null : SecondaryIndex.normalize(value);
+    }
+
+}
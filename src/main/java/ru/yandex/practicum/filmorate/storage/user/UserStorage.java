@@ -1,14 +1,21 @@
 package ru.yandex.practicum.filmorate.storage.user;
 
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.model.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface UserStorage {
 
     // Добавляем нового пользователя.
     User addUser(User user);
 
+    // Добавляем пакет новых пользователей одной операцией. ID выделяются одним блоком в порядке пакета.
+    // Пользователи с уже занятым E-mail пропускаются. Возвращаем добавленных пользователей.
+    List<User> addUsers(List<User> users);
+
     // Удаляем имеющегося пользователя.
     User removeUser(Long userId);
 
@@ -18,7 +25,36 @@ public interface UserStorage {
     // Получаем список всех имеющихся пользователей.
     List<User> getAllUsers();
 
-    // Получаем пользователя по ID.
-    User getUserById(Long userId);
+    // Получаем страницу из не более чем limit пользователей с ID больше afterId в порядке возрастания ID.
+    List<User> getUsersPage(long afterId, int limit);
+
+    // Ищем пользователя по ID. Отсутствие пользователя — пустой результат, а не исключение.
+    Optional<User> findUserById(Long userId);
+
+    // Получаем пользователя по ID. Если пользователя нет, бросаем NotFoundException.
+    default User getUserById(Long userId) {
+        return findUserById(userId).orElseThrow(() -> NotFoundException.user(userId));
+    }
+
+    // Получаем пользователей по списку ID в порядке этого списка. Отсутствующие ID пропускаются.
+    List<User> getUsersByIds(Collection<Long> userIds);
+
+    // Получаем пользователя по E-mail.
+    User getUserByEmail(String email);
+
+    // Получаем список пользователей с указанным логином.
+    List<User> getUsersByLogin(String login);
+
+    // Взаимно добавляем пользователей в друзья. Возвращаем добавленного друга.
+    User addFriend(Long userId, Long friendId);
+
+    // Взаимно удаляем пользователей из друзей. Возвращаем удаленного друга.
+    User removeFriend(Long userId, Long friendId);
+
+    // Получаем общих друзей двух пользователей в порядке возрастания ID.
+    List<User> getMutualFriends(Long firstUserId, Long secondUserId);
+
+    // Считаем общих друзей двух пользователей.
+    int getMutualFriendsCount(Long firstUserId, Long secondUserId);
 
 }
\ No newline at end of file
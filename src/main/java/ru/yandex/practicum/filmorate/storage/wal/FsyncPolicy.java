@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+// Политика сброса журнала на диск.
+public enum FsyncPolicy {
+    // fsync после каждой пачки записей до подтверждения изменений: они переживают даже отключение питания
+    ALWAYS,
+    // fsync не чаще заданного интервала: при отключении питания теряются изменения за последний интервал
+    INTERVAL,
+    // fsync выполняет ОС: изменения переживают падение процесса, но не отключение питания
+    NEVER
+}
@@ -0,0 +1,92 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.persistence.EntityCodec;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Хранилище фильмов с журналом упреждающей записи: чтение идет из памяти, изменения пишутся в журнал.
+public class WalFilmStorage implements FilmStorage {
+    private final WalStorageEngine engine;
+    private final InMemoryFilmStorage films;
+
+    public WalFilmStorage(WalStorageEngine engine) {
+        this.engine = engine;
+        this.films = engine.films();
+    }
+
+    @Override
+    public Film addFilm(Film film) {
+        return engine.write(WalRecordType.FILM_PUT, () -> films.addFilm(film),
+                (out, addedFilm) -> EntityCodec.writeFilm(out, addedFilm, false));
+    }
+
+    // Весь пакет попадает в журнал одной записью и дожидается одного fsync.
+    @Override
+    public List<Film> addFilms(List<Film> newFilms) {
+        return engine.write(WalRecordType.FILM_PUT_BATCH, () -> films.addFilms(newFilms), (out, addedFilms) -> {
+            out.writeInt(addedFilms.size());
+            for (Film film : addedFilms) {
+                EntityCodec.writeFilm(out, film, false);
+            }
+        });
+    }
+
+    @Override
+    public Film removeFilm(Long filmId) {
+        return engine.write(WalRecordType.FILM_REMOVE, () -> films.removeFilm(filmId),
+                (out, removedFilm) -> out.writeLong(removedFilm.getId()));
+    }
+
+    @Override
+    public Film updateFilm(Film updatedFilm) {
+        return engine.write(WalRecordType.FILM_PUT, () -> films.updateFilm(updatedFilm),
+                (out, film) -> EntityCodec.writeFilm(out, film, false));
+    }
+
+    @Override
+    public List<Film> getAllFilms() {
+        return engine.read(() -> films.getAllFilms());
+    }
+
+    @Override
+    public List<Film> getFilmsPage(long afterId, int limit) {
+        return engine.read(() -> films.getFilmsPage(afterId, limit));
+    }
+
+    @Override
+    public Optional<Film> findFilmById(Long filmId) {
+        return engine.read(() -> films.findFilmById(filmId));
+    }
+
+    @Override
+    public List<Film> getFilmsByIds(Collection<Long> filmIds) {
+        return engine.read(() -> films.getFilmsByIds(filmIds));
+    }
+
+    @Override
+    public Film addLike(Long filmId, Long userId) {
+        return engine.write(WalRecordType.LIKE_ADD, () -> films.addLike(filmId, userId), (out, film) -> {
+            out.writeLong(film.getId());
+            out.writeLong(userId);
+        });
+    }
+
+    @Override
+    public Film removeLike(Long filmId, Long userId) {
+        return engine.write(WalRecordType.LIKE_REMOVE, () -> films.removeLike(filmId, userId), (out, film) -> {
+            out.writeLong(film.getId());
+            out.writeLong(userId);
+        });
+    }
+
+    @Override
+    public List<Film> getMostPopularFilms(long count) {
+        return engine.read(() -> films.getMostPopularFilms(count));
+    }
+
+}
@@ -0,0 +1,24 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Настройки хранилища с журналом упреждающей записи (filmorate.storage.wal.*).
+@Data
+@ConfigurationProperties(prefix = "filmorate.storage.wal")
+public class WalProperties {
+    // Каталог для сегментов журнала и снимков
+    private Path directory = Path.of("data", "wal");
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.ALWAYS;
+    // Интервал fsync для политики INTERVAL
+    private Duration fsyncInterval = Duration.ofMillis(100);
+    // При достижении этого размера журнал переходит на новый сегмент
+    private DataSize maxSegmentSize = DataSize.ofMegabytes(64);
+    // Период записи снимков, после которых старые сегменты журнала удаляются
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+    private boolean snapshotOnShutdown = true;
+}
@@ -0,0 +1,16 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+// Типы записей журнала. Код типа — порядковый номер константы, поэтому новые типы добавляются только в конец.
+enum WalRecordType {
+    FILM_PUT,
+    FILM_REMOVE,
+    LIKE_ADD,
+    LIKE_REMOVE,
+    USER_PUT,
+    USER_REMOVE,
+    FRIEND_ADD,
+    FRIEND_REMOVE,
+    // Пакет добавленных объектов: количество и объекты подряд
+    FILM_PUT_BATCH,
+    USER_PUT_BATCH
+}
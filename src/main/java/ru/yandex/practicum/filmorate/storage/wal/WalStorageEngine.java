@@ -0,0 +1,425 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.SequenceIdGenerator;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.persistence.EntityCodec;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Долговечное хранилище: состояние живет в InMemory-хранилищах, поэтому чтение так же быстро,
+// а каждое изменение перед ответом попадает в журнал упреждающей записи.
+// Периодически пишется снимок состояния, после чего журнал до снимка удаляется.
+// При запуске загружается последний снимок и воспроизводится хвост журнала.
+//
+// Снимок пишется без остановки записи: перед ним журнал переходит на новый сегмент, а все записи
+// начиная с этого сегмента воспроизводятся поверх снимка. Записи содержат итоговое состояние объекта
+// или идемпотентную операцию, поэтому повторное применение уже попавших в снимок изменений безопасно.
+//
+// Запись журнала строится из результата изменения (ID нового объекта, итоговое состояние фильма), поэтому
+// изменение применяется к памяти раньше, чем попадает в журнал, и до fsync уже видно читателям. Если журнал
+// не принял запись, изменение осталось бы в памяти и пропало при перезапуске, поэтому после первой ошибки
+// журнала хранилище останавливается: запись и чтение отклоняются до перезапуска, который восстановит
+// состояние из журнала.
+//
+// Все изменения идут под одной блокировкой, чтобы порядок записей в журнале совпадал с порядком их
+// применения, в том числе для изменений, затрагивающих несколько объектов (дружба двух пользователей).
+// Под блокировкой выполняются только изменение в памяти и копирование записи в буфер, а ожидание записи
+// на диск идет уже без нее. Цена простоты — изменения разных объектов, например лайки разных фильмов,
+// применяются по одному, и пропускная способность записи ограничена одним ядром.
+@Slf4j
+public class WalStorageEngine implements Closeable {
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d{20})\\.bin");
+    private static final int SNAPSHOT_MAGIC = 0x464C4D57;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final SequenceIdGenerator filmIds = new SequenceIdGenerator();
+    private final SequenceIdGenerator userIds = new SequenceIdGenerator();
+    private final InMemoryFilmStorage films = new InMemoryFilmStorage(filmIds);
+    private final InMemoryUserStorage users = new InMemoryUserStorage(userIds);
+    // Изменение в памяти и его добавление в журнал выполняются под одной блокировкой,
+    // поэтому порядок записей в журнале совпадает с порядком применения изменений
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final WalProperties properties;
+    private final Path directory;
+    private final WriteAheadLog wal;
+    private final ScheduledExecutorService snapshotScheduler;
+    private volatile RuntimeException failure;
+
+    public WalStorageEngine(WalProperties properties) throws IOException {
+        this.properties = properties;
+        this.directory = properties.getDirectory();
+        Files.createDirectories(directory);
+        long nextSegment = recover();
+        wal = new WriteAheadLog(directory, nextSegment, properties.getFsyncPolicy(), properties.getFsyncInterval(),
+                properties.getMaxSegmentSize().toBytes());
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getSnapshotInterval().toMillis();
+        snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    InMemoryFilmStorage films() {
+        return films;
+    }
+
+    InMemoryUserStorage users() {
+        return users;
+    }
+
+    // Применяем изменение к состоянию в памяти и добавляем запись о нем в журнал.
+    // Управление возвращается только после записи в журнал согласно политике fsync.
+    // Если изменение отклонено исключением, в журнал ничего не пишется.
+    <T> T write(WalRecordType type, Supplier<T> mutation, RecordWriter<T> recordWriter) {
+        T result;
+        long sequence;
+        writeLock.lock();
+        try {
+            checkAvailable();
+            result = mutation.get();
+            try {
+                sequence = wal.append(encode(type, result, recordWriter));
+            } catch (RuntimeException e) {
+                throw stop(e);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            wal.await(sequence);
+        } catch (RuntimeException e) {
+            throw stop(e);
+        }
+        return result;
+    }
+
+    // Читаем состояние в памяти, если хранилище не остановлено ошибкой журнала.
+    <T> T read(Supplier<T> reader) {
+        checkAvailable();
+        return reader.get();
+    }
+
+    // Пишем снимок состояния и удаляем ставшие ненужными сегменты журнала и старые снимки.
+    public void snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            // Снимок остановленного хранилища сохранил бы изменения, которые не попали в журнал
+            checkAvailable();
+            long segment;
+            long lastFilmId;
+            long lastUserId;
+            writeLock.lock();
+            try {
+                segment = wal.roll();
+                lastFilmId = filmIds.currentId();
+                lastUserId = userIds.currentId();
+            } finally {
+                writeLock.unlock();
+            }
+            Path snapshot = snapshotPath(segment);
+            Path temporary = directory.resolve(snapshot.getFileName() + ".tmp");
+            List<Film> allFilms = films.getAllFilms();
+            List<User> allUsers = users.getAllUsers();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                CheckedOutputStream checked = new CheckedOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), new CRC32());
+                DataOutputStream out = new DataOutputStream(checked);
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(lastFilmId);
+                out.writeLong(lastUserId);
+                out.writeInt(allFilms.size());
+                for (Film film : allFilms) {
+                    EntityCodec.writeFilm(out, film, true);
+                }
+                out.writeInt(allUsers.size());
+                for (User user : allUsers) {
+                    EntityCodec.writeUser(out, user, true);
+                }
+                out.writeLong(checked.getChecksum().getValue());
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE);
+            WriteAheadLog.syncDirectory(directory);
+            log.info("Записан снимок хранилища {}: фильмов {}, пользователей {}",
+                    snapshot, allFilms.size(), allUsers.size());
+            deleteObsoleteFiles(segment);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshotScheduler.shutdownNow();
+        try {
+            snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (properties.isSnapshotOnShutdown() && failure == null) {
+                snapshot();
+            }
+        } finally {
+            wal.close();
+        }
+    }
+
+    // Загружаем последний снимок и воспроизводим журнал после него. Возвращаем номер сегмента для новых записей.
+    // Сегменты после поврежденного не воспроизводятся: между ними и снимком потеряна часть изменений. Они
+    // переносятся в карантин, иначе при следующем запуске воспроизвелись бы поверх новых записей. ID из них
+    // учитываются в последовательностях, чтобы новые объекты не получили ID объектов из карантина.
+    private long recover() throws IOException {
+        long firstSegment = loadLatestSnapshot();
+        List<Long> segments = WriteAheadLog.segmentIndexes(directory).stream()
+                .filter(segment -> segment >= firstSegment)
+                .toList();
+        long replayed = 0;
+        long lastSegment = firstSegment - 1;
+        for (int i = 0; i < segments.size(); i++) {
+            long segment = segments.get(i);
+            long[] count = {0};
+            boolean complete = WriteAheadLog.readSegment(WriteAheadLog.segmentPath(directory, segment), payload -> {
+                apply(payload);
+                count[0]++;
+            });
+            replayed += count[0];
+            lastSegment = segment;
+            if (!complete) {
+                log.error("Воспроизведение журнала остановлено на поврежденном сегменте {}", segment);
+                quarantine(segments.subList(i + 1, segments.size()));
+                break;
+            }
+        }
+        log.info("Хранилище восстановлено: фильмов {}, пользователей {}, воспроизведено записей журнала {}",
+                films.getAllFilms().size(), users.getAllUsers().size(), replayed);
+        return Math.max(firstSegment, lastSegment + 1);
+    }
+
+    private void quarantine(List<Long> segments) throws IOException {
+        for (long segment : segments) {
+            WriteAheadLog.scanSegment(WriteAheadLog.segmentPath(directory, segment), this::seedIds);
+            Path quarantined = WriteAheadLog.quarantineSegment(directory, segment);
+            log.error("Сегмент журнала {} после поврежденного не воспроизведен и перенесен в {}",
+                    segment, quarantined);
+        }
+        if (!segments.isEmpty()) {
+            WriteAheadLog.syncDirectory(directory);
+        }
+    }
+
+    // Загружаем последний снимок и возвращаем номер первого сегмента журнала после него.
+    private long loadLatestSnapshot() throws IOException {
+        List<Long> snapshots;
+        try (Stream<Path> files = Files.list(directory)) {
+            snapshots = files.map(file -> SNAPSHOT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        long segment = snapshots.getLast();
+        Path snapshot = snapshotPath(segment);
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshot), 1 << 16), new CRC32())) {
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Неизвестный формат снимка хранилища " + snapshot);
+            }
+            long lastFilmId = in.readLong();
+            long lastUserId = in.readLong();
+            int filmsCount = in.readInt();
+            for (int i = 0; i < filmsCount; i++) {
+                films.restoreFilm(EntityCodec.readFilm(in));
+            }
+            int usersCount = in.readInt();
+            for (int i = 0; i < usersCount; i++) {
+                users.restoreUser(EntityCodec.readUser(in));
+            }
+            long expectedChecksum = checked.getChecksum().getValue();
+            if (in.readLong() != expectedChecksum) {
+                throw new IOException("Снимок хранилища " + snapshot + " поврежден");
+            }
+            filmIds.seed(lastFilmId);
+            userIds.seed(lastUserId);
+        }
+        log.info("Загружен снимок хранилища {}", snapshot);
+        return segment;
+    }
+
+    private void apply(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        WalRecordType type = WalRecordType.values()[in.readUnsignedByte()];
+        switch (type) {
+            case FILM_PUT -> films.restoreFilm(EntityCodec.readFilm(in));
+            case USER_PUT -> users.restoreUser(EntityCodec.readUser(in));
+            case FILM_PUT_BATCH -> {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    films.restoreFilm(EntityCodec.readFilm(in));
+                }
+            }
+            case USER_PUT_BATCH -> {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    users.restoreUser(EntityCodec.readUser(in));
+                }
+            }
+            case FILM_REMOVE -> {
+                long filmId = in.readLong();
+                ignoreMissing(() -> films.removeFilm(filmId));
+            }
+            case USER_REMOVE -> {
+                long userId = in.readLong();
+                ignoreMissing(() -> users.removeUser(userId));
+            }
+            case LIKE_ADD, LIKE_REMOVE -> {
+                long filmId = in.readLong();
+                long userId = in.readLong();
+                ignoreMissing(() -> type == WalRecordType.LIKE_ADD
+                        ? films.addLike(filmId, userId) : films.removeLike(filmId, userId));
+            }
+            case FRIEND_ADD, FRIEND_REMOVE -> {
+                long userId = in.readLong();
+                long friendId = in.readLong();
+                ignoreMissing(() -> type == WalRecordType.FRIEND_ADD
+                        ? users.addFriend(userId, friendId) : users.removeFriend(userId, friendId));
+            }
+        }
+    }
+
+    // Учитываем в последовательностях ID объектов, добавленных записью, не применяя ее.
+    private void seedIds(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        WalRecordType type = WalRecordType.values()[in.readUnsignedByte()];
+        switch (type) {
+            case FILM_PUT -> filmIds.seed(EntityCodec.readFilm(in).getId());
+            case USER_PUT -> userIds.seed(EntityCodec.readUser(in).getId());
+            case FILM_PUT_BATCH -> {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    filmIds.seed(EntityCodec.readFilm(in).getId());
+                }
+            }
+            case USER_PUT_BATCH -> {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    userIds.seed(EntityCodec.readUser(in).getId());
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Запись может относиться к объекту, который удален позже и поэтому уже отсутствует в снимке
+    private void ignoreMissing(Supplier<?> operation) {
+        try {
+            operation.get();
+        } catch (NotFoundException e) {
+            log.debug("Запись журнала пропущена: {}", e.getMessage());
+        }
+    }
+
+    private <T> byte[] encode(WalRecordType type, T result, RecordWriter<T> recordWriter) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(type.ordinal());
+            recordWriter.write(out, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void checkAvailable() {
+        if (failure != null) {
+            throw new IllegalStateException("Хранилище остановлено после ошибки журнала изменений", failure);
+        }
+    }
+
+    private RuntimeException stop(RuntimeException error) {
+        if (failure == null) {
+            log.error("Журнал изменений не принял запись, хранилище остановлено до перезапуска", error);
+            failure = error;
+        }
+        return error;
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Не удалось записать снимок хранилища", e);
+        }
+    }
+
+    private void deleteObsoleteFiles(long firstNeededSegment) throws IOException {
+        for (long segment : WriteAheadLog.segmentIndexes(directory)) {
+            if (segment < firstNeededSegment) {
+                Files.deleteIfExists(WriteAheadLog.segmentPath(directory, segment));
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = SNAPSHOT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches() && Long.parseLong(matcher.group(1)) < firstNeededSegment) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private Path snapshotPath(long segment) {
+        return directory.resolve(String.format("snapshot-%020d.bin", segment));
+    }
+
+    // Запись тела записи журнала по результату изменения.
+    @FunctionalInterface
+    interface RecordWriter<T> {
+        void write(DataOutputStream out, T result) throws IOException;
+    }
+
+}
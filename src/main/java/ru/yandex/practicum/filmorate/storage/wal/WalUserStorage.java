@@ -0,0 +1,108 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.persistence.EntityCodec;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Хранилище пользователей с журналом упреждающей записи: чтение идет из памяти, изменения пишутся в журнал.
+public class WalUserStorage implements UserStorage {
+    private final WalStorageEngine engine;
+    private final InMemoryUserStorage users;
+
+    public WalUserStorage(WalStorageEngine engine) {
+        this.engine = engine;
+        this.users = engine.users();
+    }
+
+    @Override
+    public User addUser(User user) {
+        return engine.write(WalRecordType.USER_PUT, () -> users.addUser(user),
+                (out, addedUser) -> EntityCodec.writeUser(out, addedUser, false));
+    }
+
+    // Весь пакет попадает в журнал одной записью и дожидается одного fsync.
+    @Override
+    public List<User> addUsers(List<User> newUsers) {
+        return engine.write(WalRecordType.USER_PUT_BATCH, () -> users.addUsers(newUsers), (out, addedUsers) -> {
+            out.writeInt(addedUsers.size());
+            for (User user : addedUsers) {
+                EntityCodec.writeUser(out, user, false);
+            }
+        });
+    }
+
+    @Override
+    public User removeUser(Long userId) {
+        return engine.write(WalRecordType.USER_REMOVE, () -> users.removeUser(userId),
+                (out, removedUser) -> out.writeLong(removedUser.getId()));
+    }
+
+    @Override
+    public User updateUser(User updatedUser) {
+        return engine.write(WalRecordType.USER_PUT, () -> users.updateUser(updatedUser),
+                (out, user) -> EntityCodec.writeUser(out, user, false));
+    }
+
+    @Override
+    public List<User> getAllUsers() {
+        return engine.read(() -> users.getAllUsers());
+    }
+
+    @Override
+    public List<User> getUsersPage(long afterId, int limit) {
+        return engine.read(() -> users.getUsersPage(afterId, limit));
+    }
+
+    @Override
+    public Optional<User> findUserById(Long userId) {
+        return engine.read(() -> users.findUserById(userId));
+    }
+
+    @Override
+    public List<User> getUsersByIds(Collection<Long> userIds) {
+        return engine.read(() -> users.getUsersByIds(userIds));
+    }
+
+    @Override
+    public User getUserByEmail(String email) {
+        return engine.read(() -> users.getUserByEmail(email));
+    }
+
+    @Override
+    public List<User> getUsersByLogin(String login) {
+        return engine.read(() -> users.getUsersByLogin(login));
+    }
+
+    @Override
+    public User addFriend(Long userId, Long friendId) {
+        return engine.write(WalRecordType.FRIEND_ADD, () -> users.addFriend(userId, friendId), (out, friend) -> {
+            out.writeLong(userId);
+            out.writeLong(friend.getId());
+        });
+    }
+
+    @Override
+    public User removeFriend(Long userId, Long friendId) {
+        return engine.write(WalRecordType.FRIEND_REMOVE, () -> users.removeFriend(userId, friendId),
+                (out, friend) -> {
+                    out.writeLong(userId);
+                    out.writeLong(friend.getId());
+                });
+    }
+
+    @Override
+    public List<User> getMutualFriends(Long firstUserId, Long secondUserId) {
+        return engine.read(() -> users.getMutualFriends(firstUserId, secondUserId));
+    }
+
+    @Override
+    public int getMutualFriendsCount(Long firstUserId, Long secondUserId) {
+        return engine.read(() -> users.getMutualFriendsCount(firstUserId, secondUserId));
+    }
+
+}
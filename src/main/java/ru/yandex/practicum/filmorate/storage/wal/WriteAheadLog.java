@@ -0,0 +1,366 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Сегментированный журнал упреждающей записи.
+// Записи складываются в общий буфер, а отдельный поток записывает накопленную пачку одним вызовом write
+// и одним fsync (групповая фиксация): под нагрузкой один fsync подтверждает сразу много изменений.
+// Каждая запись обрамляется длиной и CRC32, поэтому оборванный при сбое хвост распознается при восстановлении.
+@Slf4j
+public class WriteAheadLog implements Closeable {
+    private static final Pattern SEGMENT_NAME = Pattern.compile("wal-(\\d{20})\\.log");
+    private static final int FRAME_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final long maxSegmentBytes;
+    private final Thread writer;
+
+    // Буфер и счетчики записей защищены lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingAvailable = lock.newCondition();
+    private final Condition batchWritten = lock.newCondition();
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final CRC32 crc = new CRC32();
+    private long appendedSequence;
+    private long writtenSequence;
+    private IOException failure;
+    private boolean closed;
+
+    // Текущий сегмент защищен ioLock
+    private final ReentrantLock ioLock = new ReentrantLock();
+    private FileChannel channel;
+    private long segmentIndex;
+    private long segmentBytes;
+    private boolean unsynced;
+    private long lastSyncNanos = System.nanoTime();
+
+    public WriteAheadLog(Path directory, long firstSegmentIndex, FsyncPolicy fsyncPolicy, Duration fsyncInterval,
+                         long maxSegmentBytes) throws IOException {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.maxSegmentBytes = maxSegmentBytes;
+        Files.createDirectories(directory);
+        openSegment(firstSegmentIndex);
+        writer = new Thread(this::writeLoop, "wal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Добавляем запись в буфер и возвращаем ее порядковый номер для ожидания в await.
+    public long append(byte[] payload) {
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw writeFailed();
+            }
+            if (closed) {
+                throw new IllegalStateException("Журнал изменений закрыт");
+            }
+            crc.reset();
+            crc.update(payload);
+            writeInt(payload.length);
+            writeInt((int) crc.getValue());
+            pending.write(payload, 0, payload.length);
+            appendedSequence++;
+            pendingAvailable.signal();
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Ждем, пока запись с данным номером попадет в файл, а при политике ALWAYS — и на диск.
+    public void await(long sequence) {
+        lock.lock();
+        try {
+            boolean interrupted = false;
+            while (writtenSequence < sequence && failure == null) {
+                try {
+                    batchWritten.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (writtenSequence < sequence) {
+                throw writeFailed();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Дописываем все добавленные записи и начинаем новый сегмент. Возвращаем номер нового сегмента.
+    // Вызывающий отвечает за то, чтобы параллельно не добавлялись записи, иначе граница сегмента не определена.
+    public long roll() throws IOException {
+        long sequence;
+        lock.lock();
+        try {
+            sequence = appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+        await(sequence);
+        ioLock.lock();
+        try {
+            closeSegment();
+            openSegment(segmentIndex + 1);
+            return segmentIndex;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pendingAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ioLock.lock();
+        try {
+            closeSegment();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    // Получаем номера сегментов журнала в каталоге по возрастанию.
+    public static List<Long> segmentIndexes(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    public static Path segmentPath(Path directory, long index) {
+        return directory.resolve(String.format("wal-%020d.log", index));
+    }
+
+    // Читаем записи сегмента по порядку. Оборванный или поврежденный хвост отрезаем и возвращаем false.
+    public static boolean readSegment(Path segment, RecordConsumer consumer) throws IOException {
+        long size = Files.size(segment);
+        long validBytes = readRecords(segment, size, consumer);
+        if (validBytes == size) {
+            return true;
+        }
+        log.warn("Сегмент журнала {} оборван или поврежден после {} байт из {}, хвост отрезан",
+                segment, validBytes, size);
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            file.truncate(validBytes);
+            file.force(true);
+        }
+        return false;
+    }
+
+    // Читаем целые записи сегмента, не изменяя файл. Используется для сегментов, перенесенных в карантин.
+    public static void scanSegment(Path segment, RecordConsumer consumer) throws IOException {
+        readRecords(segment, Files.size(segment), consumer);
+    }
+
+    // Переносим сегмент в карантин: он переименовывается и больше не считается частью журнала,
+    // но остается в каталоге для разбора.
+    public static Path quarantineSegment(Path directory, long index) throws IOException {
+        Path segment = segmentPath(directory, index);
+        Path quarantined = directory.resolve(segment.getFileName() + ".corrupt-" + System.currentTimeMillis());
+        Files.move(segment, quarantined, StandardCopyOption.ATOMIC_MOVE);
+        return quarantined;
+    }
+
+    // Возвращаем число байт в целых записях от начала сегмента.
+    private static long readRecords(Path segment, long size, RecordConsumer consumer) throws IOException {
+        long validBytes = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment),
+                1 << 16))) {
+            CRC32 checksum = new CRC32();
+            while (validBytes < size) {
+                try {
+                    int length = in.readInt();
+                    int expectedChecksum = in.readInt();
+                    if (length < 0 || length > MAX_RECORD_BYTES) {
+                        break;
+                    }
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    checksum.reset();
+                    checksum.update(payload);
+                    if ((int) checksum.getValue() != expectedChecksum) {
+                        break;
+                    }
+                    consumer.accept(payload);
+                    validBytes += FRAME_HEADER_BYTES + length;
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+        return validBytes;
+    }
+
+    // Сбрасываем на диск запись о создании, переименовании или удалении файлов каталога.
+    // Не все ОС позволяют открыть каталог, поэтому ошибка здесь не считается фатальной.
+    public static void syncDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            log.debug("Не удалось сбросить на диск каталог {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                byte[] batch;
+                long batchSequence;
+                lock.lock();
+                try {
+                    if (pending.size() == 0 && !closed) {
+                        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+                            pendingAvailable.awaitNanos(fsyncIntervalNanos);
+                        } else {
+                            pendingAvailable.await();
+                        }
+                    }
+                    batch = pending.toByteArray();
+                    pending.reset();
+                    batchSequence = appendedSequence;
+                    if (closed && batch.length == 0) {
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                IOException error = null;
+                try {
+                    writeBatch(batch);
+                } catch (IOException e) {
+                    error = e;
+                }
+                lock.lock();
+                try {
+                    if (error != null) {
+                        log.error("Не удалось записать изменения в журнал, дальнейшая запись невозможна", error);
+                        failure = error;
+                    } else {
+                        writtenSequence = batchSequence;
+                    }
+                    batchWritten.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                if (error != null) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBatch(byte[] batch) throws IOException {
+        ioLock.lock();
+        try {
+            if (batch.length > 0) {
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                segmentBytes += batch.length;
+                unsynced = true;
+            }
+            if (unsynced && (fsyncPolicy == FsyncPolicy.ALWAYS || fsyncPolicy == FsyncPolicy.INTERVAL
+                    && System.nanoTime() - lastSyncNanos >= fsyncIntervalNanos)) {
+                channel.force(false);
+                unsynced = false;
+                lastSyncNanos = System.nanoTime();
+            }
+            if (segmentBytes >= maxSegmentBytes) {
+                closeSegment();
+                openSegment(segmentIndex + 1);
+            }
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    private void openSegment(long index) throws IOException {
+        Path segment = segmentPath(directory, index);
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        segmentIndex = index;
+        segmentBytes = channel.size();
+        syncDirectory(directory);
+        log.debug("Открыт сегмент журнала {}", segment);
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+            unsynced = false;
+        }
+    }
+
+    private void writeInt(int value) {
+        pending.write(value >>> 24);
+        pending.write(value >>> 16);
+        pending.write(value >>> 8);
+        pending.write(value);
+    }
+
+    private UncheckedIOException writeFailed() {
+        return new UncheckedIOException("Журнал изменений недоступен для записи", failure);
+    }
+
+    // Обработчик записи, прочитанной из сегмента журнала.
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(byte[] payload) throws IOException;
+    }
+
+}
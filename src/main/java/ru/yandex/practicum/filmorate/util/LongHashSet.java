@@ -0,0 +1,300 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+// Потокобезопасное множество примитивных long на открытой адресации с линейным пробированием.
+// В отличие от HashSet<Long> не создает объект Long и узел хеш-таблицы на каждый элемент:
+// элемент занимает 8 байт в массиве, а с учетом незаполненных ячеек — в среднем 11-23 байта.
+// Итерация идет по упорядоченному снимку, поэтому порядок элементов при выводе детерминирован.
+public class LongHashSet extends AbstractSet<Long> {
+    private static final int MIN_CAPACITY = 8;
+    private static final float LOAD_FACTOR = 0.7f;
+    // Ноль служит признаком пустой ячейки, поэтому его наличие храним отдельным флагом
+    private static final long FREE = 0L;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] table = new long[MIN_CAPACITY];
+    private int shift = 64 - Integer.numberOfTrailingZeros(MIN_CAPACITY);
+    private int maxFill = (int) (MIN_CAPACITY * LOAD_FACTOR);
+    private int assigned;
+    private boolean containsFree;
+
+    // Добавляем элемент. Возвращаем true, если его не было в множестве.
+    public boolean add(long value) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            return addUnlocked(value);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Удаляем элемент. Возвращаем true, если он был в множестве.
+    public boolean remove(long value) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            return removeUnlocked(value);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Проверяем наличие элемента.
+    public boolean contains(long value) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return containsUnlocked(value);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    // Получаем все элементы в виде массива в порядке их расположения в таблице.
+    public long[] toLongArray() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            long[] result = new long[sizeUnlocked()];
+            int position = 0;
+            if (containsFree) {
+                result[position++] = FREE;
+            }
+            for (long value : table) {
+                if (value != FREE) {
+                    result[position++] = value;
+                }
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    // Получаем элементы, общие с другим множеством.
+    public long[] intersect(LongHashSet other) {
+        LongHashSet smaller = size() <= other.size() ? this : other;
+        LongHashSet larger = smaller == this ? other : this;
+        long[] common = smaller.toLongArray();
+        return Arrays.copyOf(common, larger.retainContained(common));
+    }
+
+    // Считаем количество элементов, общих с другим множеством, не собирая их.
+    public int intersectionSize(LongHashSet other) {
+        LongHashSet smaller = size() <= other.size() ? this : other;
+        LongHashSet larger = smaller == this ? other : this;
+        return larger.retainContained(smaller.toLongArray());
+    }
+
+    // Перебираем элементы без упаковки в Long.
+    public void forEachLong(LongConsumer action) {
+        for (long value : toLongArray()) {
+            action.accept(value);
+        }
+    }
+
+    @Override
+    public boolean add(Long value) {
+        return add(value.longValue());
+    }
+
+    @Override
+    public boolean remove(Object value) {
+        return value instanceof Long longValue && remove(longValue.longValue());
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return value instanceof Long longValue && contains(longValue.longValue());
+    }
+
+    @Override
+    public int size() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return sizeUnlocked();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            table = new long[MIN_CAPACITY];
+            shift = 64 - Integer.numberOfTrailingZeros(MIN_CAPACITY);
+            maxFill = (int) (MIN_CAPACITY * LOAD_FACTOR);
+            assigned = 0;
+            containsFree = false;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        long[] snapshot = toLongArray();
+        Arrays.sort(snapshot);
+        return new Iterator<>() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return position < snapshot.length;
+            }
+
+            @Override
+            public Long next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return snapshot[position++];
+            }
+
+            @Override
+            public void remove() {
+                if (position == 0) {
+                    throw new IllegalStateException();
+                }
+                LongHashSet.this.remove(snapshot[position - 1]);
+            }
+        };
+    }
+
+    // Сдвигаем в начало массива элементы, которые есть в этом множестве, и возвращаем их количество.
+    // Блокировка берется один раз на весь проход, а не на каждый элемент, и новых объектов не создается.
+    private int retainContained(long[] values) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            int count = 0;
+            for (long value : values) {
+                if (containsUnlocked(value)) {
+                    values[count++] = value;
+                }
+            }
+            return count;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    // Блокировка записи множества. ShardedLongSet берет ее сам, чтобы попытка без ожидания показала конкуренцию,
+    // и меняет множество через addUnlocked и removeUnlocked без второй блокировки.
+    Lock writeLock() {
+        return lock.writeLock();
+    }
+
+    // Вызывается под блокировкой записи
+    boolean addUnlocked(long value) {
+        if (value == FREE) {
+            boolean added = !containsFree;
+            containsFree = true;
+            return added;
+        }
+        int index = slot(value);
+        while (table[index] != FREE) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & (table.length - 1);
+        }
+        table[index] = value;
+        if (++assigned > maxFill) {
+            rehash(table.length << 1);
+        }
+        return true;
+    }
+
+    // Вызывается под блокировкой записи
+    boolean removeUnlocked(long value) {
+        if (value == FREE) {
+            boolean removed = containsFree;
+            containsFree = false;
+            return removed;
+        }
+        int mask = table.length - 1;
+        int index = slot(value);
+        while (table[index] != FREE) {
+            if (table[index] == value) {
+                shiftBack(index, mask);
+                assigned--;
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    private boolean containsUnlocked(long value) {
+        if (value == FREE) {
+            return containsFree;
+        }
+        int mask = table.length - 1;
+        int index = slot(value);
+        while (table[index] != FREE) {
+            if (table[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    private int sizeUnlocked() {
+        return assigned + (containsFree ? 1 : 0);
+    }
+
+    // Фибоначчиево хеширование: старшие биты произведения равномерно распределяют последовательные ID
+    private int slot(long value) {
+        return (int) ((value * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    // Удаление без «надгробий»: сдвигаем назад элементы цепочки, которые могли пробироваться через ячейку
+    private void shiftBack(int freed, int mask) {
+        int index = freed;
+        while (true) {
+            index = (index + 1) & mask;
+            long value = table[index];
+            if (value == FREE) {
+                break;
+            }
+            int home = slot(value);
+            if (((index - home) & mask) >= ((index - freed) & mask)) {
+                table[freed] = value;
+                freed = index;
+            }
+        }
+        table[freed] = FREE;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldTable = table;
+        table = new long[newCapacity];
+        shift = 64 - Integer.numberOfTrailingZeros(newCapacity);
+        maxFill = (int) (newCapacity * LOAD_FACTOR);
+        int mask = newCapacity - 1;
+        for (long value : oldTable) {
+            if (value != FREE) {
+                int index = slot(value);
+                while (table[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+
+}
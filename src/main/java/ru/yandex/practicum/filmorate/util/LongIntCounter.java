@@ -0,0 +1,245 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.function.LongPredicate;
+
+// Счетчик по ключам long на открытой адресации с линейным пробированием: ключи и значения лежат в двух
+// примитивных массивах, поэтому подсчет не создает ни Long, ни Integer, ни узлов хеш-таблицы.
+// Не потокобезопасен: при параллельном подсчете у каждой задачи свой счетчик, а результаты сливаются через merge.
+public class LongIntCounter {
+    private static final int MIN_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+    // Ноль служит признаком пустой ячейки, поэтому его счетчик храним отдельно
+    private static final long FREE = 0L;
+
+    private long[] keys;
+    private int[] counts;
+    private int shift;
+    private int maxFill;
+    private int assigned;
+    private int freeCount;
+
+    public LongIntCounter() {
+        this(MIN_CAPACITY);
+    }
+
+    // expectedKeys — ожидаемое число разных ключей, чтобы не перестраивать таблицу при заполнении.
+    public LongIntCounter(int expectedKeys) {
+        int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit((int) (expectedKeys / LOAD_FACTOR) + 1) << 1);
+        allocate(capacity);
+    }
+
+    // Увеличиваем счетчик ключа на единицу.
+    public void increment(long key) {
+        add(key, 1);
+    }
+
+    // Увеличиваем счетчик ключа на delta. Отрицательный delta уменьшает счетчик, а ключ с обнулившимся
+    // счетчиком удаляется из таблицы, поэтому счетчик, который растет и убывает, не копит пустые ключи.
+    public void add(long key, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (key == FREE) {
+            freeCount += delta;
+            return;
+        }
+        int mask = keys.length - 1;
+        int index = slot(key);
+        while (keys[index] != FREE) {
+            if (keys[index] == key) {
+                counts[index] += delta;
+                if (counts[index] == 0) {
+                    shiftBack(index, mask);
+                    assigned--;
+                }
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        counts[index] = delta;
+        if (++assigned > maxFill) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    // Получаем счетчик ключа. Для отсутствующего ключа — ноль.
+    public int get(long key) {
+        if (key == FREE) {
+            return freeCount;
+        }
+        int mask = keys.length - 1;
+        int index = slot(key);
+        while (keys[index] != FREE) {
+            if (keys[index] == key) {
+                return counts[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return 0;
+    }
+
+    // Получаем число ключей с ненулевым счетчиком.
+    public int size() {
+        return assigned + (freeCount != 0 ? 1 : 0);
+    }
+
+    // Прибавляем к этому счетчику все счетчики другого.
+    public void merge(LongIntCounter other) {
+        if (other.freeCount != 0) {
+            add(FREE, other.freeCount);
+        }
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != FREE) {
+                add(other.keys[i], other.counts[i]);
+            }
+        }
+    }
+
+    // Получаем не более k ключей с наибольшими счетчиками, пропуская ключи, для которых excluded возвращает true.
+    // Ключи упорядочены по убыванию счетчика, при равенстве — по возрастанию ключа. Отбор идет через двоичную
+    // кучу размера k, поэтому занимает O(n log k) времени и O(k) памяти вместо сортировки всех ключей.
+    public long[] top(int k, LongPredicate excluded) {
+        BoundedHeap heap = new BoundedHeap(Math.min(k, size()));
+        if (freeCount != 0 && !excluded.test(FREE)) {
+            heap.offer(FREE, freeCount);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE && !excluded.test(keys[i])) {
+                heap.offer(keys[i], counts[i]);
+            }
+        }
+        return heap.drainDescending();
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        counts = new int[capacity];
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        maxFill = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // Фибоначчиево хеширование, как в LongHashSet
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    // Удаление без «надгробий», как в LongHashSet: сдвигаем назад ключи цепочки вместе с их счетчиками
+    private void shiftBack(int freed, int mask) {
+        int index = freed;
+        while (true) {
+            index = (index + 1) & mask;
+            long key = keys[index];
+            if (key == FREE) {
+                break;
+            }
+            int home = slot(key);
+            if (((index - home) & mask) >= ((index - freed) & mask)) {
+                keys[freed] = key;
+                counts[freed] = counts[index];
+                freed = index;
+            }
+        }
+        keys[freed] = FREE;
+        counts[freed] = 0;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        allocate(newCapacity);
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int index = slot(oldKeys[i]);
+                while (keys[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                counts[index] = oldCounts[i];
+            }
+        }
+    }
+
+    // Куча из k лучших пар (ключ, счетчик): в корне худшая из отобранных, и новая пара вытесняет ее,
+    // только если она лучше.
+    private static final class BoundedHeap {
+        private final long[] heapKeys;
+        private final int[] heapCounts;
+        private int size;
+
+        private BoundedHeap(int capacity) {
+            heapKeys = new long[capacity];
+            heapCounts = new int[capacity];
+        }
+
+        private void offer(long key, int count) {
+            if (size < heapKeys.length) {
+                heapKeys[size] = key;
+                heapCounts[size] = count;
+                siftUp(size++);
+            } else if (size > 0 && better(key, count, 0)) {
+                heapKeys[0] = key;
+                heapCounts[0] = count;
+                siftDown(0);
+            }
+        }
+
+        // Извлекаем пары, начиная с худшей, и раскладываем их с конца массива.
+        private long[] drainDescending() {
+            long[] result = new long[size];
+            for (int position = size - 1; position >= 0; position--) {
+                result[position] = heapKeys[0];
+                size--;
+                heapKeys[0] = heapKeys[size];
+                heapCounts[0] = heapCounts[size];
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private boolean better(long key, int count, int index) {
+            return count > heapCounts[index] || count == heapCounts[index] && key < heapKeys[index];
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!better(heapKeys[parent], heapCounts[parent], index)) {
+                    break;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int worst = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && !better(heapKeys[left], heapCounts[left], worst)) {
+                    worst = left;
+                }
+                if (right < size && !better(heapKeys[right], heapCounts[right], worst)) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(index, worst);
+                index = worst;
+            }
+        }
+
+        private void swap(int first, int second) {
+            long key = heapKeys[first];
+            heapKeys[first] = heapKeys[second];
+            heapKeys[second] = key;
+            int count = heapCounts[first];
+            heapCounts[first] = heapCounts[second];
+            heapCounts[second] = count;
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.function.LongConsumer;
+
+// Потокобезопасное множество примитивных long, которое само переходит на шардирование при конкуренции записи.
+// Пока множество записывают редко, оно состоит из одного LongHashSet, и запись берет только его блокировку.
+// Когда попытки записи часто застают шард занятым другим потоком, элементы раскладываются
+// по SHARD_COUNT шардам-LongHashSet с отдельными блокировками, и параллельные записи перестают ждать друг друга.
+// Конкуренция считается в окне CONTENTION_WINDOW, поэтому редкие совпадения записей за все время жизни
+// множества не переводят его на шардирование. Счетчик конкуренции создается при первой неудачной попытке,
+// а LongAdder размера — при шардировании: у множества без конкуренции их нет.
+public class ShardedLongSet extends AbstractSet<Long> {
+    // Столько раз за окно запись должна застать шард занятым, чтобы множество перешло на шардирование
+    static final int CONTENTION_THRESHOLD = 32;
+    static final long CONTENTION_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    static final int SHARD_COUNT = Math.min(64,
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1);
+
+    private final long contentionWindowNanos;
+    private volatile LongHashSet[] shards = {new LongHashSet()};
+    // Размер шардированного множества, без обхода шардов. Записывается до публикации шардов в shards
+    private LongAdder shardedSize;
+    private volatile Contention contention;
+
+    public ShardedLongSet() {
+        this(CONTENTION_WINDOW_NANOS);
+    }
+
+    ShardedLongSet(long contentionWindowNanos) {
+        this.contentionWindowNanos = contentionWindowNanos;
+    }
+
+    // Добавляем элемент. Возвращаем true, если его не было в множестве.
+    public boolean add(long value) {
+        while (true) {
+            LongHashSet[] current = shards;
+            LongHashSet shard = current[index(value, current.length)];
+            Lock lock = lock(current, shard);
+            try {
+                // Шард мог быть заменен, пока поток ждал блокировку: повторяем по новому набору шардов
+                if (shards != current) {
+                    continue;
+                }
+                boolean added = shard.addUnlocked(value);
+                if (added && current.length > 1) {
+                    shardedSize.increment();
+                }
+                return added;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Удаляем элемент. Возвращаем true, если он был в множестве.
+    public boolean remove(long value) {
+        while (true) {
+            LongHashSet[] current = shards;
+            LongHashSet shard = current[index(value, current.length)];
+            Lock lock = lock(current, shard);
+            try {
+                if (shards != current) {
+                    continue;
+                }
+                boolean removed = shard.removeUnlocked(value);
+                if (removed && current.length > 1) {
+                    shardedSize.decrement();
+                }
+                return removed;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Проверяем наличие элемента под блокировкой чтения его шарда.
+    public boolean contains(long value) {
+        LongHashSet[] current = shards;
+        return current[index(value, current.length)].contains(value);
+    }
+
+    // Получаем все элементы в виде массива.
+    public long[] toLongArray() {
+        LongHashSet[] current = shards;
+        if (current.length == 1) {
+            return current[0].toLongArray();
+        }
+        long[][] parts = new long[current.length][];
+        int length = 0;
+        for (int i = 0; i < current.length; i++) {
+            parts[i] = current[i].toLongArray();
+            length += parts[i].length;
+        }
+        long[] result = new long[length];
+        int position = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, result, position, part.length);
+            position += part.length;
+        }
+        return result;
+    }
+
+    // Перебираем элементы без упаковки в Long.
+    public void forEachLong(LongConsumer action) {
+        for (LongHashSet shard : shards) {
+            shard.forEachLong(action);
+        }
+    }
+
+    // Проверяем, перешло ли множество на шардирование.
+    public boolean isSharded() {
+        return shards.length > 1;
+    }
+
+    @Override
+    public boolean add(Long value) {
+        return add(value.longValue());
+    }
+
+    @Override
+    public boolean remove(Object value) {
+        return value instanceof Long longValue && remove(longValue.longValue());
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return value instanceof Long longValue && contains(longValue.longValue());
+    }
+
+    @Override
+    public int size() {
+        LongHashSet[] current = shards;
+        if (current.length == 1) {
+            return current[0].size();
+        }
+        return (int) Math.max(0, shardedSize.sum());
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        long[] snapshot = toLongArray();
+        Arrays.sort(snapshot);
+        return new Iterator<>() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return position < snapshot.length;
+            }
+
+            @Override
+            public Long next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return snapshot[position++];
+            }
+
+            @Override
+            public void remove() {
+                if (position == 0) {
+                    throw new IllegalStateException();
+                }
+                ShardedLongSet.this.remove(snapshot[position - 1]);
+            }
+        };
+    }
+
+    // Раскладываем элементы единственного шарда по SHARD_COUNT шардам.
+    // Старый шард удерживается заблокированным до публикации новых, а потоки, ждавшие его, видят новый shards.
+    void shard() {
+        LongHashSet[] current = shards;
+        if (current.length > 1) {
+            return;
+        }
+        LongHashSet single = current[0];
+        Lock lock = single.writeLock();
+        lock.lock();
+        try {
+            if (shards != current) {
+                return;
+            }
+            LongHashSet[] sharded = new LongHashSet[SHARD_COUNT];
+            Arrays.setAll(sharded, i -> new LongHashSet());
+            single.forEachLong(value -> sharded[index(value, sharded.length)].add(value));
+            LongAdder size = new LongAdder();
+            size.add(single.size());
+            shardedSize = size;
+            shards = sharded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Захватываем блокировку записи шарда. Неудачная попытка без ожидания считается признаком конкуренции.
+    private Lock lock(LongHashSet[] current, LongHashSet shard) {
+        Lock lock = shard.writeLock();
+        if (lock.tryLock()) {
+            return lock;
+        }
+        if (current.length == 1 && contended()) {
+            shard();
+        }
+        lock.lock();
+        return lock;
+    }
+
+    // Учитываем неудачную попытку и проверяем, набралось ли их CONTENTION_THRESHOLD за текущее окно.
+    // Счетчик и окно меняются без блокировки: при гонке создания или сброса теряется несколько попыток,
+    // что для порога не важно.
+    boolean contended() {
+        long now = System.nanoTime();
+        Contention current = contention;
+        if (current == null || now - current.windowStart > contentionWindowNanos) {
+            current = new Contention(now);
+            contention = current;
+        }
+        return current.attempts.incrementAndGet() >= CONTENTION_THRESHOLD;
+    }
+
+    // Младшие биты, а не старшие: LongHashSet внутри шарда выбирает ячейку по старшим битам хеша
+    private static int index(long value, int shardCount) {
+        return (int) value & (shardCount - 1);
+    }
+
+    // Неудачные попытки записи за окно, начатое в windowStart
+    private static final class Contention {
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final long windowStart;
+
+        private Contention(long windowStart) {
+            this.windowStart = windowStart;
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+CREATE TABLE IF NOT EXISTS films (
+    film_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR,
+    description VARCHAR(200),
+    release_date DATE,
+    duration BIGINT,
+    -- Количество лайков хранится в строке фильма, чтобы популярные фильмы читались по индексу без агрегации
+    likes_count INT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS films_popularity_idx ON films (likes_count DESC, film_id);
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email VARCHAR,
+    -- Нормализованные (без пробелов по краям и в нижнем регистре) E-mail и логин для поиска по индексу
+    email_key VARCHAR,
+    login VARCHAR,
+    login_key VARCHAR,
+    name VARCHAR,
+    birthday DATE
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_key_uq ON users (email_key);
+CREATE INDEX IF NOT EXISTS users_login_key_idx ON users (login_key);
+
+-- Лайк может поставить любой ID пользователя, как и в хранилище в памяти: наличие пользователя проверяет сервис
+CREATE TABLE IF NOT EXISTS film_likes (
+    film_id BIGINT NOT NULL REFERENCES films (film_id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (film_id, user_id)
+);
+
+-- Дружба взаимная и хранится двумя строками, поэтому друзья и общие друзья читаются по первичному ключу
+CREATE TABLE IF NOT EXISTS friendships (
+    user_id BIGINT NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
+    friend_id BIGINT NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
+    PRIMARY KEY (user_id, friend_id)
+);
+
+CREATE INDEX IF NOT EXISTS friendships_friend_idx ON friendships (friend_id);
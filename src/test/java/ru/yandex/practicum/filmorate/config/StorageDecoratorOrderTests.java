@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.cache.CachingFilmStorage;
+import ru.yandex.practicum.filmorate.storage.cache.CachingUserStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.metrics.MeteredFilmStorage;
+import ru.yandex.practicum.filmorate.storage.metrics.MeteredUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageDecoratorOrderTests {
+    // Конфигурации перечислены в порядке сканирования пакета: метрики регистрируются раньше кеша
+    ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withPropertyValues("filmorate.storage.cache.enabled=true", "filmorate.metrics.enabled=true")
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withUserConfiguration(MetricsConfig.class, StorageCacheConfig.class,
+                    InMemoryFilmStorage.class, InMemoryUserStorage.class);
+
+    @Test
+    void metricsWrapCacheTesting() {
+        contextRunner.run(context -> {
+            FilmStorage filmStorage = context.getBean(FilmStorage.class);
+            UserStorage userStorage = context.getBean(UserStorage.class);
+
+            // Проверяем, что цепочка собрана как метрики -> кеш -> хранилище
+            MeteredFilmStorage meteredFilms = assertInstanceOf(MeteredFilmStorage.class, filmStorage,
+                    "Снаружи цепочки фильмов не метрики");
+            CachingFilmStorage cachedFilms = assertInstanceOf(CachingFilmStorage.class, meteredFilms.getDelegate(),
+                    "Под метриками фильмов не кеш");
+            assertInstanceOf(InMemoryFilmStorage.class, cachedFilms.getDelegate(), "Под кешем фильмов не хранилище");
+            MeteredUserStorage meteredUsers = assertInstanceOf(MeteredUserStorage.class, userStorage,
+                    "Снаружи цепочки пользователей не метрики");
+            CachingUserStorage cachedUsers = assertInstanceOf(CachingUserStorage.class, meteredUsers.getDelegate(),
+                    "Под метриками пользователей не кеш");
+            assertInstanceOf(InMemoryUserStorage.class, cachedUsers.getDelegate(),
+                    "Под кешем пользователей не хранилище");
+        });
+    }
+
+    @Test
+    void cacheMetersRegisteredTesting() {
+        contextRunner.run(context -> {
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+
+            // Проверяем, что у обоих кешей есть датчик размера и счетчики обращений
+            for (String cache : new String[]{"films", "users"}) {
+                assertNotNull(registry.find("filmorate.cache.size").tag("cache", cache).gauge(),
+                        "Нет датчика размера кеша " + cache);
+                assertNotNull(registry.find("filmorate.cache.requests").tag("cache", cache)
+                        .tag("result", "hit").functionCounter(), "Нет счетчика попаданий кеша " + cache);
+            }
+        });
+    }
+
+    @Test
+    void cacheHitsAreTimedTesting() {
+        contextRunner.run(context -> {
+            FilmStorage filmStorage = context.getBean(FilmStorage.class);
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            Long filmId = filmStorage.addFilm(new Film(null, "Name of the film1", "Description of the film1",
+                    LocalDate.of(1895, Month.DECEMBER, 28), 1L)).getId();
+            filmStorage.getFilmById(filmId);
+            filmStorage.getFilmById(filmId);
+
+            // Проверяем, что оба чтения замерены, хотя второе пришло из кеша
+            assertEquals(2, registry.get("filmorate.storage").tag("entity", "film").tag("method", "findFilmById")
+                    .timer().count(), "Попадание в кеш не замерено");
+            assertEquals(1, registry.get("filmorate.cache.requests").tag("cache", "films").tag("result", "hit")
+                    .functionCounter().count(), "Попадание в кеш не посчитано");
+        });
+    }
+
+}
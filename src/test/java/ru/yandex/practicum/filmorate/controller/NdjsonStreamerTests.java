@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonStreamerTests {
+
+    @Test
+    void streamFlushesOncePerPageTesting() throws Exception {
+        NdjsonStreamer streamer = new NdjsonStreamer(new ObjectMapper());
+        long count = 1_200;
+        CountingOutputStream outputStream = new CountingOutputStream();
+
+        streamer.<Long>stream((afterId, limit) -> LongStream.rangeClosed(afterId + 1, Math.min(afterId + limit, count))
+                .boxed()
+                .toList(), id -> id).writeTo(outputStream);
+
+        // Проверяем, что выгружены все объекты по одному на строку, а сброс идет раз на страницу
+        // из 500 объектов (три страницы) и при закрытии генератора, а не после каждого объекта
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(count, lines.size(), "Количество строк не совпадает");
+        assertEquals("1200", lines.get(lines.size() - 1), "Последний объект не совпадает");
+        assertTrue(outputStream.flushes <= 4, "Генератор сбрасывался после объектов: " + outputStream.flushes);
+    }
+
+    private static class CountingOutputStream extends ByteArrayOutputStream {
+        private int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogSamplerTests {
+
+    @Test
+    void longestPrefixRateIsUsedTesting() {
+        RequestLogProperties properties = new RequestLogProperties();
+        properties.setSampleRate(0.5);
+        properties.getSampleRates().put("/films", 0.1);
+        properties.getSampleRates().put("/films/popular", 0.01);
+        RequestLogSampler sampler = new RequestLogSampler(properties);
+
+        // Проверяем, что действует самый длинный подходящий префикс, а для прочих путей — доля по умолчанию
+        assertEquals(0.01, sampler.rateFor("/films/popular"), "Доля для популярных фильмов не совпадает");
+        assertEquals(0.1, sampler.rateFor("/films/1/like/2"), "Доля для фильмов не совпадает");
+        assertEquals(0.5, sampler.rateFor("/users"), "Доля по умолчанию не совпадает");
+    }
+
+    @Test
+    void zeroAndFullRatesAreDeterministicTesting() {
+        RequestLogProperties properties = new RequestLogProperties();
+        properties.getSampleRates().put("/actuator", 0.0);
+        RequestLogSampler sampler = new RequestLogSampler(properties);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(sampler.sample("/films"), "Запрос не попал в выборку при доле 1");
+            assertFalse(sampler.sample("/actuator/prometheus"), "Запрос попал в выборку при доле 0");
+        }
+    }
+
+    @Test
+    void invalidRateIsRejectedTesting() {
+        RequestLogProperties properties = new RequestLogProperties();
+        properties.setSampleRate(1.5);
+
+        assertThrows(IllegalArgumentException.class, () -> new RequestLogSampler(properties),
+                "Доля больше 1 не вызвала исключение");
+    }
+
+}
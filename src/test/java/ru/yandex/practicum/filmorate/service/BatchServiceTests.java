@@ -0,0 +1,78 @@
+package ru.yandex.practicum.filmorate.service;
+
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchServiceTests {
+    ValidatorFactory validatorFactory;
+    InMemoryFilmStorage filmStorage;
+    InMemoryUserStorage userStorage;
+    BatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        filmStorage = new InMemoryFilmStorage();
+        userStorage = new InMemoryUserStorage();
+        batchService = new BatchService(filmStorage, userStorage, validatorFactory.getValidator());
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void addFilmsWithInvalidItemsTesting() {
+        Film validFilm = new Film(null, "Name of the film1", "Description of the film1",
+                LocalDate.of(1895, Month.DECEMBER, 28), 1L);
+        Film filmWithoutName = new Film(null, " ", "Description of the film2",
+                LocalDate.of(1900, Month.MAY, 11), 5L);
+
+        BatchResult<Film> result = batchService.addFilms(Arrays.asList(filmWithoutName, validFilm, null));
+
+        // Проверяем, что корректный фильм добавлен, а ошибки отклоненных привязаны к их позициям в пакете
+        assertEquals(1, result.created(), "Количество добавленных фильмов не совпадает");
+        assertEquals(2, result.failed(), "Количество отклоненных фильмов не совпадает");
+        assertEquals(1L, result.items().getFirst().getId(), "ID не совпадает");
+        assertEquals(new BatchResult.ItemError(0, "Название не может быть null или пустым"),
+                result.errors().get(0), "Ошибка не совпадает");
+        assertEquals(2, result.errors().get(1).index(), "Позиция ошибки не совпадает");
+        assertEquals(1, filmStorage.getAllFilms().size(), "Количество фильмов не совпадает");
+    }
+
+    @Test
+    void addUsersWithDuplicateEmailTesting() {
+        User user1 = new User(null, "testemail1@testemail.com", "TestLogin1", "TestName1",
+                LocalDate.of(2000, Month.JANUARY, 15));
+        User user2 = new User(null, "wrong email", "TestLogin2", "TestName2",
+                LocalDate.of(2000, Month.JANUARY, 15));
+        User user3 = new User(null, "testemail1@testemail.com", "TestLogin3", "TestName3",
+                LocalDate.of(2000, Month.JANUARY, 15));
+
+        BatchResult<User> result = batchService.addUsers(List.of(user1, user2, user3));
+
+        // Проверяем, что второй пользователь с тем же E-mail отклонен, не помешав добавлению первого
+        assertEquals(List.of(user1), result.items(), "Список добавленных пользователей не совпадает");
+        assertEquals(List.of(
+                new BatchResult.ItemError(1, "Указанный E-mail не соответствует формату"),
+                new BatchResult.ItemError(2, "Указанный E-mail: testemail1@testemail.com уже используется")),
+                result.errors(), "Ошибки не совпадают");
+    }
+
+}
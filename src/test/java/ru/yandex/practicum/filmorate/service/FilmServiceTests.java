@@ -3,6 +3,7 @@ package ru.yandex.practicum.filmorate.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
@@ -13,7 +14,16 @@ import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -138,64 +148,58 @@ class FilmServiceTests {
 
         System.out.println(filmStorage.getAllFilms().size());
 
-        Film film1 = filmStorage.getFilmById(1L);
+        // Лайки ставятся через сервис, поэтому создаем пользователей, которые их ставят
+        for (long i = 1; i < 13; i++) {
+            userStorage.addUser(new User(null, "testemail" + i + "@testemail.com", "TestLogin" + i,
+                    "TestName" + i, LocalDate.of(2000, Month.JANUARY, 15)));
+        }
+
         for (long i = 1; i < 7; i++) {
-            film1.getFilmLikedUsersId().add(i);
+            filmService.addLike(1L, i);
         }
 
-        Film film2 = filmStorage.getFilmById(2L);
         for (long i = 1; i < 10; i++) {
-            film2.getFilmLikedUsersId().add(i);
+            filmService.addLike(2L, i);
         }
 
-        Film film3 = filmStorage.getFilmById(3L);
         for (long i = 1; i < 2; i++) {
-            film3.getFilmLikedUsersId().add(i);
+            filmService.addLike(3L, i);
         }
 
-        Film film4 = filmStorage.getFilmById(4L);
         for (long i = 1; i < 3; i++) {
-            film4.getFilmLikedUsersId().add(i);
+            filmService.addLike(4L, i);
         }
 
-        Film film5 = filmStorage.getFilmById(5L);
         for (long i = 1; i < 8; i++) {
-            film5.getFilmLikedUsersId().add(i);
+            filmService.addLike(5L, i);
         }
 
-        Film film6 = filmStorage.getFilmById(6L);
         for (long i = 1; i < 13; i++) {
-            film6.getFilmLikedUsersId().add(i);
+            filmService.addLike(6L, i);
         }
 
-        Film film7 = filmStorage.getFilmById(7L);
         for (long i = 1; i < 9; i++) {
-            film7.getFilmLikedUsersId().add(i);
+            filmService.addLike(7L, i);
         }
 
-        Film film8 = filmStorage.getFilmById(8L);
         for (long i = 1; i < 6; i++) {
-            film8.getFilmLikedUsersId().add(i);
+            filmService.addLike(8L, i);
         }
 
-        Film film9 = filmStorage.getFilmById(9L);
         for (long i = 1; i < 12; i++) {
-            film9.getFilmLikedUsersId().add(i);
+            filmService.addLike(9L, i);
         }
 
-        Film film10 = filmStorage.getFilmById(10L);
         for (long i = 1; i < 5; i++) {
-            film10.getFilmLikedUsersId().add(i);
+            filmService.addLike(10L, i);
         }
 
-        Film film11 = filmStorage.getFilmById(11L);
         for (long i = 1; i < 11; i++) {
-            film11.getFilmLikedUsersId().add(i);
+            filmService.addLike(11L, i);
         }
 
-        Film film12 = filmStorage.getFilmById(12L);
         for (long i = 1; i < 4; i++) {
-            film12.getFilmLikedUsersId().add(i);
+            filmService.addLike(12L, i);
         }
 
         List<Film> result1 = filmService.getMostPopularFilms(12L);
@@ -218,4 +222,306 @@ class FilmServiceTests {
         assertEquals(3L, result1.get(11).getId(), "ID не совпадают");
     }
 
-}
\ No newline at end of file
+    @Test
+    void getMostPopularFilmsWithEqualLikesTesting() {
+        for (long i = 1; i < 5; i++) {
+            filmStorage.addFilm(new Film(null, "Name of the film" + i,
+                    "Description of the film" + i, LocalDate.of(1895, Month.DECEMBER, 28), 1L));
+            userStorage.addUser(new User(null, "testemail" + i + "@testemail.com", "TestLogin" + i,
+                    "TestName" + i, LocalDate.of(2000, Month.JANUARY, 15)));
+        }
+        filmService.addLike(3L, 1L);
+        filmService.addLike(3L, 2L);
+        filmService.addLike(1L, 1L);
+        filmService.addLike(2L, 1L);
+        filmService.addLike(4L, 1L);
+        filmService.addLike(4L, 2L);
+        filmService.addLike(4L, 3L);
+        filmService.removeLike(4L, 3L);
+        filmService.removeLike(4L, 2L);
+
+        List<Film> result = filmService.getMostPopularFilms(10L);
+
+        // Проверяем, что фильмы с равным количеством лайков не потерялись и упорядочены по ID
+        assertEquals(4, result.size(), "Количество элементов не совпадает");
+        assertEquals(3L, result.get(0).getId(), "ID не совпадают");
+        assertEquals(1L, result.get(1).getId(), "ID не совпадают");
+        assertEquals(2L, result.get(2).getId(), "ID не совпадают");
+        assertEquals(4L, result.get(3).getId(), "ID не совпадают");
+
+        filmStorage.removeFilm(3L);
+        filmService.removeLike(1L, 1L);
+
+        // Проверяем, что удаленный фильм и фильм без лайков исключены из списка
+        List<Film> result1 = filmService.getMostPopularFilms(10L);
+        assertEquals(2, result1.size(), "Количество элементов не совпадает");
+        assertEquals(2L, result1.get(0).getId(), "ID не совпадают");
+        assertEquals(4L, result1.get(1).getId(), "ID не совпадают");
+    }
+
+    @Test
+    void similarFilmsTesting() {
+        addUsers(3);
+        addFilms(4);
+        filmService.addLike(1L, 1L);
+        filmService.addLike(2L, 1L);
+        filmService.addLike(3L, 1L);
+        filmService.addLike(1L, 2L);
+        filmService.addLike(2L, 2L);
+        filmService.addLike(1L, 3L);
+        filmService.addLike(4L, 3L);
+
+        // Проверяем порядок по числу совместных лайков, при равенстве по ID
+        assertEquals(List.of(2L, 3L, 4L), filmIds(filmService.getSimilarFilms(1L, 10)), "Фильмы не совпадают");
+        assertEquals(List.of(2L), filmIds(filmService.getSimilarFilms(1L, 1)), "Фильмы не совпадают");
+
+        filmService.removeLike(2L, 1L);
+        filmService.addLike(4L, 3L);
+        filmService.addLike(4L, 2L);
+
+        // Проверяем, что модель обновилась после удаления лайка, а повторный лайк не учтен дважды
+        assertEquals(List.of(4L, 2L, 3L), filmIds(filmService.getSimilarFilms(1L, 10)), "Фильмы не совпадают");
+        assertEquals(List.of(1L, 2L), filmIds(filmService.getSimilarFilms(4L, 10)), "Фильмы не совпадают");
+    }
+
+    @Test
+    void recommendedFilmsTesting() {
+        addUsers(4);
+        addFilms(3);
+        filmService.addLike(1L, 1L);
+        filmService.addLike(1L, 2L);
+        filmService.addLike(2L, 2L);
+        filmService.addLike(3L, 2L);
+        filmService.addLike(1L, 3L);
+        filmService.addLike(3L, 3L);
+
+        // Проверяем, что рекомендованы фильмы, которые лайкали вместе с фильмами пользователя, кроме уже лайкнутых
+        assertEquals(List.of(3L, 2L), filmIds(filmService.getRecommendedFilms(1L, 10)), "Фильмы не совпадают");
+        assertEquals(List.of(2L), filmIds(filmService.getRecommendedFilms(3L, 10)), "Фильмы не совпадают");
+        assertTrue(filmService.getRecommendedFilms(2L, 10).isEmpty(), "Рекомендованы уже лайкнутые фильмы");
+        assertTrue(filmService.getRecommendedFilms(4L, 10).isEmpty(), "Рекомендации у пользователя без лайков");
+
+        filmStorage.removeFilm(3L);
+
+        // Проверяем, что удаленный фильм исключен из рекомендаций
+        assertEquals(List.of(2L), filmIds(filmService.getRecommendedFilms(1L, 10)), "Фильмы не совпадают");
+    }
+
+    @Test
+    void randomRecommendationsMatchBruteForceTesting() {
+        int usersCount = 300;
+        int filmsCount = 400;
+        addUsers(usersCount);
+        addFilms(filmsCount);
+        Random random = new Random(11);
+        Map<Long, Set<Long>> liked = new HashMap<>();
+        for (long userId = 1; userId <= usersCount; userId++) {
+            // У части пользователей лайкнутых фильмов больше, чем строк для алгоритма порога
+            int likes = 10 + random.nextInt(60);
+            for (int i = 0; i < likes; i++) {
+                // Популярность убывает с ID, поэтому строки первых фильмов длиннее числа кандидатов
+                double skew = random.nextDouble();
+                long filmId = (long) (filmsCount * skew * skew) + 1;
+                filmService.addLike(filmId, userId);
+                liked.computeIfAbsent(userId, id -> new HashSet<>()).add(filmId);
+            }
+        }
+
+        // Проверяем, что рекомендации совпадают с полным перебором совместных лайков
+        for (long userId = 1; userId <= usersCount; userId += 7) {
+            Set<Long> own = liked.get(userId);
+            Map<Long, Integer> scores = new HashMap<>();
+            for (Set<Long> other : liked.values()) {
+                if (other != own) {
+                    int common = (int) own.stream().filter(other::contains).count();
+                    other.stream().filter(filmId -> !own.contains(filmId))
+                            .forEach(filmId -> scores.merge(filmId, common, Integer::sum));
+                }
+            }
+            List<Long> expected = scores.entrySet().stream()
+                    .filter(entry -> entry.getValue() > 0)
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(20)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            assertEquals(expected, filmIds(filmService.getRecommendedFilms(userId, 20)), "Фильмы не совпадают");
+        }
+    }
+
+    @Test
+    void recommendationsWithEqualScoresTesting() {
+        addUsers(151);
+        addFilms(152);
+        filmService.addLike(1L, 1L);
+        filmService.addLike(2L, 1L);
+        for (long userId = 2; userId <= 151; userId++) {
+            filmService.addLike(1L, userId);
+            filmService.addLike(2L, userId);
+            filmService.addLike(userId + 1, userId);
+        }
+
+        // Проверяем случай, когда кандидатов из начала строк не хватает для точного ответа:
+        // у всех фильмов равные суммы, и они упорядочены по ID
+        assertEquals(List.of(3L, 4L, 5L), filmIds(filmService.getRecommendedFilms(1L, 3)), "Фильмы не совпадают");
+    }
+
+    @Test
+    void recommendationsModelLoadedFromStorageTesting() {
+        addUsers(2);
+        addFilms(3);
+        filmStorage.addLike(1L, 1L);
+        filmStorage.addLike(2L, 1L);
+        filmStorage.addLike(1L, 2L);
+        filmStorage.addLike(3L, 2L);
+        filmStorage.addLike(2L, 2L);
+
+        // Проверяем, что до построения модели запрос не ждет ее, а после построения лайки из хранилища учтены
+        assertTrue(filmService.getSimilarFilms(1L, 10).isEmpty(), "Модель построена раньше времени");
+
+        filmService.loadRecommendations();
+
+        assertEquals(List.of(2L, 3L), filmIds(filmService.getSimilarFilms(1L, 10)), "Фильмы не совпадают");
+
+        filmService.addLike(3L, 1L);
+
+        assertEquals(List.of(2L, 3L), filmIds(filmService.getSimilarFilms(1L, 10)), "Фильмы не совпадают");
+        assertEquals(List.of(1L, 2L), filmIds(filmService.getSimilarFilms(3L, 10)), "Фильмы не совпадают");
+    }
+
+    @Test
+    void recommendationsAfterRemovalTesting() {
+        addUsers(4);
+        addFilms(4);
+        for (long userId = 1; userId <= 4; userId++) {
+            filmService.addLike(1L, userId);
+        }
+        filmService.addLike(2L, 2L);
+        filmService.addLike(2L, 3L);
+        filmService.addLike(3L, 3L);
+        filmService.addLike(3L, 4L);
+        filmService.addLike(4L, 4L);
+
+        filmService.removeFilm(2L);
+
+        // Проверяем, что удаленный фильм убран из модели, и в ответе по-прежнему limit фильмов
+        assertEquals(List.of(3L, 4L), filmIds(filmService.getRecommendedFilms(1L, 2)), "Фильмы не совпадают");
+        assertEquals(List.of(3L, 4L), filmIds(filmService.getSimilarFilms(1L, 2)), "Фильмы не совпадают");
+
+        userStorage.removeUser(4L);
+        FilmService rebuilt = new FilmService(filmStorage, new UserService(userStorage));
+        rebuilt.loadRecommendations();
+
+        // Проверяем, что после удаления пользователя модель совпадает с построенной заново по хранилищу
+        for (long filmId : new long[]{1L, 3L, 4L}) {
+            assertEquals(filmIds(rebuilt.getSimilarFilms(filmId, 10)), filmIds(filmService.getSimilarFilms(filmId, 10)),
+                    "Модель после удаления пользователя не совпадает с построенной заново");
+        }
+    }
+
+    @Test
+    void concurrentLikesTesting() throws Exception {
+        int threads = 4;
+        int usersPerThread = 25;
+        int filmsCount = 20;
+        addUsers(threads * usersPerThread);
+        addFilms(filmsCount);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                long firstUserId = (long) t * usersPerThread + 1;
+                Random random = new Random(t);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 2_000; i++) {
+                        long userId = firstUserId + random.nextInt(usersPerThread);
+                        long filmId = random.nextInt(filmsCount) + 1;
+                        if (random.nextInt(3) == 0) {
+                            filmService.removeLike(filmId, userId);
+                        } else {
+                            filmService.addLike(filmId, userId);
+                        }
+                        filmService.getRecommendedFilms(userId, 5);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Проверяем, что модель, обновленная из нескольких потоков, совпадает с построенной из хранилища
+        FilmService loaded = new FilmService(filmStorage, userService);
+        loaded.loadRecommendations();
+        for (long filmId = 1; filmId <= filmsCount; filmId++) {
+            assertEquals(filmIds(loaded.getSimilarFilms(filmId, 100)),
+                    filmIds(filmService.getSimilarFilms(filmId, 100)), "Фильмы не совпадают");
+        }
+        for (long userId = 1; userId <= threads * usersPerThread; userId++) {
+            assertEquals(filmIds(loaded.getRecommendedFilms(userId, 100)),
+                    filmIds(filmService.getRecommendedFilms(userId, 100)), "Фильмы не совпадают");
+        }
+    }
+
+    @Test
+    void userOverLikesThresholdIsIgnoredTesting() {
+        int threshold = FilmRecommendations.MAX_LIKES_PER_USER;
+        addUsers(2);
+        addFilms(threshold + 2);
+        for (long filmId = 1; filmId <= threshold + 1; filmId++) {
+            filmService.addLike(filmId, 1L);
+        }
+        filmService.addLike(1L, 2L);
+        filmService.addLike(threshold + 2L, 2L);
+
+        // Проверяем, что лайки пользователя сверх порога не входят в совместные лайки
+        assertEquals(List.of(threshold + 2L), filmIds(filmService.getSimilarFilms(1L, 10)), "Фильмы не совпадают");
+        assertTrue(filmService.getSimilarFilms(2L, 10).isEmpty(), "Учтены лайки пользователя сверх порога");
+
+        filmService.removeLike(threshold + 1L, 1L);
+
+        // Проверяем, что после возврата под порог его лайки снова учтены
+        assertEquals(List.of(1L, 3L, 4L), filmIds(filmService.getSimilarFilms(2L, 3)), "Фильмы не совпадают");
+        assertEquals(2L, filmService.getSimilarFilms(1L, 1).get(0).getId(), "Фильмы не совпадают");
+    }
+
+    @Test
+    void recommendationsWithInvalidArgumentsTesting() {
+        addUsers(1);
+        addFilms(1);
+
+        assertThrows(ValidationException.class, () -> filmService.getSimilarFilms(1L, 0),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertThrows(ValidationException.class, () -> filmService.getRecommendedFilms(1L, 101),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertThrows(NotFoundException.class, () -> filmService.getSimilarFilms(2L, 10),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertThrows(NotFoundException.class, () -> filmService.getRecommendedFilms(2L, 10),
+                "Исключение не выброшено, или выброшено неверное исключение");
+    }
+
+    private void addUsers(int count) {
+        for (int i = 1; i <= count; i++) {
+            userStorage.addUser(new User(null, "liker" + i + "@testemail.com", "Liker" + i,
+                    "Name" + i, LocalDate.of(2000, Month.JANUARY, 1)));
+        }
+    }
+
+    private void addFilms(int count) {
+        for (int i = 1; i <= count; i++) {
+            filmStorage.addFilm(new Film(null, "Film " + i, "Description " + i,
+                    LocalDate.of(2000, Month.JANUARY, 1), 90L));
+        }
+    }
+
+    private static List<Long> filmIds(List<Film> films) {
+        return films.stream().map(Film::getId).toList();
+    }
+
+}
@@ -0,0 +1,134 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.OverloadedException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutationPipelineTests {
+    static final int USERS_COUNT = 200;
+
+    FilmStorage filmStorage;
+    UserStorage userStorage;
+    MutationPipelineProperties properties;
+    MutationPipeline pipeline;
+    Film film;
+
+    @BeforeEach
+    void setUp() {
+        filmStorage = new InMemoryFilmStorage();
+        userStorage = new InMemoryUserStorage();
+        UserService userService = new UserService(userStorage);
+        properties = new MutationPipelineProperties();
+        properties.setEnabled(true);
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        pipeline = new MutationPipeline(new FilmService(filmStorage, userService), userService, properties);
+        film = filmStorage.addFilm(new Film(null, "Name of the film", "Description of the film",
+                LocalDate.of(1895, Month.DECEMBER, 28), 1L));
+        for (int i = 1; i <= USERS_COUNT; i++) {
+            userStorage.addUser(new User(null, "user" + i + "@yandex.ru", "user" + i, "Name" + i,
+                    LocalDate.of(1990, Month.JANUARY, 1)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.close();
+    }
+
+    @Test
+    void concurrentLikesAreAppliedTesting() {
+        List<CompletableFuture<Film>> results = new ArrayList<>();
+        for (long userId = 1; userId <= USERS_COUNT; userId++) {
+            results.add(pipeline.addLike(film.getId(), userId));
+        }
+        results.forEach(CompletableFuture::join);
+
+        // Проверяем, что после завершения всех запросов видны все лайки
+        assertEquals(USERS_COUNT, filmStorage.getFilmById(film.getId()).getFilmLikedUsersId().size(),
+                "Количество лайков не совпадает");
+        assertEquals(USERS_COUNT, results.getLast().join().getFilmLikedUsersId().size(),
+                "Количество лайков не совпадает");
+    }
+
+    @Test
+    void lastMutationOfPairWinsTesting() {
+        CompletableFuture<Film> like = pipeline.addLike(film.getId(), 1L);
+        CompletableFuture<Film> unlike = pipeline.removeLike(film.getId(), 1L);
+        CompletableFuture<User> addFriend = pipeline.addFriend(1L, 2L);
+        CompletableFuture<User> removeFriend = pipeline.removeFriend(2L, 1L);
+        CompletableFuture<Film> likeAgain = pipeline.addLike(film.getId(), 1L);
+
+        // Проверяем, что итог совпадает с последовательным применением изменений
+        assertTrue(likeAgain.join().getFilmLikedUsersId().contains(1L), "Лайк не поставлен");
+        assertNotNull(like.join(), "Запрос не завершен");
+        assertNotNull(unlike.join(), "Запрос не завершен");
+        assertNotNull(addFriend.join(), "Запрос не завершен");
+        assertTrue(removeFriend.join().getFriendsId().isEmpty(), "Друг не удален");
+        assertTrue(userStorage.getUserById(2L).getFriendsId().isEmpty(), "Друг не удален");
+    }
+
+    @Test
+    void failedMutationCompletesExceptionallyTesting() {
+        CompletableFuture<Film> result = pipeline.addLike(100L, 1L);
+
+        // Проверяем, что ошибка изменения передается запросу через его CompletableFuture
+        CompletionException exception = assertThrows(CompletionException.class, result::join,
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertInstanceOf(NotFoundException.class, exception.getCause(), "Выброшено неверное исключение");
+    }
+
+    @Test
+    void errorDoesNotStopWriterTesting() {
+        UserService userService = new UserService(userStorage);
+        FilmService failingService = new FilmService(filmStorage, userService) {
+            @Override
+            public Film addLike(Long likedFilmId, Long userId) {
+                if (userId == 1L) {
+                    throw new StackOverflowError();
+                }
+                return super.addLike(likedFilmId, userId);
+            }
+        };
+        pipeline.close();
+        pipeline = new MutationPipeline(failingService, userService, properties);
+
+        CompletableFuture<Film> failed = pipeline.addLike(film.getId(), 1L);
+        CompletionException exception = assertThrows(CompletionException.class, failed::join,
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertInstanceOf(StackOverflowError.class, exception.getCause(), "Выброшено неверное исключение");
+
+        // Проверяем, что после Error поток записи продолжает применять изменения
+        assertTrue(pipeline.addLike(film.getId(), 2L).join().getFilmLikedUsersId().contains(2L),
+                "Лайк не поставлен");
+    }
+
+    @Test
+    void closedPipelineRejectsMutationsTesting() {
+        pipeline.close();
+
+        // Проверяем, что изменение не принимается, а клиенту предлагается повторить запрос позже
+        OverloadedException exception = assertThrows(OverloadedException.class,
+                () -> pipeline.addLike(film.getId(), 1L),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertEquals(Duration.ofSeconds(2), exception.getRetryAfter(), "Время повтора не совпадает");
+    }
+
+}
@@ -196,4 +196,109 @@ class UserServiceTests {
         assertEquals(3, mutualFriendsList2.get(0).getId(), "ID не совпадают");
     }
 
-}
\ No newline at end of file
+    @Test
+    void getMutualFriendsCountTesting() {
+        User user3 = new User(null, "testemail3@testemail.com", "TestLogin3", "TestName3",
+                LocalDate.of(2000, Month.JANUARY, 15));
+        User user4 = new User(null, "testemail4@testemail.com", "TestLogin4", "TestName4",
+                LocalDate.of(2000, Month.JANUARY, 15));
+        User addedUser1 = userStorage.addUser(user1);
+        User addedUser2 = userStorage.addUser(user2);
+        User addedUser3 = userStorage.addUser(user3);
+        User addedUser4 = userStorage.addUser(user4);
+
+        userService.addFriend(addedUser1.getId(), addedUser3.getId());
+        userService.addFriend(addedUser1.getId(), addedUser4.getId());
+        userService.addFriend(addedUser2.getId(), addedUser3.getId());
+        userService.addFriend(addedUser2.getId(), addedUser4.getId());
+
+        // Проверяем, что количество общих друзей совпадает со списком общих друзей
+        assertEquals(2, userService.getMutualFriendsCount(addedUser1.getId(), addedUser2.getId()),
+                "Количество общих друзей не совпадает");
+        assertEquals(List.of(addedUser3, addedUser4),
+                userService.getMutualFriendsList(addedUser1.getId(), addedUser2.getId()), "Списки не совпадают");
+        assertEquals(0, userService.getMutualFriendsCount(addedUser1.getId(), addedUser3.getId()),
+                "Количество общих друзей не совпадает");
+
+        // Проверяем, что было выброшено необходимое исключение, так как предоставлены одинаковые ID
+        assertThrows(ValidationException.class,
+                () -> userService.getMutualFriendsCount(addedUser1.getId(), addedUser1.getId()),
+                "Исключение не выброшено, или выброшено неверное исключение");
+    }
+
+    @Test
+    void suggestedFriendsRankedByMutualFriendsTesting() {
+        addUsers(5);
+        // У пользователя 1 друзья 2 и 3. Пользователь 4 дружит с обоими, пользователь 5 — только с 2
+        userService.addFriend(1L, 2L);
+        userService.addFriend(1L, 3L);
+        userService.addFriend(2L, 4L);
+        userService.addFriend(3L, 4L);
+        userService.addFriend(2L, 5L);
+
+        // Проверяем, что в рекомендациях нет самого пользователя и его друзей, а порядок — по числу общих друзей
+        assertEquals(List.of(4L, 5L), ids(userService.getSuggestedFriends(1L, 10)), "Рекомендации не совпадают");
+        assertEquals(List.of(4L), ids(userService.getSuggestedFriends(1L, 1)), "Рекомендации не совпадают");
+    }
+
+    @Test
+    void suggestedFriendsInvalidatedByFriendshipChangesTesting() {
+        addUsers(4);
+        userService.addFriend(1L, 2L);
+        userService.addFriend(2L, 3L);
+        assertEquals(List.of(3L), ids(userService.getSuggestedFriends(1L, 10)), "Рекомендации не совпадают");
+
+        // Проверяем, что изменение дружбы друга сбрасывает закешированные рекомендации
+        userService.addFriend(2L, 4L);
+        assertEquals(List.of(3L, 4L), ids(userService.getSuggestedFriends(1L, 10)), "Рекомендации не обновлены");
+
+        userService.addFriend(1L, 3L);
+        assertEquals(List.of(4L), ids(userService.getSuggestedFriends(1L, 10)), "Рекомендации не обновлены");
+
+        userService.removeFriend(1L, 2L);
+        assertEquals(List.of(2L), ids(userService.getSuggestedFriends(1L, 10)), "Рекомендации не обновлены");
+    }
+
+    @Test
+    void suggestedFriendsForHighDegreeUserTesting() {
+        // Пользователь 1 дружит с 1000 пользователей, поэтому обход идет параллельно
+        int friendsCount = 1000;
+        addUsers(friendsCount + 21);
+        for (long friendId = 2; friendId <= friendsCount + 1; friendId++) {
+            userService.addFriend(1L, friendId);
+            // Пользователь с ID 1002 + k дружит с каждым (k + 1)-м другом
+            for (long k = 0; k < 20; k++) {
+                if (friendId % (k + 1) == 0) {
+                    userService.addFriend(friendId, friendsCount + 2 + k);
+                }
+            }
+        }
+
+        List<Long> suggested = ids(userService.getSuggestedFriends(1L, 3));
+
+        // Больше всего общих друзей у тех, кто дружит с каждым первым, вторым и третьим другом
+        assertEquals(List.of(1002L, 1003L, 1004L), suggested, "Рекомендации не совпадают");
+    }
+
+    @Test
+    void suggestedFriendsWithInvalidLimitTesting() {
+        addUsers(1);
+
+        assertThrows(ValidationException.class, () -> userService.getSuggestedFriends(1L, 0),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertThrows(NotFoundException.class, () -> userService.getSuggestedFriends(2L, 10),
+                "Исключение не выброшено, или выброшено неверное исключение");
+    }
+
+    private void addUsers(int count) {
+        for (int i = 1; i <= count; i++) {
+            userStorage.addUser(new User(null, "suggested" + i + "@testemail.com", "Suggested" + i,
+                    "Name" + i, LocalDate.of(2000, Month.JANUARY, 1)));
+        }
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+
+}
@@ -0,0 +1,126 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.cache.CacheStatistics;
+import ru.yandex.practicum.filmorate.storage.cache.CachingFilmStorage;
+import ru.yandex.practicum.filmorate.storage.cache.CachingUserStorage;
+import ru.yandex.practicum.filmorate.storage.cache.StorageCacheProperties;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingStorageTests {
+    CachingFilmStorage filmStorage;
+    CachingUserStorage userStorage;
+    Film film1;
+    Film film2;
+    User user1;
+    User user2;
+
+    @BeforeEach
+    void setUp() {
+        StorageCacheProperties properties = new StorageCacheProperties();
+        filmStorage = new CachingFilmStorage(new InMemoryFilmStorage(), properties);
+        userStorage = new CachingUserStorage(new InMemoryUserStorage(), properties);
+        film1 = new Film(null, "Name of the film1", "Description of the film1",
+                LocalDate.of(1895, Month.DECEMBER, 28), 1L);
+        film2 = new Film(null, "Name of the film2", "Description of the film2",
+                LocalDate.of(1900, Month.MAY, 11), 5L);
+        user1 = new User(null, "user1@yandex.ru", "user1", "Name1", LocalDate.of(1990, Month.JANUARY, 1));
+        user2 = new User(null, "user2@yandex.ru", "user2", "Name2", LocalDate.of(1995, Month.MAY, 5));
+    }
+
+    @Test
+    void repeatedReadHitsCacheTesting() {
+        Film addedFilm = filmStorage.addFilm(film1);
+
+        filmStorage.getFilmById(addedFilm.getId());
+        filmStorage.getFilmById(addedFilm.getId());
+
+        // Проверяем, что первое чтение загрузило фильм из хранилища, а второе взяло его из кеша
+        CacheStatistics statistics = filmStorage.getStatistics();
+        assertEquals(1, statistics.missCount(), "Количество промахов не совпадает");
+        assertEquals(1, statistics.hitCount(), "Количество попаданий не совпадает");
+    }
+
+    @Test
+    void updateInvalidatesCachedFilmTesting() {
+        Film addedFilm = filmStorage.addFilm(film1);
+        filmStorage.getFilmById(addedFilm.getId());
+
+        Film updatedFilm = new Film(addedFilm.getId(), "Updated name", "Updated description",
+                LocalDate.of(1895, Month.DECEMBER, 28), 2L);
+        filmStorage.updateFilm(updatedFilm);
+
+        // Проверяем, что после обновления фильм снова загружается из хранилища с новыми данными
+        assertEquals("Updated name", filmStorage.getFilmById(addedFilm.getId()).getName(),
+                "Название не совпадает");
+        assertEquals(2, filmStorage.getStatistics().missCount(), "Количество промахов не совпадает");
+    }
+
+    @Test
+    void missingFilmIsNotCachedTesting() {
+        // Проверяем, что отсутствующий фильм не кешируется и каждый раз дает исключение
+        assertThrows(NotFoundException.class, () -> filmStorage.getFilmById(1L),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        Film addedFilm = filmStorage.addFilm(film1);
+        assertEquals(addedFilm.getId(), filmStorage.getFilmById(1L).getId(), "ID не совпадает");
+    }
+
+    @Test
+    void getFilmsByIdsKeepsOrderTesting() {
+        Film addedFilm1 = filmStorage.addFilm(film1);
+        Film addedFilm2 = filmStorage.addFilm(film2);
+        filmStorage.getFilmById(addedFilm2.getId());
+
+        List<Film> films = filmStorage.getFilmsByIds(List.of(addedFilm2.getId(), 100L, addedFilm1.getId()));
+
+        // Проверяем, что фильмы вернулись в порядке запроса без отсутствующих ID
+        assertEquals(List.of(addedFilm2.getId(), addedFilm1.getId()), films.stream().map(Film::getId).toList(),
+                "Список фильмов не совпадает");
+        assertEquals(1, filmStorage.getStatistics().hitCount(), "Количество попаданий не совпадает");
+    }
+
+    @Test
+    void removeUserKeepsCachedFilmInSyncTesting() {
+        Film addedFilm = filmStorage.addFilm(film1);
+        User addedUser = userStorage.addUser(user1);
+        filmStorage.addLike(addedFilm.getId(), addedUser.getId());
+        filmStorage.getFilmById(addedFilm.getId());
+
+        userStorage.removeUser(addedUser.getId());
+
+        // Проверяем, что лайк удаленного пользователя остался и в хранилище, и в фильме из кеша
+        assertTrue(filmStorage.getDelegate().getFilmById(addedFilm.getId()).getFilmLikedUsersId()
+                .contains(addedUser.getId()), "Лайк удаленного пользователя пропал из хранилища");
+        assertTrue(filmStorage.getFilmById(addedFilm.getId()).getFilmLikedUsersId().contains(addedUser.getId()),
+                "Лайки фильма в кеше не совпадают с хранилищем");
+    }
+
+    @Test
+    void addFriendInvalidatesBothUsersTesting() {
+        User addedUser1 = userStorage.addUser(user1);
+        User addedUser2 = userStorage.addUser(user2);
+        userStorage.getUserById(addedUser1.getId());
+        userStorage.getUserById(addedUser2.getId());
+
+        userStorage.addFriend(addedUser1.getId(), addedUser2.getId());
+        userStorage.getUserById(addedUser1.getId());
+        userStorage.getUserById(addedUser2.getId());
+
+        // Проверяем, что после добавления в друзья оба пользователя загружены из хранилища заново
+        assertEquals(4, userStorage.getStatistics().missCount(), "Количество промахов не совпадает");
+        assertTrue(userStorage.getUserById(addedUser2.getId()).getFriendsId().contains(addedUser1.getId()),
+                "Друг не добавлен");
+    }
+
+}
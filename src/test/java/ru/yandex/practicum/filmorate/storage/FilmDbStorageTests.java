@@ -0,0 +1,190 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmDbStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilmDbStorageTests {
+    EmbeddedDatabase database;
+    JdbcTemplate jdbcTemplate;
+    FilmStorage filmStorage;
+    Film film1;
+    Film film2;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        filmStorage = new FilmDbStorage(jdbcTemplate);
+        film1 = new Film(null, "Name of the film1", "Description of the film1",
+                LocalDate.of(1895, Month.DECEMBER, 28), 1L);
+        film2 = new Film(null, "Name of the film2", "Description of the film2",
+                LocalDate.of(1900, Month.MAY, 11), 5L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void addValidFilmTesting() {
+        Film addedFilm = filmStorage.addFilm(film1);
+        Film foundFilm = filmStorage.getFilmById(addedFilm.getId());
+
+        // Проверяем, что добавился фильм с корректными данными
+        assertEquals(1, foundFilm.getId(), "ID не совпадает");
+        assertEquals("Name of the film1", foundFilm.getName(), "Название не совпадает");
+        assertEquals("Description of the film1", foundFilm.getDescription(), "Описание не совпадает");
+        assertEquals(LocalDate.of(1895, 12, 28), foundFilm.getReleaseDate(), "Дата релиза не совпадает");
+        assertEquals(1L, foundFilm.getDuration(), "Длительность не совпадает");
+    }
+
+    @Test
+    void addFilmWithNullRequestTesting() {
+        ValidationException exception = assertThrows(ValidationException.class, () -> filmStorage.addFilm(null),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertEquals("Запрос на добавление фильма поступил с пустым телом", exception.getMessage(),
+                "Сообщения не совпадают");
+    }
+
+    @Test
+    void updateFilmTesting() {
+        filmStorage.addFilm(film1);
+        Film updatedFilm = new Film(1L, "Updated name", "Updated description",
+                LocalDate.of(2001, Month.MARCH, 3), 100L);
+        filmStorage.updateFilm(updatedFilm);
+
+        Film foundFilm = filmStorage.getFilmById(1L);
+        assertEquals("Updated name", foundFilm.getName(), "Название не совпадает");
+        assertEquals("Updated description", foundFilm.getDescription(), "Описание не совпадает");
+        assertEquals(LocalDate.of(2001, Month.MARCH, 3), foundFilm.getReleaseDate(), "Дата релиза не совпадает");
+        assertEquals(100L, foundFilm.getDuration(), "Длительность не совпадает");
+    }
+
+    @Test
+    void updateUnknownFilmTesting() {
+        film1.setId(999L);
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> filmStorage.updateFilm(film1),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertEquals("Попытка обновления данных фильма. Фильм с ID = 999 не найден", exception.getMessage(),
+                "Сообщения не совпадают");
+    }
+
+    @Test
+    void removeFilmTesting() {
+        filmStorage.addFilm(film1);
+        filmStorage.addLike(1L, 7L);
+        filmStorage.removeFilm(1L);
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> filmStorage.getFilmById(1L),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertEquals("Попытка получения фильма. Фильм с ID: 1 не найден", exception.getMessage(),
+                "Сообщения не совпадают");
+        assertTrue(filmStorage.getMostPopularFilms(10).isEmpty(), "Удаленный фильм остался в популярных");
+        // ID удаленного фильма повторно не выдается
+        assertEquals(2L, filmStorage.addFilm(film2).getId(), "ID не совпадает");
+    }
+
+    @Test
+    void likesAndMostPopularFilmsTesting() {
+        filmStorage.addFilm(film1);
+        filmStorage.addFilm(film2);
+        filmStorage.addFilm(new Film(null, "Name of the film3", "Description of the film3",
+                LocalDate.of(1910, Month.MAY, 11), 7L));
+        filmStorage.addLike(2L, 1L);
+        filmStorage.addLike(2L, 2L);
+        // Повторный лайк не учитывается
+        filmStorage.addLike(2L, 2L);
+        filmStorage.addLike(1L, 1L);
+        filmStorage.addLike(3L, 1L);
+        filmStorage.removeLike(3L, 1L);
+
+        assertEquals(Set.of(1L, 2L), filmStorage.getFilmById(2L).getFilmLikedUsersId(), "Лайки не совпадают");
+        assertEquals(List.of(2L, 1L), filmStorage.getMostPopularFilms(10).stream().map(Film::getId).toList(),
+                "Популярные фильмы не совпадают");
+        assertEquals(List.of(2L), filmStorage.getMostPopularFilms(1).stream().map(Film::getId).toList(),
+                "Популярные фильмы не совпадают");
+    }
+
+    @Test
+    void concurrentRepeatedLikesTesting() throws Exception {
+        filmStorage.addFilm(film1);
+        int threads = 4;
+        int usersCount = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (long userId = 1; userId <= usersCount; userId++) {
+                        filmStorage.addLike(1L, userId);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Проверяем, что одновременные повторные лайки не падают на первичном ключе и учтены в счетчике один раз
+        assertEquals(usersCount, filmStorage.getFilmById(1L).getFilmLikedUsersId().size(), "Лайки не совпадают");
+        assertEquals(usersCount, (int) jdbcTemplate.queryForObject("SELECT likes_count FROM films WHERE film_id = 1",
+                Integer.class), "Счетчик лайков не совпадает");
+    }
+
+    @Test
+    void addLikeToUnknownFilmTesting() {
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> filmStorage.addLike(5L, 1L),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertEquals("Попытка получения фильма. Фильм с ID: 5 не найден", exception.getMessage(),
+                "Сообщения не совпадают");
+    }
+
+    @Test
+    void getFilmsPageAndByIdsTesting() {
+        filmStorage.addFilm(film1);
+        filmStorage.addFilm(film2);
+        filmStorage.addLike(2L, 3L);
+
+        assertEquals(List.of(2L), filmStorage.getFilmsPage(1, 10).stream().map(Film::getId).toList(),
+                "Страница не совпадает");
+        List<Film> films = filmStorage.getFilmsByIds(List.of(2L, 42L, 1L));
+        assertEquals(List.of(2L, 1L), films.stream().map(Film::getId).toList(), "Фильмы не совпадают");
+        assertEquals(Set.of(3L), films.getFirst().getFilmLikedUsersId(), "Лайки не совпадают");
+        assertEquals(2, filmStorage.getAllFilms().size(), "Количество фильмов не совпадает");
+    }
+
+}
@@ -11,7 +11,12 @@ import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -51,6 +56,19 @@ class InMemoryFilmStorageTests {
                 exception.getMessage(), "Сообщения не совпадают");
     }
 
+    @Test
+    void addFilmsBatchTesting() {
+        filmStorage.addFilm(film1);
+
+        List<Film> addedFilms = filmStorage.addFilms(List.of(film2, new Film(null, "Name of the film3",
+                "Description of the film3", LocalDate.of(2000, Month.MARCH, 1), 90L)));
+
+        // Проверяем, что фильмы пакета получили последовательные ID и доступны в хранилище
+        assertEquals(List.of(2L, 3L), addedFilms.stream().map(Film::getId).toList(), "ID не совпадают");
+        assertEquals(3, filmStorage.getAllFilms().size(), "Количество фильмов не совпадает");
+        assertEquals("Name of the film3", filmStorage.getFilmById(3L).getName(), "Название не совпадает");
+    }
+
     @Test
     void removeValidFilmTesting() {
         Film addedFilm1 = filmStorage.addFilm(film1);
@@ -206,6 +224,63 @@ class InMemoryFilmStorageTests {
                 exception.getMessage(), "Сообщения не совпадают");
     }
 
+    @Test
+    void findFilmByIdTesting() {
+        Film addedFilm = filmStorage.addFilm(film1);
+
+        // Проверяем, что имеющийся фильм найден, а для отсутствующего и пустого ID результат пустой без исключения
+        assertEquals(addedFilm, filmStorage.findFilmById(addedFilm.getId()).orElse(null), "Фильм не найден");
+        assertTrue(filmStorage.findFilmById(3L).isEmpty(), "Найден несуществующий фильм");
+        assertTrue(filmStorage.findFilmById(null).isEmpty(), "Найден фильм по пустому ID");
+    }
+
+    @Test
+    void notFoundExceptionHasNoStackTraceTesting() {
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> filmStorage.getFilmById(3L),
+                "Исключение не выброшено, или выброшено неверное исключение");
+
+        // Проверяем, что стек вызовов не заполняется
+        assertEquals(0, exception.getStackTrace().length, "Стек вызовов заполнен");
+    }
+
+    @Test
+    void getFilmsByIdsTesting() {
+        Film film3 = new Film(null, "Name of the film3", "Description of the film3",
+                LocalDate.of(2001, Month.DECEMBER, 29), 145L);
+        Film addedFilm1 = filmStorage.addFilm(film1);
+        Film addedFilm2 = filmStorage.addFilm(film2);
+        Film addedFilm3 = filmStorage.addFilm(film3);
+
+        List<Film> receivedFilms = filmStorage.getFilmsByIds(List.of(3L, 7L, 1L, 2L));
+
+        // Проверяем, что фильмы получены в порядке запроса, а отсутствующий ID пропущен
+        assertEquals(List.of(addedFilm3, addedFilm1, addedFilm2), receivedFilms, "Списки не совпадают");
+        assertTrue(filmStorage.getFilmsByIds(List.of()).isEmpty(), "Список не пуст");
+    }
+
+    @Test
+    void getFilmsPageTesting() {
+        for (long i = 1; i <= 5; i++) {
+            filmStorage.addFilm(new Film(null, "Name of the film" + i, "Description of the film" + i,
+                    LocalDate.of(2001, Month.DECEMBER, 29), 145L));
+        }
+        filmStorage.removeFilm(3L);
+
+        List<Film> firstPage = filmStorage.getFilmsPage(0, 2);
+        List<Film> secondPage = filmStorage.getFilmsPage(firstPage.get(1).getId(), 2);
+
+        // Проверяем, что страницы идут по возрастанию ID и пропускают удаленный фильм
+        assertEquals(List.of(1L, 2L), firstPage.stream().map(Film::getId).toList(), "Первая страница не совпадает");
+        assertEquals(List.of(4L, 5L), secondPage.stream().map(Film::getId).toList(), "Вторая страница не совпадает");
+
+        filmStorage.addFilm(new Film(null, "Name of the film6", "Description of the film6",
+                LocalDate.of(2001, Month.DECEMBER, 29), 145L));
+
+        // Проверяем, что добавленный после начала обхода фильм попадает на следующую страницу
+        List<Film> thirdPage = filmStorage.getFilmsPage(secondPage.get(1).getId(), 2);
+        assertEquals(List.of(6L), thirdPage.stream().map(Film::getId).toList(), "Третья страница не совпадает");
+    }
+
     @Test
     void getNextIdTesting() {
         Film film3 = new Film(null, "Name of the film3", "Description of the film3",
@@ -235,4 +310,45 @@ class InMemoryFilmStorageTests {
         assertEquals(6, addedTestFilm3.getId(), "Генерация ID не работает");
     }
 
+    @Test
+    void removedFilmIdIsNotReusedTesting() {
+        filmStorage.addFilm(film1);
+        Film addedFilm2 = filmStorage.addFilm(film2);
+        filmStorage.removeFilm(addedFilm2.getId());
+
+        Film film3 = new Film(null, "Name of the film3", "Description of the film3",
+                LocalDate.of(2001, Month.DECEMBER, 29), 145L);
+        Film addedFilm3 = filmStorage.addFilm(film3);
+
+        // Проверяем, что ID удаленного фильма не был выдан повторно
+        assertEquals(3, addedFilm3.getId(), "ID удаленного фильма выдан повторно");
+    }
+
+    @Test
+    void concurrentAddFilmTesting() throws Exception {
+        int threadsCount = 8;
+        int filmsPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadsCount; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < filmsPerThread; j++) {
+                    filmStorage.addFilm(new Film(null, "Name of the film", "Description of the film",
+                            LocalDate.of(2000, Month.JANUARY, 1), 90L));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Проверяем, что при параллельном добавлении ни один фильм не потерялся и все ID уникальны
+        List<Film> allFilms = filmStorage.getAllFilms();
+        Set<Long> ids = new HashSet<>();
+        allFilms.forEach(film -> ids.add(film.getId()));
+        assertEquals(threadsCount * filmsPerThread, allFilms.size(), "Неверное количество элементов в списке");
+        assertEquals(threadsCount * filmsPerThread, ids.size(), "ID фильмов повторяются");
+    }
+
 }
\ No newline at end of file
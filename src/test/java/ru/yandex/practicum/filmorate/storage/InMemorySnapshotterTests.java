@@ -0,0 +1,112 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.snapshot.InMemorySnapshotter;
+import ru.yandex.practicum.filmorate.storage.snapshot.SnapshotProperties;
+import ru.yandex.practicum.filmorate.storage.snapshot.SnapshotResult;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemorySnapshotterTests {
+    static final int FILMS_COUNT = 3000;
+    static final int USERS_COUNT = 2500;
+
+    Path directory;
+    SnapshotProperties properties;
+    InMemoryFilmStorage filmStorage;
+    InMemoryUserStorage userStorage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("filmorate-snapshot");
+        properties = new SnapshotProperties();
+        properties.setFile(directory.resolve("memory-snapshot.bin"));
+        properties.setLoadThreads(4);
+        filmStorage = new InMemoryFilmStorage();
+        userStorage = new InMemoryUserStorage();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void snapshotAndLoadTesting() throws IOException {
+        fillStorages();
+        filmStorage.removeFilm((long) FILMS_COUNT);
+        SnapshotResult written = new InMemorySnapshotter(filmStorage, userStorage, properties).snapshot();
+
+        InMemoryFilmStorage restoredFilms = new InMemoryFilmStorage();
+        InMemoryUserStorage restoredUsers = new InMemoryUserStorage();
+        new InMemorySnapshotter(restoredFilms, restoredUsers, properties);
+
+        // Проверяем, что снимок из нескольких блоков восстановил все объекты с лайками и друзьями
+        assertEquals(FILMS_COUNT - 1, written.films(), "Количество фильмов в снимке не совпадает");
+        assertEquals(USERS_COUNT, written.users(), "Количество пользователей в снимке не совпадает");
+        assertEquals(FILMS_COUNT - 1, restoredFilms.getAllFilms().size(), "Количество фильмов не совпадает");
+        assertEquals(USERS_COUNT, restoredUsers.getAllUsers().size(), "Количество пользователей не совпадает");
+        assertEquals("Name of the film10", restoredFilms.getFilmById(10L).getName(), "Название не совпадает");
+        assertEquals(Set.of(1L, 2L), restoredFilms.getFilmById(2L).getFilmLikedUsersId(), "Лайки не совпадают");
+        assertEquals(2L, restoredFilms.getMostPopularFilms(1).getFirst().getId(), "Популярный фильм не совпадает");
+        assertEquals(Set.of(2L), restoredUsers.getUserById(1L).getFriendsId(), "Друзья не совпадают");
+        assertEquals(5L, restoredUsers.getUserByEmail("user5@yandex.ru").getId(), "ID не совпадает");
+
+        // Проверяем, что ID удаленного последним фильма не будет выдан повторно
+        Film film = new Film(null, "New film", "New description", LocalDate.of(2000, Month.JANUARY, 1), 90L);
+        assertEquals(FILMS_COUNT + 1, restoredFilms.addFilm(film).getId(), "ID не совпадает");
+    }
+
+    @Test
+    void corruptedSnapshotIsRejectedTesting() throws IOException {
+        fillStorages();
+        new InMemorySnapshotter(filmStorage, userStorage, properties).snapshot();
+        try (SeekableByteChannel channel = Files.newByteChannel(properties.getFile(), StandardOpenOption.WRITE)) {
+            channel.position(200);
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}));
+        }
+
+        // Проверяем, что поврежденный блок не загружается молча
+        assertThrows(IOException.class,
+                () -> new InMemorySnapshotter(new InMemoryFilmStorage(), new InMemoryUserStorage(), properties),
+                "Исключение не выброшено, или выброшено неверное исключение");
+    }
+
+    void fillStorages() {
+        for (int i = 1; i <= FILMS_COUNT; i++) {
+            filmStorage.addFilm(new Film(null, "Name of the film" + i, "Description of the film" + i,
+                    LocalDate.of(1895, Month.DECEMBER, 28).plusDays(i), (long) i));
+        }
+        for (int i = 1; i <= USERS_COUNT; i++) {
+            userStorage.addUser(new User(null, "user" + i + "@yandex.ru", "user" + i, "Name" + i,
+                    LocalDate.of(1990, Month.JANUARY, 1)));
+        }
+        filmStorage.addLike(2L, 1L);
+        filmStorage.addLike(2L, 2L);
+        filmStorage.addLike(3L, 1L);
+        userStorage.addFriend(1L, 2L);
+    }
+
+}
@@ -11,7 +11,12 @@ import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -82,6 +87,25 @@ class InMemoryUserStorageTests {
         assertEquals("TestLogin", addedUser2.getName(), "Имя не совпадает с логином");
     }
 
+    @Test
+    void addUsersBatchTesting() {
+        userStorage.addUser(user1);
+        User user3 = new User(null, "TestEmail1@testemail.com", "TestLogin3", "TestName3",
+                LocalDate.of(2000, Month.JANUARY, 15));
+        User user4 = new User(null, "testemail4@testemail.com", "TestLogin4", null,
+                LocalDate.of(2000, Month.JANUARY, 15));
+
+        List<User> addedUsers = userStorage.addUsers(List.of(user2, user3, user4));
+
+        // Проверяем, что пользователь с занятым E-mail пропущен, а остальные получили ID из одного блока
+        assertEquals(List.of(user2, user4), addedUsers, "Список добавленных пользователей не совпадает");
+        assertEquals(2, user2.getId(), "ID не совпадает");
+        assertNull(user3.getId(), "Пропущенному пользователю назначен ID");
+        assertEquals(4, user4.getId(), "ID не совпадает");
+        assertEquals("TestLogin4", user4.getName(), "Имя не совпадает с логином");
+        assertEquals(user4, userStorage.getUserByEmail("testemail4@testemail.com"), "Пользователь не найден");
+    }
+
     @Test
     void removeValidUserTesting() {
         User addedUser1 = userStorage.addUser(user1);
@@ -249,6 +273,18 @@ class InMemoryUserStorageTests {
         assertEquals(LocalDate.of(2005, 6, 4), receivedUser.getBirthday(), "Дата рождения не совпадает");
     }
 
+    @Test
+    void findUserByIdTesting() {
+        User user = new User(null, "testemail@testemail.com", "TestLogin", "TestName",
+                LocalDate.of(2000, Month.JANUARY, 15));
+        User addedUser = userStorage.addUser(user);
+
+        // Проверяем, что имеющийся пользователь найден, а для отсутствующего ID результат пустой без исключения
+        assertEquals(addedUser, userStorage.findUserById(addedUser.getId()).orElse(null),
+                "Пользователь не найден");
+        assertTrue(userStorage.findUserById(2L).isEmpty(), "Найден несуществующий пользователь");
+    }
+
     @Test
     void getUserByInvalidIdTesting() {
         User user1 = new User(null, "testemail@testemail.com", "TestLogin", "TestName",
@@ -268,6 +304,29 @@ class InMemoryUserStorageTests {
                 exception.getMessage(), "Сообщения не совпадают");
     }
 
+    @Test
+    void getUsersByIdsTesting() {
+        User addedUser1 = userStorage.addUser(user1);
+        User addedUser2 = userStorage.addUser(user2);
+
+        List<User> receivedUsers = userStorage.getUsersByIds(List.of(2L, 5L, 1L));
+
+        // Проверяем, что пользователи получены в порядке запроса, а отсутствующий ID пропущен
+        assertEquals(List.of(addedUser2, addedUser1), receivedUsers, "Списки не совпадают");
+    }
+
+    @Test
+    void getUsersPageTesting() {
+        User addedUser1 = userStorage.addUser(user1);
+        User addedUser2 = userStorage.addUser(user2);
+
+        // Проверяем, что страницы идут по возрастанию ID, а после последнего пользователя страница пуста
+        assertEquals(List.of(addedUser1), userStorage.getUsersPage(0, 1), "Первая страница не совпадает");
+        assertEquals(List.of(addedUser2), userStorage.getUsersPage(addedUser1.getId(), 5),
+                "Вторая страница не совпадает");
+        assertTrue(userStorage.getUsersPage(addedUser2.getId(), 5).isEmpty(), "Страница не пуста");
+    }
+
     @Test
     void getNextIdTesting() {
         User user1 = new User(null, "testemail@testemail.com", "TestLogin", "TestName",
@@ -301,4 +360,98 @@ class InMemoryUserStorageTests {
         assertEquals(6, addedTestUser3.getId(), "Генерация ID не работает");
     }
 
+    @Test
+    void getUserByEmailTesting() {
+        userStorage.addUser(user1);
+        User addedUser2 = userStorage.addUser(user2);
+
+        // Проверяем, что пользователь находится по E-mail без учета регистра
+        assertEquals(addedUser2, userStorage.getUserByEmail("TestEmail2@TestEmail.com"),
+                "Найден неверный пользователь");
+
+        // Проверяем, что после смены E-mail поиск работает по новому значению, а старое освобождается
+        userStorage.updateUser(new User(addedUser2.getId(), "newemail@testemail.com", "TestLogin2", "TestName2",
+                LocalDate.of(2005, Month.JUNE, 4)));
+        assertEquals(addedUser2, userStorage.getUserByEmail("newemail@testemail.com"), "Найден неверный пользователь");
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> userStorage.getUserByEmail("testemail2@testemail.com"),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertEquals("Попытка получения пользователя. Пользователь с E-mail: testemail2@testemail.com не найден",
+                exception.getMessage(), "Сообщения не совпадают");
+
+        // Проверяем, что E-mail удаленного пользователя снова можно использовать
+        userStorage.removeUser(addedUser2.getId());
+        User user3 = new User(null, "newemail@testemail.com", "TestLogin3", "TestName3",
+                LocalDate.of(2005, Month.JUNE, 4));
+        assertDoesNotThrow(() -> userStorage.addUser(user3), "E-mail удаленного пользователя не освободился");
+    }
+
+    @Test
+    void addUserWithExistingEmailInOtherCaseTesting() {
+        User user3 = new User(null, "TESTEMAIL1@testemail.com", "SecondTestLogin", "SecondTestName",
+                LocalDate.of(2000, Month.JANUARY, 15));
+        userStorage.addUser(user1);
+
+        // Проверяем, что E-mail сравнивается без учета регистра
+        ValidationException exception = assertThrows(ValidationException.class, () -> userStorage.addUser(user3),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertEquals("Указанный E-mail: " + user3.getEmail() + " уже используется",
+                exception.getMessage(), "Сообщения не совпадают");
+    }
+
+    @Test
+    void getUsersByLoginTesting() {
+        User user3 = new User(null, "testemail3@testemail.com", "TestLogin1", "TestName3",
+                LocalDate.of(2000, Month.JANUARY, 15));
+        User addedUser1 = userStorage.addUser(user1);
+        User addedUser2 = userStorage.addUser(user2);
+        User addedUser3 = userStorage.addUser(user3);
+
+        // Проверяем, что по логину находятся все пользователи с этим логином
+        assertEquals(List.of(addedUser1, addedUser3), userStorage.getUsersByLogin("testlogin1"),
+                "Списки не совпадают");
+
+        userStorage.updateUser(new User(addedUser1.getId(), "testemail1@testemail.com", "NewTestLogin", "TestName1",
+                LocalDate.of(2000, Month.JANUARY, 15)));
+
+        // Проверяем, что индекс логинов обновился вместе с пользователем
+        assertEquals(List.of(addedUser3), userStorage.getUsersByLogin("TestLogin1"), "Списки не совпадают");
+        assertEquals(List.of(addedUser1), userStorage.getUsersByLogin("NewTestLogin"), "Списки не совпадают");
+        assertEquals(List.of(addedUser2), userStorage.getUsersByLogin("TestLogin2"), "Списки не совпадают");
+        assertTrue(userStorage.getUsersByLogin("UnknownLogin").isEmpty(), "Список не пуст");
+    }
+
+    @Test
+    void concurrentAddAndUpdateUserTesting() throws Exception {
+        int threadsCount = 8;
+        int usersPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadsCount; i++) {
+            int threadNumber = i;
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < usersPerThread; j++) {
+                    User addedUser = userStorage.addUser(new User(null,
+                            "user" + threadNumber + "_" + j + "@testemail.com", "TestLogin", "TestName",
+                            LocalDate.of(2000, Month.JANUARY, 15)));
+                    userStorage.updateUser(new User(addedUser.getId(), addedUser.getEmail(), "UpdatedLogin",
+                            "UpdatedName", LocalDate.of(2001, Month.FEBRUARY, 20)));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Проверяем, что при параллельной работе ни один пользователь и ни одно обновление не потерялись
+        List<User> allUsers = userStorage.getAllUsers();
+        Set<Long> ids = new HashSet<>();
+        allUsers.forEach(user -> ids.add(user.getId()));
+        assertEquals(threadsCount * usersPerThread, allUsers.size(), "Неверное количество элементов в списке");
+        assertEquals(threadsCount * usersPerThread, ids.size(), "ID пользователей повторяются");
+        assertTrue(allUsers.stream().allMatch(user -> user.getLogin().equals("UpdatedLogin")),
+                "Не все обновления применены");
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.mmap.MappedFilmStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.storage.StorageTestData.film;
+
+class MappedFilmStorageTests {
+    // Маленькая область, чтобы записи и строки гарантированно попадали в разные области файла
+    static final int REGION_SIZE = 4096;
+
+    Path directory;
+    MappedFilmStorage filmStorage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("filmorate-mmap");
+        filmStorage = new MappedFilmStorage(directory, REGION_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        filmStorage.close();
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    void addAndGetFilmTesting() {
+        Film addedFilm = filmStorage.addFilm(film(1));
+        Film foundFilm = filmStorage.getFilmById(addedFilm.getId());
+
+        assertEquals(1L, foundFilm.getId(), "ID не совпадает");
+        assertEquals("Name of the film1", foundFilm.getName(), "Название не совпадает");
+        assertEquals("Description of the film1", foundFilm.getDescription(), "Описание не совпадает");
+        assertEquals(LocalDate.of(2000, Month.JANUARY, 1), foundFilm.getReleaseDate(), "Дата релиза не совпадает");
+        assertEquals(91L, foundFilm.getDuration(), "Длительность не совпадает");
+    }
+
+    @Test
+    void manyFilmsAcrossRegionsTesting() {
+        for (int i = 1; i <= 1000; i++) {
+            filmStorage.addFilm(film(i));
+        }
+
+        // Проверяем, что записи из разных областей файла читаются корректно
+        assertEquals(1000, filmStorage.getAllFilms().size(), "Количество фильмов не совпадает");
+        assertEquals("Description of the film777", filmStorage.getFilmById(777L).getDescription(),
+                "Описание не совпадает");
+        assertEquals(List.of(501L, 502L), filmStorage.getFilmsPage(500, 2).stream().map(Film::getId).toList(),
+                "Страница не совпадает");
+    }
+
+    @Test
+    void updateFilmInPlaceAndWithLongerStringTesting() {
+        filmStorage.addFilm(film(1));
+        filmStorage.addFilm(film(2));
+        Film updatedFilm = film(1);
+        updatedFilm.setId(1L);
+        updatedFilm.setName("Short");
+        updatedFilm.setDescription("Much longer description than the original one".repeat(3));
+        updatedFilm.setDuration(120L);
+        filmStorage.updateFilm(updatedFilm);
+
+        Film foundFilm = filmStorage.getFilmById(1L);
+        assertEquals("Short", foundFilm.getName(), "Название не совпадает");
+        assertEquals(updatedFilm.getDescription(), foundFilm.getDescription(), "Описание не совпадает");
+        assertEquals(120L, foundFilm.getDuration(), "Длительность не совпадает");
+        // Соседний фильм не затронут перезаписью
+        assertEquals("Description of the film2", filmStorage.getFilmById(2L).getDescription(),
+                "Описание соседнего фильма изменилось");
+    }
+
+    @Test
+    void updateUnknownFilmTesting() {
+        Film unknownFilm = film(1);
+        unknownFilm.setId(1_000_000_000L);
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> filmStorage.updateFilm(unknownFilm),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertEquals("Попытка обновления данных фильма. Фильм с ID = 1000000000 не найден", exception.getMessage(),
+                "Сообщения не совпадают");
+    }
+
+    @Test
+    void removeFilmTesting() {
+        filmStorage.addFilm(film(1));
+        filmStorage.addLike(1L, 5L);
+        filmStorage.removeFilm(1L);
+
+        assertThrows(NotFoundException.class, () -> filmStorage.getFilmById(1L), "Фильм не удален");
+        assertTrue(filmStorage.getMostPopularFilms(10).isEmpty(), "Удаленный фильм остался в популярных");
+        assertEquals(2L, filmStorage.addFilm(film(2)).getId(), "ID удаленного фильма выдан повторно");
+    }
+
+    @Test
+    void likesAndPopularFilmsTesting() {
+        for (int i = 1; i <= 3; i++) {
+            filmStorage.addFilm(film(i));
+        }
+        filmStorage.addLike(2L, 1L);
+        filmStorage.addLike(2L, 2L);
+        filmStorage.addLike(3L, 1L);
+        filmStorage.removeLike(3L, 1L);
+
+        assertEquals(Set.of(1L, 2L), filmStorage.getFilmById(2L).getFilmLikedUsersId(), "Лайки не совпадают");
+        assertEquals(List.of(2L), filmStorage.getMostPopularFilms(10).stream().map(Film::getId).toList(),
+                "Популярные фильмы не совпадают");
+    }
+
+    @Test
+    void concurrentReadsDuringUpdatesTesting() throws Exception {
+        filmStorage.addFilm(film(1));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    Film updatedFilm = film(1);
+                    updatedFilm.setId(1L);
+                    updatedFilm.setName("Name " + "x".repeat(i % 50));
+                    filmStorage.updateFilm(updatedFilm);
+                }
+            });
+            Future<?> reader = executor.submit(() -> {
+                while (!writer.isDone()) {
+                    // Читатель никогда не видит частично записанное название
+                    assertTrue(filmStorage.getFilmById(1L).getName().matches("Name x*|Name of the film1"),
+                            "Прочитано несогласованное название");
+                }
+            });
+            writer.get();
+            reader.get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.metrics.MeteredFilmStorage;
+import ru.yandex.practicum.filmorate.storage.metrics.MeteredUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeteredStorageTests {
+    MeterRegistry registry;
+    MeteredFilmStorage filmStorage;
+    MeteredUserStorage userStorage;
+    Film film1;
+    User user1;
+    User user2;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filmStorage = new MeteredFilmStorage(new InMemoryFilmStorage(), registry);
+        userStorage = new MeteredUserStorage(new InMemoryUserStorage(), registry);
+        film1 = new Film(null, "Name of the film1", "Description of the film1",
+                LocalDate.of(1895, Month.DECEMBER, 28), 1L);
+        user1 = new User(null, "user1@yandex.ru", "user1", "Name1", LocalDate.of(1990, Month.JANUARY, 1));
+        user2 = new User(null, "user2@yandex.ru", "user2", "Name2", LocalDate.of(1995, Month.MAY, 5));
+    }
+
+    @Test
+    void storageCallsAreTimedTesting() {
+        Film addedFilm = filmStorage.addFilm(film1);
+        filmStorage.getFilmById(addedFilm.getId());
+        filmStorage.getFilmById(addedFilm.getId());
+        filmStorage.getMostPopularFilms(10);
+
+        // Проверяем, что каждый вызов записан в таймер своего метода
+        assertEquals(2, registry.get("filmorate.storage").tag("entity", "film").tag("method", "findFilmById")
+                .timer().count(), "Количество замеров не совпадает");
+        assertEquals(1, registry.get("filmorate.storage").tag("method", "getMostPopularFilms")
+                .timer().count(), "Количество замеров не совпадает");
+    }
+
+    @Test
+    void failedCallIsTimedButNotCountedTesting() {
+        User addedUser = userStorage.addUser(user1);
+
+        assertThrows(NotFoundException.class, () -> filmStorage.addLike(999L, addedUser.getId()),
+                "Лайк несуществующему фильму не вызвал исключение");
+
+        // Проверяем, что неудачный вызов замерен, но лайк не посчитан
+        assertEquals(1, registry.get("filmorate.storage").tag("method", "addLike").timer().count(),
+                "Количество замеров не совпадает");
+        assertEquals(0, registry.get("filmorate.likes").tag("action", "add").counter().count(),
+                "Количество лайков не совпадает");
+    }
+
+    @Test
+    void likesAndFriendshipsAreCountedTesting() {
+        Film addedFilm = filmStorage.addFilm(film1);
+        User firstUser = userStorage.addUser(user1);
+        User secondUser = userStorage.addUser(user2);
+
+        filmStorage.addLike(addedFilm.getId(), firstUser.getId());
+        filmStorage.addLike(addedFilm.getId(), secondUser.getId());
+        filmStorage.removeLike(addedFilm.getId(), secondUser.getId());
+        userStorage.addFriend(firstUser.getId(), secondUser.getId());
+
+        assertEquals(2, registry.get("filmorate.likes").tag("action", "add").counter().count(),
+                "Количество добавленных лайков не совпадает");
+        assertEquals(1, registry.get("filmorate.likes").tag("action", "remove").counter().count(),
+                "Количество удаленных лайков не совпадает");
+        assertEquals(1, registry.get("filmorate.friendships").tag("action", "add").counter().count(),
+                "Количество добавленных дружб не совпадает");
+        assertEquals(1, registry.get("filmorate.friends").summary().max(),
+                "Число друзей не совпадает");
+    }
+
+    @Test
+    void entityAndEdgeGaugesTesting() {
+        Film addedFilm = filmStorage.addFilm(film1);
+        User firstUser = userStorage.addUser(user1);
+        User secondUser = userStorage.addUser(user2);
+        filmStorage.addLike(addedFilm.getId(), firstUser.getId());
+        userStorage.addFriend(firstUser.getId(), secondUser.getId());
+
+        // Проверяем, что взаимная дружба считается одной связью
+        assertEquals(1, registry.get("filmorate.entities").tag("type", "films").gauge().value(),
+                "Количество фильмов не совпадает");
+        assertEquals(1, registry.get("filmorate.edges").tag("type", "likes").gauge().value(),
+                "Количество лайков не совпадает");
+        assertEquals(2, registry.get("filmorate.entities").tag("type", "users").gauge().value(),
+                "Количество пользователей не совпадает");
+        assertEquals(1, registry.get("filmorate.edges").tag("type", "friendships").gauge().value(),
+                "Количество дружб не совпадает");
+    }
+
+    @Test
+    void decoratorExposesDelegateTesting() {
+        // Проверяем, что из цепочки декораторов достается хранилище в памяти
+        assertTrue(StorageDecorator.find(filmStorage, InMemoryFilmStorage.class).isPresent(),
+                "Хранилище в памяти не найдено");
+        assertTrue(StorageDecorator.find(userStorage, InMemoryUserStorage.class).isPresent(),
+                "Хранилище в памяти не найдено");
+    }
+
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.ReactiveFilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.ReactiveFilmStorageAdapter;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.ReactiveUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.ReactiveUserStorageAdapter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.storage.StorageTestData.film;
+import static ru.yandex.practicum.filmorate.storage.StorageTestData.user;
+
+class ReactiveStorageAdapterTests {
+    InMemoryFilmStorage inMemoryFilmStorage;
+    ReactiveFilmStorage filmStorage;
+    ReactiveUserStorage userStorage;
+
+    @BeforeEach
+    void setUp() {
+        inMemoryFilmStorage = new InMemoryFilmStorage();
+        filmStorage = new ReactiveFilmStorageAdapter(inMemoryFilmStorage, Schedulers.immediate());
+        userStorage = new ReactiveUserStorageAdapter(new InMemoryUserStorage(), Schedulers.immediate());
+    }
+
+    @Test
+    void getAllFilmsStreamsAllPagesTesting() {
+        for (int i = 1; i <= 1201; i++) {
+            inMemoryFilmStorage.addFilm(film(i));
+        }
+        List<Long> ids = filmStorage.getAllFilms().map(Film::getId).collectList().block();
+
+        // Проверяем, что поток прошел все страницы хранилища по порядку ID
+        assertNotNull(ids, "Список не получен");
+        assertEquals(1201, ids.size(), "Количество фильмов не совпадает");
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i + 1, ids.get(i), "Порядок фильмов не совпадает");
+        }
+    }
+
+    @Test
+    void callIsDeferredUntilSubscriptionTesting() {
+        filmStorage.addFilm(film(1));
+
+        // Проверяем, что хранилище не вызывается до подписки
+        assertTrue(inMemoryFilmStorage.getAllFilms().isEmpty(), "Фильм добавлен без подписки");
+    }
+
+    @Test
+    void notFoundIsSignalledAsErrorTesting() {
+        // Проверяем, что исключение хранилища передается сигналом ошибки, а не выбрасывается при вызове
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> userStorage.getUserById(1L).block(),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertTrue(exception.getMessage().contains("1"), "Сообщение не содержит ID");
+    }
+
+    @Test
+    void addFriendTesting() {
+        User firstUser = userStorage.addUser(user(1)).block();
+        User secondUser = userStorage.addUser(user(2)).block();
+        assertNotNull(firstUser, "Пользователь не добавлен");
+        assertNotNull(secondUser, "Пользователь не добавлен");
+        userStorage.addFriend(firstUser.getId(), secondUser.getId()).block();
+
+        // Проверяем, что дружба взаимна
+        assertEquals(1, userStorage.getUserById(firstUser.getId()).block().getFriendsId().size(),
+                "Количество друзей не совпадает");
+        assertEquals(1, userStorage.getUserById(secondUser.getId()).block().getFriendsId().size(),
+                "Количество друзей не совпадает");
+    }
+
+}
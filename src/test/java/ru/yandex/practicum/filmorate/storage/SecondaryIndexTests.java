@@ -0,0 +1,60 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.storage.user.SecondaryIndex;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecondaryIndexTests {
+
+    @Test
+    void uniqueIndexTesting() {
+        SecondaryIndex index = new SecondaryIndex(true);
+
+        // Проверяем, что значение занимается одним ID, а повторное добавление того же ID допустимо
+        assertTrue(index.add("TestEmail@TestEmail.com", 1L), "Значение не добавлено");
+        assertTrue(index.add("testemail@testemail.com", 1L), "Повторное добавление того же ID отклонено");
+        assertFalse(index.add(" testemail@testemail.com ", 2L), "Значение занято другим ID");
+        assertEquals(Set.of(1L), index.find("TESTEMAIL@testemail.com"), "Найден неверный ID");
+    }
+
+    @Test
+    void nonUniqueIndexTesting() {
+        SecondaryIndex index = new SecondaryIndex(false);
+        index.add("TestLogin", 1L);
+        index.add("testlogin", 2L);
+
+        // Проверяем, что под одним значением хранится несколько ID
+        assertEquals(Set.of(1L, 2L), index.find("TestLogin"), "Найдены неверные ID");
+
+        index.remove("TestLogin", 1L);
+        index.remove("TestLogin", 2L);
+
+        // Проверяем, что после удаления всех ID значение освободилось
+        assertFalse(index.contains("TestLogin"), "Значение не освободилось");
+        assertTrue(index.find("TestLogin").isEmpty(), "Список ID не пуст");
+    }
+
+    @Test
+    void replaceTesting() {
+        SecondaryIndex index = new SecondaryIndex(true);
+        index.add("first@testemail.com", 1L);
+        index.add("second@testemail.com", 2L);
+
+        // Проверяем, что занятое значение не переносится, а старое значение сохраняется
+        assertFalse(index.replace("first@testemail.com", "second@testemail.com", 1L), "Значение перенесено");
+        assertEquals(Set.of(1L), index.find("first@testemail.com"), "Старое значение потеряно");
+
+        // Проверяем, что смена регистра не освобождает значение
+        assertTrue(index.replace("first@testemail.com", "FIRST@testemail.com", 1L), "Значение не перенесено");
+        assertEquals(Set.of(1L), index.find("first@testemail.com"), "Значение потеряно при смене регистра");
+
+        // Проверяем, что свободное значение переносится, а старое освобождается
+        assertTrue(index.replace("first@testemail.com", "third@testemail.com", 1L), "Значение не перенесено");
+        assertFalse(index.contains("first@testemail.com"), "Старое значение не освободилось");
+        assertEquals(Set.of(1L), index.find("third@testemail.com"), "Найден неверный ID");
+    }
+
+}
@@ -0,0 +1,53 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceIdGeneratorTests {
+    IdGenerator idGenerator;
+
+    @BeforeEach
+    void setUp() {
+        idGenerator = new SequenceIdGenerator();
+    }
+
+    @Test
+    void nextIdTesting() {
+        // Проверяем, что ID выдаются последовательно, начиная с 1
+        assertEquals(0, idGenerator.currentId(), "Начальное значение не совпадает");
+        assertEquals(1, idGenerator.nextId(), "Генерация ID не работает");
+        assertEquals(2, idGenerator.nextId(), "Генерация ID не работает");
+        assertEquals(2, idGenerator.currentId(), "Последний выданный ID не совпадает");
+    }
+
+    @Test
+    void allocateBlockTesting() {
+        idGenerator.nextId();
+        long firstId = idGenerator.allocateBlock(5);
+
+        // Проверяем, что блок начинается со следующего ID, а после блока выдача продолжается без пересечений
+        assertEquals(2, firstId, "Первый ID блока не совпадает");
+        assertEquals(6, idGenerator.currentId(), "Последний выданный ID не совпадает");
+        assertEquals(7, idGenerator.nextId(), "Генерация ID после блока не работает");
+
+        // Проверяем, что нельзя зарезервировать пустой блок
+        assertThrows(IllegalArgumentException.class, () -> idGenerator.allocateBlock(0),
+                "Исключение не выброшено, или выброшено неверное исключение");
+    }
+
+    @Test
+    void seedTesting() {
+        idGenerator.seed(100);
+
+        // Проверяем, что после восстановления выдача продолжается с верхней границы
+        assertEquals(101, idGenerator.nextId(), "Генерация ID после восстановления не работает");
+
+        idGenerator.seed(50);
+
+        // Проверяем, что верхнюю границу нельзя опустить ниже уже выданных ID
+        assertEquals(102, idGenerator.nextId(), "Верхняя граница ID опустилась");
+    }
+
+}
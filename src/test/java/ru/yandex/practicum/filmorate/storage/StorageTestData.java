@@ -0,0 +1,26 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+// Тестовые фильмы и пользователи для хранилищ: у объекта с номером number уникальные имя, E-mail и логин,
+// а даты сдвигаются на number - 1 дней, поэтому номер может быть любым положительным.
+final class StorageTestData {
+
+    private StorageTestData() {
+    }
+
+    static Film film(int number) {
+        return new Film(null, "Name of the film" + number, "Description of the film" + number,
+                LocalDate.of(2000, Month.JANUARY, 1).plusDays(number - 1), 90L + number);
+    }
+
+    static User user(int number) {
+        return new User(null, "user" + number + "@testemail.com", "TestLogin" + number, "TestName" + number,
+                LocalDate.of(1990, Month.JANUARY, 1).plusDays(number - 1));
+    }
+
+}
@@ -0,0 +1,139 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.UserDbStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.storage.StorageTestData.user;
+
+class UserDbStorageTests {
+    EmbeddedDatabase database;
+    UserStorage userStorage;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("schema.sql")
+                .build();
+        userStorage = new UserDbStorage(new JdbcTemplate(database));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void addValidUserTesting() {
+        userStorage.addUser(user(1));
+        User foundUser = userStorage.getUserById(1L);
+
+        assertEquals("user1@testemail.com", foundUser.getEmail(), "E-mail не совпадает");
+        assertEquals("TestLogin1", foundUser.getLogin(), "Логин не совпадает");
+        assertEquals("TestName1", foundUser.getName(), "Имя не совпадает");
+        assertEquals(LocalDate.of(1990, Month.JANUARY, 1), foundUser.getBirthday(), "Дата рождения не совпадает");
+    }
+
+    @Test
+    void addUserWithEmptyNameTesting() {
+        User user = user(1);
+        user.setName(" ");
+
+        assertEquals("TestLogin1", userStorage.addUser(user).getName(), "Имя не заменено логином");
+    }
+
+    @Test
+    void addUserWithExistingEmailInOtherCaseTesting() {
+        userStorage.addUser(user(1));
+        User user = user(2);
+        user.setEmail(" USER1@testemail.com ");
+
+        ValidationException exception = assertThrows(ValidationException.class, () -> userStorage.addUser(user),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertEquals("Указанный E-mail:  USER1@testemail.com  уже используется", exception.getMessage(),
+                "Сообщения не совпадают");
+    }
+
+    @Test
+    void updateUserWithExistingEmailTesting() {
+        userStorage.addUser(user(1));
+        userStorage.addUser(user(2));
+        User updatedUser = user(2);
+        updatedUser.setId(2L);
+        updatedUser.setEmail("user1@testemail.com");
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> userStorage.updateUser(updatedUser),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertEquals("Обновляемый E-mail: user1@testemail.com уже используется", exception.getMessage(),
+                "Сообщения не совпадают");
+        assertEquals("user2@testemail.com", userStorage.getUserById(2L).getEmail(), "E-mail изменился");
+    }
+
+    @Test
+    void getUserByEmailAndLoginTesting() {
+        userStorage.addUser(user(1));
+        User sameLoginUser = user(2);
+        sameLoginUser.setLogin("testlogin1");
+        userStorage.addUser(sameLoginUser);
+
+        assertEquals(1L, userStorage.getUserByEmail("USER1@testemail.com").getId(), "ID не совпадает");
+        assertEquals(List.of(1L, 2L), userStorage.getUsersByLogin("TestLogin1").stream().map(User::getId).toList(),
+                "Пользователи не совпадают");
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> userStorage.getUserByEmail("unknown@testemail.com"),
+                "Исключение не выброшено, или выброшено неверное исключение");
+        assertEquals("Попытка получения пользователя. Пользователь с E-mail: unknown@testemail.com не найден",
+                exception.getMessage(), "Сообщения не совпадают");
+    }
+
+    @Test
+    void friendsAndMutualFriendsTesting() {
+        for (int i = 1; i <= 4; i++) {
+            userStorage.addUser(user(i));
+        }
+        userStorage.addFriend(1L, 3L);
+        userStorage.addFriend(1L, 4L);
+        userStorage.addFriend(2L, 3L);
+        userStorage.addFriend(2L, 4L);
+        userStorage.addFriend(1L, 2L);
+        userStorage.removeFriend(1L, 2L);
+
+        assertEquals(Set.of(3L, 4L), userStorage.getUserById(1L).getFriendsId(), "Друзья не совпадают");
+        assertEquals(Set.of(1L, 2L), userStorage.getUserById(3L).getFriendsId(), "Друзья не совпадают");
+        assertEquals(List.of(3L, 4L), userStorage.getMutualFriends(1L, 2L).stream().map(User::getId).toList(),
+                "Общие друзья не совпадают");
+        assertEquals(2, userStorage.getMutualFriendsCount(1L, 2L), "Количество общих друзей не совпадает");
+    }
+
+    @Test
+    void removeUserTesting() {
+        userStorage.addUser(user(1));
+        userStorage.addUser(user(2));
+        userStorage.addFriend(1L, 2L);
+        userStorage.removeUser(1L);
+
+        assertThrows(NotFoundException.class, () -> userStorage.getUserById(1L), "Пользователь не удален");
+        assertTrue(userStorage.getUserById(2L).getFriendsId().isEmpty(), "Дружба с удаленным пользователем осталась");
+        // E-mail удаленного пользователя снова свободен
+        assertEquals(3L, userStorage.addUser(user(1)).getId(), "ID не совпадает");
+    }
+
+}
@@ -0,0 +1,227 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.storage.wal.FsyncPolicy;
+import ru.yandex.practicum.filmorate.storage.wal.WalFilmStorage;
+import ru.yandex.practicum.filmorate.storage.wal.WalProperties;
+import ru.yandex.practicum.filmorate.storage.wal.WalStorageEngine;
+import ru.yandex.practicum.filmorate.storage.wal.WalUserStorage;
+import ru.yandex.practicum.filmorate.storage.wal.WriteAheadLog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.yandex.practicum.filmorate.storage.StorageTestData.film;
+import static ru.yandex.practicum.filmorate.storage.StorageTestData.user;
+
+class WalStorageEngineTests {
+    Path directory;
+    WalProperties properties;
+    WalStorageEngine engine;
+    FilmStorage filmStorage;
+    UserStorage userStorage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("filmorate-wal");
+        properties = new WalProperties();
+        properties.setDirectory(directory);
+        properties.setFsyncPolicy(FsyncPolicy.NEVER);
+        properties.setSnapshotOnShutdown(false);
+        start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        engine.close();
+        deleteDirectory();
+    }
+
+    @Test
+    void recoverFromLogTesting() throws IOException {
+        fillStorages();
+        restart();
+
+        assertRecoveredState();
+    }
+
+    @Test
+    void recoverFromSnapshotAndLogTailTesting() throws IOException {
+        fillStorages();
+        engine.snapshot();
+        // Старые сегменты журнала удаляются после снимка
+        assertEquals(1, WriteAheadLog.segmentIndexes(directory).size(), "Лишние сегменты журнала не удалены");
+        // Изменения после снимка должны воспроизвестись из хвоста журнала
+        userStorage.removeFriend(1L, 3L);
+        filmStorage.removeLike(2L, 3L);
+        restart();
+
+        assertEquals(Set.of(2L), userStorage.getUserById(1L).getFriendsId(), "Друзья не совпадают");
+        assertEquals(Set.of(1L), filmStorage.getFilmById(2L).getFilmLikedUsersId(), "Лайки не совпадают");
+    }
+
+    @Test
+    void recoverFromSnapshotOnlyTesting() throws IOException {
+        fillStorages();
+        properties.setSnapshotOnShutdown(true);
+        restart();
+
+        assertRecoveredState();
+    }
+
+    @Test
+    void removedIdIsNotReusedAfterRestartTesting() throws IOException {
+        fillStorages();
+        filmStorage.removeFilm(3L);
+        restart();
+
+        assertEquals(4L, filmStorage.addFilm(film(4)).getId(), "ID удаленного фильма выдан повторно");
+    }
+
+    @Test
+    void tornLogTailIsDiscardedTesting() throws IOException {
+        fillStorages();
+        engine.close();
+        // Имитируем сбой посреди записи: в конце сегмента остается неполная запись
+        Path segment = WriteAheadLog.segmentPath(directory, WriteAheadLog.segmentIndexes(directory).getLast());
+        Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+        start();
+
+        assertRecoveredState();
+        User addedUser = userStorage.addUser(user(4));
+        restart();
+        assertEquals(addedUser.getEmail(), userStorage.getUserById(4L).getEmail(), "Пользователь не восстановлен");
+    }
+
+    @Test
+    void storageStopsAfterLogFailureTesting() throws IOException {
+        properties.setFsyncPolicy(FsyncPolicy.ALWAYS);
+        properties.setMaxSegmentSize(DataSize.ofBytes(1));
+        restart();
+        filmStorage.addFilm(film(1));
+        // Удаляем каталог журнала: следующая запись не сможет открыть новый сегмент
+        deleteDirectory();
+
+        assertThrows(RuntimeException.class, () -> filmStorage.addFilm(film(2)),
+                "Исключение не выброшено при ошибке журнала");
+        // Проверяем, что после ошибки журнала хранилище не отдает состояние, не попавшее в журнал,
+        // и не принимает новые изменения
+        assertThrows(IllegalStateException.class, () -> filmStorage.getAllFilms(),
+                "Чтение не отклонено после ошибки журнала");
+        assertThrows(IllegalStateException.class, () -> userStorage.addUser(user(1)),
+                "Запись не отклонена после ошибки журнала");
+        assertThrows(IllegalStateException.class, () -> engine.snapshot(),
+                "Снимок не отклонен после ошибки журнала");
+        Files.createDirectories(directory);
+    }
+
+    @Test
+    void segmentsAfterCorruptedSegmentAreQuarantinedTesting() throws IOException {
+        // Каждая запись ждет своего fsync и попадает в отдельный сегмент
+        properties.setFsyncPolicy(FsyncPolicy.ALWAYS);
+        properties.setMaxSegmentSize(DataSize.ofBytes(1));
+        restart();
+        for (int i = 1; i <= 3; i++) {
+            filmStorage.addFilm(film(i));
+        }
+        engine.close();
+        List<Long> segments = WriteAheadLog.segmentIndexes(directory);
+        // Повреждаем сегмент с первым фильмом: фильмы 2 и 3 остаются в следующих сегментах
+        long corrupted = segments.stream()
+                .filter(segment -> WriteAheadLog.segmentPath(directory, segment).toFile().length() > 0)
+                .findFirst()
+                .orElseThrow();
+        Files.write(WriteAheadLog.segmentPath(directory, corrupted), new byte[]{0, 0, 0, 42, 1, 2},
+                StandardOpenOption.APPEND);
+        start();
+
+        // Проверяем, что сегменты после поврежденного не воспроизведены, а ID из них не выдаются повторно
+        assertEquals(List.of(1L), filmStorage.getAllFilms().stream().map(Film::getId).toList(),
+                "Список фильмов не совпадает");
+        // Новые записи идут в сегмент, следующий за поврежденным
+        List<Long> kept = segments.stream().filter(segment -> segment <= corrupted).toList();
+        assertEquals(Stream.concat(kept.stream(), Stream.of(corrupted + 1)).toList(),
+                WriteAheadLog.segmentIndexes(directory),
+                "Сегменты после поврежденного не перенесены в карантин");
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(segments.size() - kept.size(),
+                    files.filter(file -> file.toString().contains(".corrupt-")).count(),
+                    "Количество сегментов в карантине не совпадает");
+        }
+        assertEquals(4L, filmStorage.addFilm(film(4)).getId(), "ID из сегмента в карантине выдан повторно");
+
+        // Проверяем, что после перезапуска новые записи не перекрыты записями из карантина
+        restart();
+        assertEquals(List.of(1L, 4L), filmStorage.getAllFilms().stream().map(Film::getId).toList(),
+                "Список фильмов не совпадает");
+        assertEquals("Name of the film4", filmStorage.getFilmById(4L).getName(), "Название не совпадает");
+    }
+
+    private void fillStorages() {
+        for (int i = 1; i <= 3; i++) {
+            userStorage.addUser(user(i));
+            filmStorage.addFilm(film(i));
+        }
+        User updatedUser = user(2);
+        updatedUser.setId(2L);
+        updatedUser.setName("UpdatedName");
+        userStorage.updateUser(updatedUser);
+        userStorage.addFriend(1L, 2L);
+        userStorage.addFriend(1L, 3L);
+        filmStorage.addLike(2L, 1L);
+        filmStorage.addLike(2L, 3L);
+        filmStorage.addLike(1L, 2L);
+        filmStorage.removeFilm(1L);
+    }
+
+    private void assertRecoveredState() {
+        assertEquals(List.of(2L, 3L), filmStorage.getAllFilms().stream().map(Film::getId).toList(),
+                "Список фильмов не совпадает");
+        assertEquals("Name of the film2", filmStorage.getFilmById(2L).getName(), "Название не совпадает");
+        assertEquals(LocalDate.of(2000, Month.JANUARY, 2), filmStorage.getFilmById(2L).getReleaseDate(),
+                "Дата релиза не совпадает");
+        assertEquals(Set.of(1L, 3L), filmStorage.getFilmById(2L).getFilmLikedUsersId(), "Лайки не совпадают");
+        assertEquals(2L, filmStorage.getMostPopularFilms(10).getFirst().getId(), "Популярные фильмы не совпадают");
+        assertEquals(3, userStorage.getAllUsers().size(), "Количество пользователей не совпадает");
+        assertEquals("UpdatedName", userStorage.getUserById(2L).getName(), "Имя не совпадает");
+        assertEquals(2L, userStorage.getUserByEmail("user2@testemail.com").getId(), "Поиск по E-mail не работает");
+        assertEquals(Set.of(2L, 3L), userStorage.getUserById(1L).getFriendsId(), "Друзья не совпадают");
+        assertEquals(Set.of(1L), userStorage.getUserById(3L).getFriendsId(), "Друзья не совпадают");
+    }
+
+    private void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private void start() throws IOException {
+        engine = new WalStorageEngine(properties);
+        filmStorage = new WalFilmStorage(engine);
+        userStorage = new WalUserStorage(engine);
+    }
+
+    private void restart() throws IOException {
+        engine.close();
+        start();
+    }
+
+}
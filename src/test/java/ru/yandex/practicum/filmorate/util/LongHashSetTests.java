@@ -0,0 +1,105 @@
+package ru.yandex.practicum.filmorate.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTests {
+    LongHashSet set;
+
+    @BeforeEach
+    void setUp() {
+        set = new LongHashSet();
+    }
+
+    @Test
+    void addAndRemoveTesting() {
+        // Проверяем, что повторное добавление и удаление отсутствующего элемента не меняют множество
+        assertTrue(set.add(5L), "Элемент не добавлен");
+        assertFalse(set.add(5L), "Элемент добавлен повторно");
+        assertTrue(set.contains(5L), "Элемент не найден");
+        assertEquals(1, set.size(), "Неверный размер множества");
+
+        assertFalse(set.remove(7L), "Удален отсутствующий элемент");
+        assertTrue(set.remove(5L), "Элемент не удален");
+        assertFalse(set.contains(5L), "Удаленный элемент найден");
+        assertTrue(set.isEmpty(), "Множество не пусто");
+    }
+
+    @Test
+    void zeroAndNegativeValuesTesting() {
+        set.add(0L);
+        set.add(-3L);
+
+        // Проверяем, что ноль и отрицательные значения хранятся наравне с остальными
+        assertTrue(set.contains(0L), "Ноль не найден");
+        assertTrue(set.contains(-3L), "Отрицательное значение не найдено");
+        assertEquals(2, set.size(), "Неверный размер множества");
+        assertEquals(List.of(-3L, 0L), new ArrayList<>(set), "Порядок элементов не совпадает");
+    }
+
+    @Test
+    void iterationOrderTesting() {
+        for (long i = 100; i > 0; i--) {
+            set.add(i);
+        }
+        List<Long> values = new ArrayList<>(set);
+
+        // Проверяем, что итерация идет по возрастанию элементов
+        assertEquals(100, values.size(), "Неверное количество элементов");
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(i + 1, values.get(i), "Порядок элементов не совпадает");
+        }
+    }
+
+    @Test
+    void randomOperationsMatchHashSetTesting() {
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long value = random.nextInt(5_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value), "Результат добавления не совпадает");
+            } else {
+                assertEquals(expected.remove(value), set.remove(value), "Результат удаления не совпадает");
+            }
+        }
+
+        // Проверяем, что после смешанных операций содержимое совпадает с эталонным HashSet
+        assertEquals(expected.size(), set.size(), "Неверный размер множества");
+        assertEquals(expected, set, "Содержимое множеств не совпадает");
+        for (long value = 0; value < 5_000; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "Результат поиска не совпадает");
+        }
+    }
+
+    @Test
+    void intersectTesting() {
+        LongHashSet other = new LongHashSet();
+        for (long i = 1; i <= 1000; i++) {
+            set.add(i);
+        }
+        for (long i = 990; i <= 1010; i += 2) {
+            other.add(i);
+        }
+        other.add(0L);
+
+        long[] common = set.intersect(other);
+        Arrays.sort(common);
+
+        // Проверяем, что пересечение не зависит от порядка множеств и совпадает по размеру с подсчетом
+        assertArrayEquals(new long[]{990, 992, 994, 996, 998, 1000}, common, "Пересечение не совпадает");
+        assertEquals(6, set.intersectionSize(other), "Размер пересечения не совпадает");
+        assertEquals(6, other.intersectionSize(set), "Размер пересечения не совпадает");
+        assertEquals(0, set.intersectionSize(new LongHashSet()), "Пересечение с пустым множеством не пусто");
+    }
+
+}
\ No newline at end of file
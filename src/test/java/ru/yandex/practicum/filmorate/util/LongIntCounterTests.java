@@ -0,0 +1,108 @@
+package ru.yandex.practicum.filmorate.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntCounterTests {
+    LongIntCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new LongIntCounter();
+    }
+
+    @Test
+    void incrementAndGetTesting() {
+        counter.increment(5L);
+        counter.increment(5L);
+        counter.increment(0L);
+        counter.add(-7L, 3);
+
+        // Проверяем счетчики, в том числе для нуля и отсутствующего ключа
+        assertEquals(2, counter.get(5L), "Счетчик не совпадает");
+        assertEquals(1, counter.get(0L), "Счетчик нуля не совпадает");
+        assertEquals(3, counter.get(-7L), "Счетчик не совпадает");
+        assertEquals(0, counter.get(8L), "Счетчик отсутствующего ключа не равен нулю");
+        assertEquals(3, counter.size(), "Количество ключей не совпадает");
+    }
+
+    @Test
+    void mergeTesting() {
+        LongIntCounter other = new LongIntCounter();
+        counter.add(1L, 2);
+        other.add(1L, 3);
+        other.add(2L, 1);
+
+        counter.merge(other);
+
+        assertEquals(5, counter.get(1L), "Счетчик не совпадает");
+        assertEquals(1, counter.get(2L), "Счетчик не совпадает");
+    }
+
+    @Test
+    void topOrdersByCountThenKeyTesting() {
+        counter.add(10L, 1);
+        counter.add(20L, 3);
+        counter.add(30L, 3);
+        counter.add(40L, 2);
+        counter.add(50L, 5);
+
+        // Проверяем порядок по убыванию счетчика, при равенстве по возрастанию ключа, и пропуск исключенных
+        assertArrayEquals(new long[]{20L, 30L, 40L}, counter.top(3, key -> key == 50L), "Отбор не совпадает");
+        assertArrayEquals(new long[]{50L, 20L, 30L, 40L, 10L}, counter.top(10, key -> false),
+                "Отбор не совпадает");
+        assertEquals(0, counter.top(0, key -> false).length, "Отобраны ключи при k = 0");
+    }
+
+    @Test
+    void randomTopMatchesSortingTesting() {
+        Random random = new Random(42);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(5_000);
+            counter.increment(key);
+            expected.merge(key, 1, Integer::sum);
+        }
+
+        long[] top = counter.top(50, key -> key % 7 == 0);
+
+        // Проверяем, что отбор через кучу совпадает с полной сортировкой
+        long[] sorted = expected.entrySet().stream()
+                .filter(entry -> entry.getKey() % 7 != 0)
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())))
+                .limit(50)
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+        assertArrayEquals(sorted, top, "Отбор не совпадает с сортировкой");
+        assertEquals(expected.size(), counter.size(), "Количество ключей не совпадает");
+    }
+
+    @Test
+    void randomAddAndSubtractMatchesMapTesting() {
+        Random random = new Random(7);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(2_000);
+            int delta = expected.containsKey(key) && random.nextBoolean() ? -1 : 1;
+            counter.add(key, delta);
+            expected.merge(key, delta, (count, change) -> count + change == 0 ? null : count + change);
+        }
+
+        // Проверяем, что ключи с обнулившимся счетчиком удалены, а удаление не сломало цепочки пробирования
+        for (long key = 0; key < 2_000; key++) {
+            assertEquals((int) expected.getOrDefault(key, 0), counter.get(key), "Счетчик не совпадает");
+        }
+        assertEquals(expected.size(), counter.size(), "Количество ключей не совпадает");
+        assertEquals(expected.size(), counter.top(Integer.MAX_VALUE, key -> false).length,
+                "Отобраны ключи с нулевым счетчиком");
+    }
+
+}
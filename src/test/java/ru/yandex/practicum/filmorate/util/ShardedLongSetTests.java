@@ -0,0 +1,122 @@
+package ru.yandex.practicum.filmorate.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedLongSetTests {
+    private static final int THREADS = 8;
+    private static final int VALUES_PER_THREAD = 5_000;
+
+    ShardedLongSet set;
+
+    @BeforeEach
+    void setUp() {
+        set = new ShardedLongSet();
+    }
+
+    @Test
+    void addAndRemoveTesting() {
+        // Проверяем, что повторное добавление и удаление отсутствующего элемента не меняют множество
+        assertTrue(set.add(5L), "Элемент не добавлен");
+        assertFalse(set.add(5L), "Элемент добавлен повторно");
+        assertTrue(set.contains(5L), "Элемент не найден");
+        assertEquals(1, set.size(), "Неверный размер множества");
+
+        assertFalse(set.remove(7L), "Удален отсутствующий элемент");
+        assertTrue(set.remove(5L), "Элемент не удален");
+        assertFalse(set.contains(5L), "Удаленный элемент найден");
+        assertTrue(set.isEmpty(), "Множество не пусто");
+        assertFalse(set.isSharded(), "Множество шардировано без конкуренции");
+    }
+
+    @Test
+    void shardingKeepsValuesTesting() {
+        for (long i = -50; i <= 50; i++) {
+            set.add(i);
+        }
+        set.shard();
+
+        // Проверяем, что после шардирования все элементы на месте, а итерация идет по возрастанию
+        assertTrue(set.isSharded(), "Множество не шардировано");
+        assertEquals(101, set.size(), "Неверный размер множества");
+        assertEquals(101, set.toLongArray().length, "Неверная длина массива");
+        List<Long> values = new ArrayList<>(set);
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(i - 50, values.get(i), "Порядок элементов не совпадает");
+        }
+
+        assertTrue(set.remove(-50L), "Элемент не удален");
+        assertTrue(set.add(51L), "Элемент не добавлен");
+        assertFalse(set.contains(-50L), "Удаленный элемент найден");
+        assertTrue(set.contains(51L), "Элемент не найден");
+        assertEquals(101, set.size(), "Неверный размер множества");
+    }
+
+    @Test
+    void contentionIsCountedWithinWindowTesting() throws InterruptedException {
+        ShardedLongSet longWindow = new ShardedLongSet(TimeUnit.HOURS.toNanos(1));
+        for (int i = 1; i < ShardedLongSet.CONTENTION_THRESHOLD; i++) {
+            assertFalse(longWindow.contended(), "Порог конкуренции достигнут раньше времени");
+        }
+        assertTrue(longWindow.contended(), "Порог конкуренции не достигнут");
+
+        ShardedLongSet shortWindow = new ShardedLongSet(TimeUnit.MILLISECONDS.toNanos(20));
+        for (int i = 1; i < ShardedLongSet.CONTENTION_THRESHOLD; i++) {
+            shortWindow.contended();
+        }
+        Thread.sleep(50);
+
+        // Проверяем, что конкуренция из прошлого окна не учитывается
+        assertFalse(shortWindow.contended(), "Учтена конкуренция из прошлого окна");
+    }
+
+    @Test
+    void concurrentAddsWithShardingTesting() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                long offset = (long) t * VALUES_PER_THREAD;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (long i = 1; i <= VALUES_PER_THREAD; i++) {
+                        set.add(offset + i);
+                        // Посреди записи переводим множество на шарды, чтобы записи шли и во время переноса
+                        if (offset == 0 && i == VALUES_PER_THREAD / 2) {
+                            set.shard();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Проверяем, что ни одно значение не потеряно и не задвоено
+        int expected = THREADS * VALUES_PER_THREAD;
+        assertTrue(set.isSharded(), "Множество не шардировано");
+        assertEquals(expected, set.size(), "Неверный размер множества");
+        assertEquals(expected, Set.copyOf(set).size(), "Элементы задвоены");
+        for (long i = 1; i <= expected; i++) {
+            assertTrue(set.contains(i), "Элемент " + i + " потерян");
+        }
+    }
+
+}